@@ -0,0 +1,71 @@
+package api.benchmark;
+
+import api.business.EmployeeBusiness;
+import api.business.Result;
+import api.cache.CompanyCaches;
+import api.data.InMemoryDataAccess;
+import api.utils.Constants;
+import companydata.Department;
+import companydata.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full EmployeeBusiness.createEmployee, validation included, against the in-memory DataAccess
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CreateEmployeeBenchmark {
+	@Param({"100", "10000"})
+	private int existingEmployees;
+
+	private EmployeeBusiness business;
+	private String hireDate;
+	private int departmentId;
+	private int managerId;
+	private int next;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		InMemoryDataAccess dl = new InMemoryDataAccess();
+		CompanyCaches.invalidate(Constants.USERNAME);
+
+		departmentId = dl.insertDepartment(new Department(Constants.USERNAME, "Bench", "bench-d1", "Rochester")).getId();
+		hireDate = Dates.lastWeekday();
+		managerId = 0;
+
+		// The first employee has no manager and manages the others
+		for (int i = 0; i < existingEmployees; i++) {
+			Employee e = dl.insertEmployee(new Employee("Existing " + i, "existing-" + i, Date.valueOf(hireDate),
+					"Programmer", 50000.0, departmentId, managerId));
+			if (i == 0) managerId = e.getId();
+		}
+
+		business = new EmployeeBusiness(dl);
+		next = 0;
+	}
+
+	@Benchmark
+	public Result<Employee> createEmployee() {
+		int n = next++;
+		return business.createEmployee(Constants.USERNAME, "Bench " + n, "bench-e" + n, hireDate, "Programmer",
+				60000.0, departmentId, managerId);
+	}
+}
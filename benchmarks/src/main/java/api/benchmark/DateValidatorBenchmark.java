@@ -0,0 +1,54 @@
+package api.benchmark;
+
+import api.utils.DateValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of the hire date and timecard timestamps done on every employee and timecard write
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateValidatorBenchmark {
+	private String hireDate;
+	private String startTime;
+	private String endTime;
+	private String invalidTime;
+
+	@Setup
+	public void setup() {
+		hireDate = Dates.lastWeekday();
+		startTime = Dates.yesterdayAt(9);
+		endTime = Dates.yesterdayAt(17);
+		invalidTime = "not a timestamp";
+	}
+
+	@Benchmark
+	public boolean checkHireDate() {
+		return DateValidator.HIRE_DATE.checkHireDate(hireDate);
+	}
+
+	@Benchmark
+	public boolean validateTimestamps() {
+		return DateValidator.TIMESTAMP.validateTimestamps(startTime, endTime);
+	}
+
+	@Benchmark
+	public boolean validateTimestampsInvalid() {
+		return DateValidator.TIMESTAMP.validateTimestamps(invalidTime, endTime);
+	}
+}
@@ -0,0 +1,32 @@
+package api.benchmark;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * Dates that pass the service's validation rules on the day the benchmark runs
+ */
+final class Dates {
+	private Dates() {
+	}
+
+	/**
+	 * @return most recent weekday before today, formatted as a hire date
+	 */
+	static String lastWeekday() {
+		LocalDate date = LocalDate.now().minusDays(1);
+
+		while (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+			date = date.minusDays(1);
+		}
+
+		return date.toString();
+	}
+
+	/**
+	 * @return yesterday at the given hour, formatted as a timestamp
+	 */
+	static String yesterdayAt(int hour) {
+		return String.format("%s %02d:00:00", LocalDate.now().minusDays(1), hour);
+	}
+}
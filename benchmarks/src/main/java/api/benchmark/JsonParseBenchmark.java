@@ -0,0 +1,51 @@
+package api.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ObjectMapper.readTree on the request bodies of the PUT handlers, with the shared mapper the resources hold and with
+ * a mapper per request as they used to create
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonParseBenchmark {
+	private static final String EMPLOYEE_JSON = "{\"company\": \"xl4998\", \"emp_id\": 1337, \"emp_name\": \"Jane Doe\", " +
+			"\"emp_no\": \"xl4998-e1337\", \"hire_date\": \"2019-10-14\", \"job\": \"Programmer\", \"salary\": 85432.5, " +
+			"\"dept_id\": 42, \"mng_id\": 7}";
+	private static final String TIMECARD_JSON = "{\"company\": \"xl4998\", \"timecard_id\": 9001, " +
+			"\"start_time\": \"2019-10-14 09:00:00\", \"end_time\": \"2019-10-14 17:30:00\", \"emp_id\": 1337}";
+
+	private final ObjectMapper om = new ObjectMapper();
+
+	@Benchmark
+	public JsonNode employeeSharedMapper() throws JsonProcessingException {
+		return om.readTree(EMPLOYEE_JSON);
+	}
+
+	@Benchmark
+	public JsonNode employeeMapperPerRequest() throws JsonProcessingException {
+		return new ObjectMapper().readTree(EMPLOYEE_JSON);
+	}
+
+	@Benchmark
+	public JsonNode timecardSharedMapper() throws JsonProcessingException {
+		return om.readTree(TIMECARD_JSON);
+	}
+}
@@ -0,0 +1,108 @@
+package api.benchmark;
+
+import api.utils.Constants;
+import api.utils.VirtualThreadExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests on the platform thread pool of RequestExecutor against a virtual thread per request, 256 at a time.
+ *
+ * A request either is answered from the caches (a little CPU work) or borrows one of companyservices.pool.maxSize
+ * connections and blocks for a database round trip, the way a DataLayer call through the DataLayerPool does. The
+ * Throughput mode gives requests per second, SampleTime the p99 latency. The virtual mode needs a Java 21 JVM.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(256)
+@State(Scope.Benchmark)
+public class RequestThreadsBenchmark {
+	@Param({"platform", "virtual"})
+	private String mode;
+
+	/**
+	 * Share of the requests that need the database
+	 */
+	@Param({"10", "50"})
+	private int databasePercent;
+
+	@Param({"2"})
+	private int roundTripMillis;
+
+	private Executor executor;
+	private ThreadPoolExecutor platform;
+	private Semaphore connections;
+
+	@Setup
+	public void setup() {
+		connections = new Semaphore(Constants.POOL_MAX_SIZE, true);
+
+		if (mode.equals("virtual")) {
+			executor = new VirtualThreadExecutor("request-", Constants.REQUEST_MAX_IN_FLIGHT);
+		} else {
+			// Same shape as RequestExecutor, the queue has room for every benchmark thread
+			platform = new ThreadPoolExecutor(Constants.REQUEST_THREADS, Constants.REQUEST_THREADS, 60,
+					TimeUnit.SECONDS, new ArrayBlockingQueue<>(Math.max(Constants.REQUEST_QUEUE_SIZE, 256)),
+					new ThreadPoolExecutor.AbortPolicy());
+			executor = platform;
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (platform != null) platform.shutdownNow();
+	}
+
+	@Benchmark
+	public void request() {
+		boolean database = ThreadLocalRandom.current().nextInt(100) < databasePercent;
+
+		CompletableFuture.runAsync(() -> {
+			if (database) {
+				roundTrip();
+			} else {
+				Blackhole.consumeCPU(1000);
+			}
+		}, executor).join();
+	}
+
+	private void roundTrip() {
+		try {
+			connections.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+
+		try {
+			Thread.sleep(roundTripMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			connections.release();
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package api.benchmark;
+
+import api.json.DepartmentSerializer;
+import api.json.EmployeeSerializer;
+import api.json.TimecardSerializer;
+import api.utils.Constants;
+import companydata.Department;
+import companydata.Employee;
+import companydata.Timecard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity JSON through the String.format templates in Constants, the way the services used to build it, against the
+ * serializers that replaced them
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+	private Department department;
+	private Employee employee;
+	private Timecard timecard;
+
+	@Setup
+	public void setup() {
+		department = new Department(42, Constants.USERNAME, "Information Technology", "IT-042", "Rochester");
+		employee = new Employee(1337, "Jane Doe", "xl4998-e1337", Date.valueOf("2019-10-14"), "Programmer",
+				85432.5, 42, 7);
+		timecard = new Timecard(9001, Timestamp.valueOf("2019-10-14 09:00:00"),
+				Timestamp.valueOf("2019-10-14 17:30:00"), 1337);
+	}
+
+	@Benchmark
+	public String departmentTemplate() {
+		Department d = department;
+		return String.format(Constants.DEPARTMENT_TEMPLATE, d.getId(), d.getCompany(), d.getDeptName(), d.getDeptNo(),
+				d.getLocation());
+	}
+
+	@Benchmark
+	public String departmentSerializer() {
+		return DepartmentSerializer.INSTANCE.toJson(department);
+	}
+
+	@Benchmark
+	public String employeeTemplate() {
+		Employee e = employee;
+		DateFormat df = new SimpleDateFormat("yyyy-MM-dd");
+		return String.format(Constants.EMPLOYEE_TEMPLATE, e.getId(), e.getEmpName(), e.getEmpNo(),
+				df.format(e.getHireDate()), e.getJob(), e.getSalary(), e.getDeptId(), e.getMngId());
+	}
+
+	@Benchmark
+	public String employeeSerializer() {
+		return EmployeeSerializer.INSTANCE.toJson(employee);
+	}
+
+	@Benchmark
+	public String timecardTemplate() {
+		Timecard t = timecard;
+		DateFormat df = new SimpleDateFormat(Constants.TIMESTAMP_FORMAT);
+		return String.format(Constants.TIMECARD_TEMPLATE, t.getId(), df.format(t.getStartTime()),
+				df.format(t.getEndTime()), t.getEmpId());
+	}
+
+	@Benchmark
+	public String timecardSerializer() {
+		return TimecardSerializer.INSTANCE.toJson(timecard);
+	}
+}
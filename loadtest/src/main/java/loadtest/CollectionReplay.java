@@ -0,0 +1,246 @@
+package loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays the requests of CompanyServices.postman_collection.json many times in parallel and reports throughput and
+ * latency percentiles per request. Usage:
+ *
+ * java loadtest.CollectionReplay --iterations=1000 --concurrency=16
+ *   --base-url=http://localhost:8080/LiuXinXLRestFinal/resources/CompanyServices/ --report=replay-report.json
+ *
+ * With --embedded the requests go straight into the resources of this build, backed by the in-memory store, instead
+ * of to a deployment.
+ *
+ * Before the replays a seed pass runs the creates of the collection once, so every replay has an existing manager and
+ * rows to read before it created its own. The seed rows are deleted at the end.
+ */
+public class CollectionReplay {
+	private final ObjectMapper om = new ObjectMapper();
+	private final Map<String, String> options;
+	private final String runId = Long.toString(System.currentTimeMillis() / 1000, 36);
+
+	public CollectionReplay(Map<String, String> options) {
+		this.options = options;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+
+		for (String arg : args) {
+			if (!arg.startsWith("--")) {
+				System.err.println("Unknown argument " + arg + ", expected --name=value");
+				System.exit(1);
+			}
+
+			int eq = arg.indexOf('=');
+			options.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+		}
+
+		new CollectionReplay(options).run();
+	}
+
+	/**
+	 * Seeds, replays, deletes the seed rows and writes the report
+	 */
+	public void run() throws IOException, InterruptedException {
+		String collectionFile = option("collection", "CompanyServices.postman_collection.json");
+		String baseUrl = option("base-url", "http://localhost:8080/LiuXinXLRestFinal/resources/CompanyServices/");
+		boolean embedded = Boolean.parseBoolean(option("embedded", "false"));
+		int iterations = Integer.parseInt(option("iterations", "100"));
+		int concurrency = Integer.parseInt(option("concurrency", "8"));
+		String order = option("order", "dependency");
+		String exclude = option("exclude", "Delete Company");
+		boolean refreshDates = !Boolean.parseBoolean(option("keep-dates", "false"));
+		String reportFile = option("report", "replay-report.json");
+
+		PostmanCollection collection = PostmanCollection.read(Paths.get(collectionFile));
+		List<ReplayRequest> requests = select(collection.getRequests(), exclude);
+		if ("dependency".equals(order)) requests = dependencyOrder(requests);
+
+		ObjectNode settings = JsonNodeFactory.instance.objectNode();
+		settings.put("collection", collectionFile);
+		settings.put("target", embedded ? "embedded" : baseUrl);
+		settings.put("iterations", iterations);
+		settings.put("concurrency", concurrency);
+		settings.put("order", order);
+		settings.put("exclude", exclude);
+		settings.put("refreshDates", refreshDates);
+
+		LoadReport report = new LoadReport(settings);
+		Map<ReplayRequest, EndpointStats> stats = new HashMap<>();
+		for (ReplayRequest request : requests) stats.put(request, report.stats(request.getName()));
+
+		if (embedded && System.getProperty("companyservices.dataAccess") == null) {
+			System.setProperty("companyservices.dataAccess", "memory");
+		}
+
+		try (Transport transport = embedded ? new EmbeddedTransport() : new HttpTransport(baseUrl, concurrency)) {
+			Map<String, String> globals = new HashMap<>(collection.getVariables());
+			ReplayParameters seed = seed(transport, requests, globals, refreshDates);
+
+			AtomicInteger next = new AtomicInteger();
+			List<ReplayRequest> sequence = requests;
+			ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+			List<Future<?>> users = new ArrayList<>();
+			long start = System.nanoTime();
+
+			// Every worker replays the whole collection, one iteration after the other
+			for (int u = 0; u < concurrency; u++) {
+				users.add(workers.submit(() -> {
+					int iteration;
+					while ((iteration = next.getAndIncrement()) < iterations) {
+						ReplayParameters params = new ReplayParameters(om, new HashMap<>(globals),
+								runId + Integer.toString(iteration, 36), refreshDates);
+						replay(transport, sequence, params, report, stats);
+					}
+					return null;
+				}));
+			}
+
+			try {
+				for (Future<?> user : users) user.get();
+			} catch (Exception e) {
+				throw new IOException("Replay failed", e);
+			} finally {
+				workers.shutdownNow();
+				workers.awaitTermination(1, TimeUnit.MINUTES);
+			}
+
+			double seconds = (System.nanoTime() - start) / 1e9;
+
+			// Delete the seed rows, children first
+			List<ReplayRequest> deletes = new ArrayList<>();
+			for (ReplayRequest request : requests) {
+				if ("DELETE".equals(request.getMethod())) deletes.add(request);
+			}
+			if (!"dependency".equals(order)) Collections.reverse(deletes);
+			replay(transport, deletes, seed, null, null);
+
+			report.print(System.out, seconds);
+			report.write(Paths.get(reportFile), seconds);
+			System.out.println("Report written to " + reportFile);
+		}
+	}
+
+	/**
+	 * Runs the creates of the collection once and makes their rows the defaults of every replay
+	 *
+	 * @return parameters holding the seed ids, to delete the rows afterwards
+	 */
+	private ReplayParameters seed(Transport transport, List<ReplayRequest> requests, Map<String, String> globals,
+	                              boolean refreshDates) throws IOException {
+		ReplayParameters seed = new ReplayParameters(om, new HashMap<>(globals), runId + "seed", refreshDates);
+
+		// The seed employee needs a manager unless the company has no employees yet
+		Transport.Reply employees = transport.send(new ReplayRequest("seed", "GET", "employees",
+				Collections.singletonMap("company", companyOf(requests)), Collections.emptyMap(), null));
+		JsonNode list = employees.getStatus() == 200 ? om.readTree(employees.getBody()) : null;
+		seed.getVariables().put("mng_id", list != null && list.size() > 0 ? list.get(0).path("emp_id").asText() : "0");
+
+		List<ReplayRequest> creates = new ArrayList<>();
+		for (ReplayRequest request : requests) {
+			if ("POST".equals(request.getMethod())) creates.add(request);
+		}
+		replay(transport, creates, seed, null, null);
+
+		globals.putAll(seed.getVariables());
+		if (seed.getVariables().containsKey("emp_id")) globals.put("mng_id", seed.getVariables().get("emp_id"));
+
+		return seed;
+	}
+
+	/**
+	 * Sends the requests in order with the values of one replay
+	 *
+	 * @param report report to record to, null to not record
+	 */
+	private static void replay(Transport transport, List<ReplayRequest> requests, ReplayParameters params,
+	                           LoadReport report, Map<ReplayRequest, EndpointStats> stats) throws IOException {
+		for (ReplayRequest template : requests) {
+			ReplayRequest request = params.apply(template);
+			int status;
+			long sent = System.nanoTime();
+
+			try {
+				Transport.Reply reply = transport.send(request);
+				status = reply.getStatus();
+				params.capture(request, reply);
+			} catch (IOException e) {
+				status = EndpointStats.NO_RESPONSE;
+			}
+
+			long micros = (System.nanoTime() - sent) / 1000;
+			if (report != null) report.record(stats.get(template), status, micros, micros);
+		}
+	}
+
+	/**
+	 * @param exclude comma separated request names, with or without their folder
+	 * @return requests that are not excluded
+	 */
+	private static List<ReplayRequest> select(List<ReplayRequest> requests, String exclude) {
+		Set<String> excluded = new HashSet<>();
+		for (String name : exclude.split(",")) excluded.add(name.trim());
+
+		List<ReplayRequest> result = new ArrayList<>();
+		for (ReplayRequest request : requests) {
+			int folder = request.getName().lastIndexOf(" / ");
+			String shortName = folder < 0 ? request.getName() : request.getName().substring(folder + 3);
+			if (!excluded.contains(request.getName()) && !excluded.contains(shortName)) result.add(request);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Creates in collection order, then reads, then updates, then deletes in reverse order, so every request refers to
+	 * rows created earlier in the same replay
+	 */
+	private static List<ReplayRequest> dependencyOrder(List<ReplayRequest> requests) {
+		Map<String, List<ReplayRequest>> byMethod = new LinkedHashMap<>();
+		for (String method : Arrays.asList("POST", "GET", "PUT", "OTHER", "DELETE")) byMethod.put(method, new ArrayList<>());
+
+		for (ReplayRequest request : requests) {
+			byMethod.getOrDefault(request.getMethod(), byMethod.get("OTHER")).add(request);
+		}
+		Collections.reverse(byMethod.get("DELETE"));
+
+		List<ReplayRequest> result = new ArrayList<>();
+		byMethod.values().forEach(result::addAll);
+		return result;
+	}
+
+	private static String companyOf(List<ReplayRequest> requests) {
+		for (ReplayRequest request : requests) {
+			String company = request.getQuery().getOrDefault("company", request.getForm().get("company"));
+			if (company != null) return company;
+		}
+
+		return "xl4998";
+	}
+
+	private String option(String name, String defaultValue) {
+		return options.getOrDefault(name, defaultValue);
+	}
+}
@@ -0,0 +1,171 @@
+package loadtest;
+
+import api.ApplicationConfig;
+
+import javax.ws.rs.DELETE;
+import javax.ws.rs.FormParam;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.ExceptionMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Transport that calls the resource methods of ApplicationConfig directly, without a server or sockets.
+ *
+ * Routes are read from the @Path and HTTP method annotations and arguments are bound from @QueryParam, @FormParam or
+ * the raw body (as a String or an InputStream), which covers every resource in this service. Run it with
+ * -Dcompanyservices.dataAccess=memory to replay against the in-memory store.
+ */
+public class EmbeddedTransport implements Transport {
+	private final Map<String, Route> routes = new HashMap<>();
+	private final List<ExceptionMapper<?>> mappers = new ArrayList<>();
+
+	public EmbeddedTransport() {
+		for (Object singleton : new ApplicationConfig().getSingletons()) {
+			if (singleton instanceof ExceptionMapper) {
+				mappers.add((ExceptionMapper<?>) singleton);
+				continue;
+			}
+
+			Path base = singleton.getClass().getAnnotation(Path.class);
+			if (base == null) continue;
+
+			for (Method method : singleton.getClass().getMethods()) {
+				Path path = method.getAnnotation(Path.class);
+				String httpMethod = httpMethodOf(method);
+
+				if (path != null && httpMethod != null) {
+					routes.put(httpMethod + " " + path.value(), new Route(singleton, method));
+				}
+			}
+		}
+	}
+
+	@Override
+	public Reply send(ReplayRequest request) throws IOException {
+		Route route = routes.get(request.getMethod() + " " + request.getPath());
+		if (route == null) return new Reply(404, "");
+
+		Response response;
+
+		try {
+			Object result = route.method.invoke(route.resource, route.bind(request));
+
+			// Async resource methods complete on the request pool
+			if (result instanceof CompletionStage) {
+				result = ((CompletionStage<?>) result).toCompletableFuture().join();
+			}
+
+			response = (Response) result;
+		} catch (InvocationTargetException e) {
+			response = map(e.getCause());
+		} catch (CompletionException e) {
+			response = map(e.getCause());
+		} catch (IllegalAccessException e) {
+			throw new IOException("Cannot call " + route.method, e);
+		}
+
+		return new Reply(response.getStatus(), entityOf(response));
+	}
+
+	@Override
+	public void close() {
+	}
+
+	/**
+	 * @param error exception thrown by a resource
+	 * @return response of the matching ExceptionMapper, or a 500
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private Response map(Throwable error) {
+		for (ExceptionMapper mapper : mappers) {
+			for (Type type : mapper.getClass().getGenericInterfaces()) {
+				if (type instanceof ParameterizedType &&
+						((ParameterizedType) type).getRawType() == ExceptionMapper.class &&
+						((Class<?>) ((ParameterizedType) type).getActualTypeArguments()[0]).isInstance(error)) {
+					return mapper.toResponse(error);
+				}
+			}
+		}
+
+		return Response.serverError().entity(String.valueOf(error)).build();
+	}
+
+	private static String entityOf(Response response) throws IOException {
+		Object entity = response.getEntity();
+
+		if (entity instanceof StreamingOutput) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			((StreamingOutput) entity).write(out);
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		}
+
+		return entity == null ? "" : entity.toString();
+	}
+
+	private static String httpMethodOf(Method method) {
+		if (method.isAnnotationPresent(GET.class)) return "GET";
+		if (method.isAnnotationPresent(POST.class)) return "POST";
+		if (method.isAnnotationPresent(PUT.class)) return "PUT";
+		if (method.isAnnotationPresent(DELETE.class)) return "DELETE";
+		return null;
+	}
+
+	/**
+	 * Resource method and how to bind its String parameters
+	 */
+	private static final class Route {
+		private final Object resource;
+		private final Method method;
+
+		private Route(Object resource, Method method) {
+			this.resource = resource;
+			this.method = method;
+		}
+
+		private Object[] bind(ReplayRequest request) {
+			Annotation[][] annotations = method.getParameterAnnotations();
+			Class<?>[] types = method.getParameterTypes();
+			Object[] args = new Object[annotations.length];
+
+			for (int i = 0; i < args.length; i++) {
+				args[i] = request.getBody();
+
+				if (types[i] == InputStream.class) {
+					String body = request.getBody() == null ? "" : request.getBody();
+					args[i] = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+				}
+
+				for (Annotation annotation : annotations[i]) {
+					if (annotation instanceof QueryParam) {
+						args[i] = request.getQuery().get(((QueryParam) annotation).value());
+					} else if (annotation instanceof FormParam) {
+						args[i] = request.getForm().get(((FormParam) annotation).value());
+					}
+				}
+			}
+
+			return args;
+		}
+	}
+}
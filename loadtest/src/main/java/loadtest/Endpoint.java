@@ -0,0 +1,152 @@
+package loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+
+import java.io.IOException;
+
+/**
+ * CompanyServices endpoints the load test can send, each aimed at the rows of the Fixture
+ */
+public enum Endpoint {
+	DEPARTMENTS {
+		@Override
+		HttpUriRequest request(Fixture f) {
+			return new HttpGet(f.url("departments") + "?company=" + f.getCompany());
+		}
+	},
+	DEPARTMENT {
+		@Override
+		HttpUriRequest request(Fixture f) {
+			return new HttpGet(f.url("department") + "?company=" + f.getCompany() + "&dept_id=" + f.getDepartmentId());
+		}
+	},
+	EMPLOYEES {
+		@Override
+		HttpUriRequest request(Fixture f) {
+			return new HttpGet(f.url("employees") + "?company=" + f.getCompany());
+		}
+	},
+	EMPLOYEE {
+		@Override
+		HttpUriRequest request(Fixture f) {
+			return new HttpGet(f.url("employee") + "?company=" + f.getCompany() + "&emp_id=" + f.getEmployeeId());
+		}
+	},
+	TIMECARDS {
+		@Override
+		HttpUriRequest request(Fixture f) {
+			return new HttpGet(f.url("timecards") + "?company=" + f.getCompany() + "&emp_id=" + f.getEmployeeId());
+		}
+	},
+	TIMECARD {
+		@Override
+		HttpUriRequest request(Fixture f) {
+			return new HttpGet(f.url("timecard") + "?company=" + f.getCompany() + "&timecard_id=" + f.getTimecardId());
+		}
+	},
+	CREATE_TIMECARD {
+		@Override
+		HttpUriRequest request(Fixture f) {
+			return f.post("timecard",
+					"company", f.getCompany(),
+					"emp_id", String.valueOf(f.getEmployeeId()),
+					"start_time", f.startTime(),
+					"end_time", f.endTime());
+		}
+
+		@Override
+		boolean needsBody() {
+			return true;
+		}
+
+		@Override
+		void onResponse(Fixture f, int status, String body) throws IOException {
+			if (status != 200) return;
+
+			JsonNode id = f.getObjectMapper().readTree(body).path("success").path("timecard_id");
+			if (id.isInt()) f.getCreatedTimecards().add(id.asInt());
+		}
+	},
+	DELETE_TIMECARD {
+		@Override
+		Endpoint resolve(Fixture f) {
+			// Nothing to delete yet, create one instead
+			return f.getCreatedTimecards().isEmpty() ? CREATE_TIMECARD : this;
+		}
+
+		@Override
+		HttpUriRequest request(Fixture f) {
+			Integer id = f.getCreatedTimecards().poll();
+			return f.deleteTimecard(id == null ? 0 : id);
+		}
+	},
+	UPDATE_EMPLOYEE {
+		@Override
+		HttpUriRequest request(Fixture f) {
+			ObjectNode node = f.getObjectMapper().createObjectNode();
+			node.put("company", f.getCompany());
+			node.put("emp_id", f.getEmployeeId());
+			node.put("emp_name", "load test");
+			node.put("emp_no", f.getEmployeeNo());
+			node.put("hire_date", f.getHireDate());
+			node.put("job", "tester " + f.next());
+			node.put("salary", 1000.0);
+			node.put("dept_id", f.getDepartmentId());
+			node.put("mng_id", f.getManagerId());
+
+			HttpPut put = new HttpPut(f.url("employee"));
+			put.setEntity(new StringEntity(node.toString(), ContentType.APPLICATION_JSON));
+			return put;
+		}
+	};
+
+	/**
+	 * @param f fixture the request is aimed at
+	 * @return request to send
+	 */
+	abstract HttpUriRequest request(Fixture f);
+
+	/**
+	 * @param f fixture the request is aimed at
+	 * @return endpoint to actually send, when this one cannot be sent yet
+	 */
+	Endpoint resolve(Fixture f) {
+		return this;
+	}
+
+	/**
+	 * @return whether onResponse() needs the response body
+	 */
+	boolean needsBody() {
+		return false;
+	}
+
+	/**
+	 * @param f      fixture the request was aimed at
+	 * @param status HTTP status
+	 * @param body   response body, null unless needsBody()
+	 */
+	void onResponse(Fixture f, int status, String body) throws IOException {
+	}
+
+	/**
+	 * @return name used in the mix and the report, e.g. create_timecard
+	 */
+	public String label() {
+		return name().toLowerCase();
+	}
+
+	/**
+	 * @param label name used in the mix, e.g. create_timecard
+	 * @return matching endpoint
+	 */
+	public static Endpoint fromLabel(String label) {
+		return valueOf(label.trim().toUpperCase());
+	}
+}
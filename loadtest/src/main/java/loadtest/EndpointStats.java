@@ -0,0 +1,74 @@
+package loadtest;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of the requests sent to one endpoint.
+ *
+ * Latency is measured from the time the request was scheduled to be sent, so queueing behind a slow server shows up
+ * in the percentiles instead of being hidden (coordinated omission). Service time is measured from the time it was
+ * actually sent.
+ */
+public class EndpointStats {
+	/**
+	 * Status recorded for requests that failed without a response
+	 */
+	public static final int NO_RESPONSE = -1;
+
+	private final LatencyHistogram latency = new LatencyHistogram();
+	private final LatencyHistogram serviceTime = new LatencyHistogram();
+	private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+	private final LongAdder errors = new LongAdder();
+
+	/**
+	 * @param status        HTTP status, or NO_RESPONSE
+	 * @param latencyMicros time since the request was scheduled
+	 * @param serviceMicros time since the request was sent
+	 */
+	public void record(int status, long latencyMicros, long serviceMicros) {
+		latency.record(latencyMicros);
+		serviceTime.record(serviceMicros);
+		statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+
+		if (status < 200 || status >= 300) errors.increment();
+	}
+
+	/**
+	 * @return number of recorded requests
+	 */
+	public long getCount() {
+		return latency.getCount();
+	}
+
+	/**
+	 * @return number of requests without a 2xx response
+	 */
+	public long getErrors() {
+		return errors.sum();
+	}
+
+	/**
+	 * @return count, errors, error rate, status counts and both latency histograms
+	 */
+	public ObjectNode toJson() {
+		long count = getCount();
+
+		ObjectNode node = JsonNodeFactory.instance.objectNode();
+		node.put("count", count);
+		node.put("errors", getErrors());
+		node.put("errorRate", count == 0 ? 0 : (double) getErrors() / count);
+
+		ObjectNode statusNode = node.putObject("statuses");
+		new TreeMap<>(statuses).forEach((status, n) -> statusNode.put(String.valueOf(status), n.sum()));
+
+		node.set("latency", latency.toJson());
+		node.set("serviceTime", serviceTime.toJson());
+		return node;
+	}
+}
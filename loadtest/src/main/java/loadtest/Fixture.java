@@ -0,0 +1,229 @@
+package loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rows the load test reads and writes: one department, one employee and one timecard created before the run, plus
+ * the timecards created during it. Everything is deleted again by cleanup().
+ */
+public class Fixture {
+	private final ObjectMapper om = new ObjectMapper();
+	private final CloseableHttpClient client;
+	private final String baseUrl;
+	private final String company;
+	private final String runId = Long.toString(System.currentTimeMillis(), 36);
+	private final AtomicLong sequence = new AtomicLong();
+	private final Queue<Integer> createdTimecards = new ConcurrentLinkedQueue<>();
+
+	private int departmentId;
+	private int managerId;
+	private int employeeId;
+	private int timecardId;
+	private String employeeNo;
+	private String hireDate;
+
+	public Fixture(CloseableHttpClient client, String baseUrl, String company) {
+		this.client = client;
+		this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+		this.company = company;
+	}
+
+	/**
+	 * Creates the department, employee and timecard the endpoints are pointed at
+	 *
+	 * @throws IOException if any of them could not be created
+	 */
+	public void setup() throws IOException {
+		hireDate = lastWeekday().toString();
+		employeeNo = "lt-" + runId;
+
+		departmentId = execute(post("department",
+				"company", company,
+				"dept_name", "load test",
+				"dept_no", "lt-" + runId,
+				"location", "RIT")).get("success").get("dept_id").asInt();
+
+		// An existing employee has to manage the new one, unless the company has none yet
+		JsonNode employees = executeOrNull(new HttpGet(url("employees") + "?company=" + company));
+		managerId = employees != null && employees.isArray() && employees.size() > 0 ?
+				employees.get(0).get("emp_id").asInt() : 0;
+
+		employeeId = execute(post("employee",
+				"company", company,
+				"emp_name", "load test",
+				"emp_no", employeeNo,
+				"hire_date", hireDate,
+				"job", "tester",
+				"salary", "1000.0",
+				"dept_id", String.valueOf(departmentId),
+				"mng_id", String.valueOf(managerId))).get("success").get("emp_id").asInt();
+
+		timecardId = execute(post("timecard",
+				"company", company,
+				"emp_id", String.valueOf(employeeId),
+				"start_time", startTime(),
+				"end_time", endTime())).get("success").get("timecard_id").asInt();
+	}
+
+	/**
+	 * Deletes every row created by setup() and by the run, ignoring failures
+	 */
+	public void cleanup() {
+		Integer id;
+		while ((id = createdTimecards.poll()) != null) executeQuietly(deleteTimecard(id));
+
+		executeQuietly(deleteTimecard(timecardId));
+		executeQuietly(new HttpDelete(url("employee") + "?company=" + company + "&emp_id=" + employeeId));
+		executeQuietly(new HttpDelete(url("department") + "?company=" + company + "&dept_id=" + departmentId));
+	}
+
+	/**
+	 * @param path endpoint below CompanyServices/
+	 * @return absolute url of the endpoint
+	 */
+	public String url(String path) {
+		return baseUrl + path;
+	}
+
+	/**
+	 * @param path      endpoint below CompanyServices/
+	 * @param keyValues form fields as alternating names and values
+	 * @return form encoded POST to the endpoint
+	 */
+	public HttpPost post(String path, String... keyValues) {
+		List<NameValuePair> params = new ArrayList<>(keyValues.length / 2);
+		for (int i = 0; i < keyValues.length; i += 2) params.add(new BasicNameValuePair(keyValues[i], keyValues[i + 1]));
+
+		HttpPost post = new HttpPost(url(path));
+		post.setEntity(new UrlEncodedFormEntity(params, StandardCharsets.UTF_8));
+		return post;
+	}
+
+	/**
+	 * @param id timecard id
+	 * @return DELETE of the timecard
+	 */
+	public HttpDelete deleteTimecard(int id) {
+		return new HttpDelete(url("timecard") + "?company=" + company + "&timecard_id=" + id);
+	}
+
+	/**
+	 * @return start time of a valid timecard, yesterday at 09:00
+	 */
+	public String startTime() {
+		return LocalDate.now().minusDays(1) + " 09:00:00";
+	}
+
+	/**
+	 * @return end time of a valid timecard, yesterday at 17:00
+	 */
+	public String endTime() {
+		return LocalDate.now().minusDays(1) + " 17:00:00";
+	}
+
+	/**
+	 * @return number unique within the run
+	 */
+	public long next() {
+		return sequence.incrementAndGet();
+	}
+
+	/**
+	 * @return queue of timecards created during the run, so they can be deleted again
+	 */
+	public Queue<Integer> getCreatedTimecards() {
+		return createdTimecards;
+	}
+
+	public ObjectMapper getObjectMapper() {
+		return om;
+	}
+
+	public String getCompany() {
+		return company;
+	}
+
+	public int getDepartmentId() {
+		return departmentId;
+	}
+
+	public int getManagerId() {
+		return managerId;
+	}
+
+	public int getEmployeeId() {
+		return employeeId;
+	}
+
+	public int getTimecardId() {
+		return timecardId;
+	}
+
+	public String getEmployeeNo() {
+		return employeeNo;
+	}
+
+	public String getHireDate() {
+		return hireDate;
+	}
+
+	private JsonNode execute(HttpUriRequest request) throws IOException {
+		try (CloseableHttpResponse response = client.execute(request)) {
+			String body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+			int status = response.getStatusLine().getStatusCode();
+
+			if (status != 200) {
+				throw new IOException(request.getMethod() + " " + request.getURI() + " failed with " + status + ": " + body);
+			}
+
+			return om.readTree(body);
+		}
+	}
+
+	private JsonNode executeOrNull(HttpUriRequest request) {
+		try {
+			return execute(request);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private void executeQuietly(HttpUriRequest request) {
+		try (CloseableHttpResponse response = client.execute(request)) {
+			EntityUtils.consume(response.getEntity());
+		} catch (IOException e) {
+			System.err.println("Cleanup failed: " + request.getMethod() + " " + request.getURI() + ": " + e.getMessage());
+		}
+	}
+
+	private static LocalDate lastWeekday() {
+		LocalDate date = LocalDate.now().minusDays(1);
+
+		while (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+			date = date.minusDays(1);
+		}
+
+		return date;
+	}
+}
@@ -0,0 +1,66 @@
+package loadtest;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transport to a running deployment
+ */
+public class HttpTransport implements Transport {
+	private final CloseableHttpClient client;
+	private final String baseUrl;
+
+	/**
+	 * @param baseUrl url of CompanyServices/
+	 * @param clients number of concurrent connections
+	 */
+	public HttpTransport(String baseUrl, int clients) {
+		this.client = LoadTest.createClient(clients);
+		this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+	}
+
+	@Override
+	public Reply send(ReplayRequest request) throws IOException {
+		RequestBuilder builder = RequestBuilder.create(request.getMethod());
+
+		try {
+			URIBuilder uri = new URIBuilder(baseUrl + request.getPath());
+			request.getQuery().forEach(uri::addParameter);
+			builder.setUri(uri.build());
+		} catch (URISyntaxException e) {
+			throw new IOException("Invalid url for " + request.getName(), e);
+		}
+
+		if (!request.getForm().isEmpty()) {
+			List<NameValuePair> params = new ArrayList<>();
+			request.getForm().forEach((key, value) -> params.add(new BasicNameValuePair(key, value)));
+			builder.setEntity(new UrlEncodedFormEntity(params, StandardCharsets.UTF_8));
+		} else if (request.getBody() != null) {
+			builder.setEntity(new StringEntity(request.getBody(), ContentType.APPLICATION_JSON));
+		}
+
+		try (CloseableHttpResponse response = client.execute(builder.build())) {
+			String body = response.getEntity() == null ? "" : EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+			return new Reply(response.getStatusLine().getStatusCode(), body);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		client.close();
+	}
+}
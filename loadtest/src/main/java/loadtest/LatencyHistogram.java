@@ -0,0 +1,113 @@
+package loadtest;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe latency histogram in microseconds.
+ *
+ * Values below 64 get a bucket each, larger values share log-linear buckets of 32 per power of two, so any reported
+ * percentile is within about 3% of the recorded value while the histogram stays a fixed array of counters.
+ */
+public class LatencyHistogram {
+	private static final int LINEAR = 64;
+	private static final int SUB_BUCKETS = 32;
+	private static final int BUCKETS = LINEAR + 58 * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder total = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * @param micros latency in microseconds, negative values are recorded as 0
+	 */
+	public void record(long micros) {
+		long value = Math.max(0, micros);
+
+		counts.incrementAndGet(bucketOf(value));
+		total.increment();
+		sum.add(value);
+		max.accumulateAndGet(value, Math::max);
+	}
+
+	/**
+	 * @return number of recorded values
+	 */
+	public long getCount() {
+		return total.sum();
+	}
+
+	/**
+	 * @return largest recorded value in microseconds
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * @return mean of the recorded values in microseconds
+	 */
+	public double getMean() {
+		long count = total.sum();
+		return count == 0 ? 0 : (double) sum.sum() / count;
+	}
+
+	/**
+	 * @param quantile quantile between 0 and 1, e.g. 0.999
+	 * @return upper bound in microseconds of the bucket holding the quantile, capped at the max
+	 */
+	public long getValueAt(double quantile) {
+		long count = total.sum();
+		if (count == 0) return 0;
+
+		long rank = Math.max(1, (long) Math.ceil(quantile * count));
+		long seen = 0;
+
+		for (int b = 0; b < BUCKETS; b++) {
+			seen += counts.get(b);
+			if (seen >= rank) return Math.min(upperBoundOf(b), max.get());
+		}
+
+		return max.get();
+	}
+
+	/**
+	 * @return count, mean, p50, p99, p999 and max in milliseconds
+	 */
+	public ObjectNode toJson() {
+		ObjectNode node = JsonNodeFactory.instance.objectNode();
+		node.put("count", getCount());
+		node.put("meanMs", millis(getMean()));
+		node.put("p50Ms", millis(getValueAt(0.50)));
+		node.put("p99Ms", millis(getValueAt(0.99)));
+		node.put("p999Ms", millis(getValueAt(0.999)));
+		node.put("maxMs", millis(getMax()));
+		return node;
+	}
+
+	private static double millis(double micros) {
+		return Math.round(micros) / 1000.0;
+	}
+
+	static int bucketOf(long value) {
+		if (value < LINEAR) return (int) value;
+
+		// Keep the top 6 bits of the value: the exponent picks the group, the next 5 bits the bucket within it
+		int shift = 63 - Long.numberOfLeadingZeros(value) - 5;
+		int bucket = LINEAR + (shift - 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+		return Math.min(bucket, BUCKETS - 1);
+	}
+
+	static long upperBoundOf(int bucket) {
+		if (bucket < LINEAR) return bucket;
+
+		int shift = (bucket - LINEAR) / SUB_BUCKETS + 1;
+		long mantissa = (bucket - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+		return ((mantissa + 1) << shift) - 1;
+	}
+}
@@ -0,0 +1,98 @@
+package loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-request statistics of a run, printed as a table and written as JSON so runs of different builds can be compared
+ */
+public class LoadReport {
+	private final ObjectMapper om = new ObjectMapper();
+	private final Map<String, EndpointStats> requests = new LinkedHashMap<>();
+	private final EndpointStats overall = new EndpointStats();
+	private final ObjectNode settings;
+	private final Instant startedAt = Instant.now();
+
+	/**
+	 * @param settings options of the run, copied into the report
+	 */
+	public LoadReport(ObjectNode settings) {
+		this.settings = settings;
+	}
+
+	/**
+	 * Registers a request up front, so the report lists requests in a stable order
+	 *
+	 * @param name request name
+	 * @return statistics of the request
+	 */
+	public synchronized EndpointStats stats(String name) {
+		return requests.computeIfAbsent(name, n -> new EndpointStats());
+	}
+
+	/**
+	 * @param stats         statistics of the request, from stats()
+	 * @param status        HTTP status, or EndpointStats.NO_RESPONSE
+	 * @param latencyMicros time since the request was scheduled
+	 * @param serviceMicros time since the request was sent
+	 */
+	public void record(EndpointStats stats, int status, long latencyMicros, long serviceMicros) {
+		stats.record(status, latencyMicros, serviceMicros);
+		overall.record(status, latencyMicros, serviceMicros);
+	}
+
+	/**
+	 * @param measuredSeconds length of the measured part of the run
+	 * @return report as JSON
+	 */
+	public synchronized ObjectNode toJson(double measuredSeconds) {
+		ObjectNode node = om.createObjectNode();
+		node.put("startedAt", startedAt.toString());
+		node.set("settings", settings);
+		node.put("measuredSeconds", measuredSeconds);
+		node.put("throughput", measuredSeconds <= 0 ? 0 : overall.getCount() / measuredSeconds);
+		node.set("overall", overall.toJson());
+
+		ObjectNode requestsNode = node.putObject("requests");
+		requests.forEach((name, stats) -> {
+			ObjectNode statsNode = stats.toJson();
+			statsNode.put("throughput", measuredSeconds <= 0 ? 0 : stats.getCount() / measuredSeconds);
+			requestsNode.set(name, statsNode);
+		});
+
+		return node;
+	}
+
+	/**
+	 * @param file            report file
+	 * @param measuredSeconds length of the measured part of the run
+	 */
+	public void write(Path file, double measuredSeconds) throws IOException {
+		om.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), toJson(measuredSeconds));
+	}
+
+	/**
+	 * @param out             stream to print the table to
+	 * @param measuredSeconds length of the measured part of the run
+	 */
+	public synchronized void print(PrintStream out, double measuredSeconds) {
+		String format = "%-32s %9s %8s %9s %9s %9s %9s%n";
+		out.printf(format, "request", "count", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms");
+		requests.forEach((name, stats) -> printRow(out, format, name, stats, measuredSeconds));
+		printRow(out, format, "overall", overall, measuredSeconds);
+	}
+
+	private static void printRow(PrintStream out, String format, String name, EndpointStats stats, double seconds) {
+		ObjectNode latency = (ObjectNode) stats.toJson().get("latency");
+		out.printf(format, name, stats.getCount(), stats.getErrors(),
+				String.format("%.1f", seconds <= 0 ? 0 : stats.getCount() / seconds),
+				latency.get("p50Ms").asText(), latency.get("p99Ms").asText(), latency.get("p999Ms").asText());
+	}
+}
@@ -0,0 +1,220 @@
+package loadtest;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for CompanyServices, grown out of P2Tester.
+ *
+ * Requests are scheduled at a fixed rate regardless of how fast the server answers, picked at random from a weighted
+ * mix of endpoints and sent by a pool of concurrent clients. Usage:
+ *
+ * java loadtest.LoadTest --rate=200 --duration=60 --warmup=10 --clients=64 --mix=employee=20,employees=5
+ *   --base-url=http://localhost:8080/LiuXinXLRestFinal/resources/CompanyServices/ --company=xl4998
+ *   --report=loadtest-report.json
+ */
+public class LoadTest {
+	private static final String DEFAULT_MIX = "departments=10,department=15,employees=10,employee=20,timecards=10," +
+			"timecard=15,create_timecard=8,delete_timecard=7,update_employee=5";
+
+	private final Map<String, String> options;
+	private final Endpoint[] endpoints;
+	private final int[] cumulativeWeights;
+
+	public LoadTest(Map<String, String> options) {
+		this.options = options;
+
+		Map<Endpoint, Integer> mix = parseMix(option("mix", DEFAULT_MIX));
+		endpoints = mix.keySet().toArray(new Endpoint[0]);
+		cumulativeWeights = new int[endpoints.length];
+
+		int total = 0;
+		for (int i = 0; i < endpoints.length; i++) {
+			total += mix.get(endpoints[i]);
+			cumulativeWeights[i] = total;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+
+		for (String arg : args) {
+			if (!arg.startsWith("--") || !arg.contains("=")) {
+				System.err.println("Unknown argument " + arg + ", expected --name=value");
+				System.exit(1);
+			}
+
+			options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+		}
+
+		new LoadTest(options).run();
+	}
+
+	/**
+	 * Sets up the fixture, runs warmup and measurement, cleans up and writes the report
+	 */
+	public void run() throws IOException, InterruptedException {
+		String baseUrl = option("base-url", "http://localhost:8080/LiuXinXLRestFinal/resources/CompanyServices/");
+		String company = option("company", "xl4998");
+		double rate = Double.parseDouble(option("rate", "100"));
+		long durationSeconds = Long.parseLong(option("duration", "60"));
+		long warmupSeconds = Long.parseLong(option("warmup", "10"));
+		int clients = Integer.parseInt(option("clients", "32"));
+		String reportFile = option("report", "loadtest-report.json");
+
+		ObjectNode settings = JsonNodeFactory.instance.objectNode();
+		settings.put("baseUrl", baseUrl);
+		settings.put("company", company);
+		settings.put("rate", rate);
+		settings.put("durationSeconds", durationSeconds);
+		settings.put("warmupSeconds", warmupSeconds);
+		settings.put("clients", clients);
+		settings.put("mix", option("mix", DEFAULT_MIX));
+
+		LoadReport report = new LoadReport(settings);
+		Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+		for (Endpoint e : endpoints) stats.put(e, report.stats(e.label()));
+		stats.computeIfAbsent(Endpoint.CREATE_TIMECARD, e -> report.stats(e.label()));
+
+		try (CloseableHttpClient client = createClient(clients)) {
+			Fixture fixture = new Fixture(client, baseUrl, company);
+			fixture.setup();
+
+			ExecutorService workers = Executors.newFixedThreadPool(clients);
+			long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+			long start = System.nanoTime();
+			long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+			long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+			try {
+				// Schedule on a fixed timetable, a slow server queues requests instead of slowing the schedule down
+				for (long i = 0; ; i++) {
+					long scheduled = start + i * intervalNanos;
+					if (scheduled >= end) break;
+
+					sleepUntil(scheduled);
+
+					Endpoint endpoint = pick().resolve(fixture);
+					boolean measured = scheduled >= measureFrom;
+					workers.execute(() -> send(client, fixture, endpoint, scheduled, measured ? report : null,
+							stats.get(endpoint)));
+				}
+			} finally {
+				workers.shutdown();
+				workers.awaitTermination(5, TimeUnit.MINUTES);
+				fixture.cleanup();
+			}
+		}
+
+		report.print(System.out, durationSeconds);
+		report.write(Paths.get(reportFile), durationSeconds);
+		System.out.println("Report written to " + reportFile);
+	}
+
+	/**
+	 * @param clients number of concurrent connections
+	 * @return client with a connection per concurrent client
+	 */
+	static CloseableHttpClient createClient(int clients) {
+		RequestConfig config = RequestConfig.custom()
+				.setConnectTimeout(10000)
+				.setSocketTimeout(30000)
+				.build();
+
+		return HttpClients.custom()
+				.setMaxConnTotal(clients)
+				.setMaxConnPerRoute(clients)
+				.setDefaultRequestConfig(config)
+				.build();
+	}
+
+	/**
+	 * Sends one request and records it, unless it belongs to the warmup
+	 */
+	private static void send(CloseableHttpClient client, Fixture fixture, Endpoint endpoint, long scheduled,
+	                         LoadReport report, EndpointStats stats) {
+		int status;
+		long sent = System.nanoTime();
+
+		try {
+			HttpUriRequest request = endpoint.request(fixture);
+
+			try (CloseableHttpResponse response = client.execute(request)) {
+				status = response.getStatusLine().getStatusCode();
+
+				if (endpoint.needsBody()) {
+					endpoint.onResponse(fixture, status, EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8));
+				} else {
+					EntityUtils.consume(response.getEntity());
+				}
+			}
+		} catch (IOException e) {
+			status = EndpointStats.NO_RESPONSE;
+		}
+
+		long done = System.nanoTime();
+		if (report != null) {
+			report.record(stats, status, (done - scheduled) / 1000, (done - sent) / 1000);
+		}
+	}
+
+	/**
+	 * @return endpoint picked at random according to the mix weights
+	 */
+	private Endpoint pick() {
+		int r = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+
+		for (int i = 0; i < cumulativeWeights.length; i++) {
+			if (r < cumulativeWeights[i]) return endpoints[i];
+		}
+
+		return endpoints[endpoints.length - 1];
+	}
+
+	/**
+	 * @param mix comma separated endpoint=weight pairs
+	 * @return weight per endpoint, in the order given
+	 */
+	static Map<Endpoint, Integer> parseMix(String mix) {
+		Map<Endpoint, Integer> weights = new LinkedHashMap<>();
+
+		for (String entry : mix.split(",")) {
+			String[] pair = entry.split("=");
+			int weight = Integer.parseInt(pair[1].trim());
+
+			if (weight < 0) throw new IllegalArgumentException("Negative weight in mix: " + entry);
+			if (weight > 0) weights.put(Endpoint.fromLabel(pair[0]), weight);
+		}
+
+		if (weights.isEmpty()) throw new IllegalArgumentException("Mix has no endpoints: " + mix);
+		return weights;
+	}
+
+	private String option(String name, String defaultValue) {
+		return options.getOrDefault(name, defaultValue);
+	}
+
+	private static void sleepUntil(long deadline) {
+		long remaining;
+		while ((remaining = deadline - System.nanoTime()) > 0) LockSupport.parkNanos(remaining);
+	}
+}
@@ -0,0 +1,116 @@
+package loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Requests of a Postman v2.1 collection, in collection order with folders flattened
+ */
+public class PostmanCollection {
+	private static final String BASE_SEGMENT = "CompanyServices";
+
+	private final List<ReplayRequest> requests = new ArrayList<>();
+	private final Map<String, String> variables = new HashMap<>();
+
+	/**
+	 * @param file collection exported from Postman
+	 * @return parsed collection
+	 */
+	public static PostmanCollection read(Path file) throws IOException {
+		JsonNode root = new ObjectMapper().readTree(file.toFile());
+		PostmanCollection collection = new PostmanCollection();
+
+		for (JsonNode variable : root.path("variable")) {
+			collection.variables.put(variable.path("key").asText(), variable.path("value").asText());
+		}
+
+		collection.addItems(root.path("item"), "");
+		return collection;
+	}
+
+	/**
+	 * @return requests in collection order
+	 */
+	public List<ReplayRequest> getRequests() {
+		return Collections.unmodifiableList(requests);
+	}
+
+	/**
+	 * @return collection variables, referenced as {{name}}
+	 */
+	public Map<String, String> getVariables() {
+		return Collections.unmodifiableMap(variables);
+	}
+
+	private void addItems(JsonNode items, String folder) {
+		for (JsonNode item : items) {
+			String name = folder.isEmpty() ? item.path("name").asText() : folder + " / " + item.path("name").asText();
+
+			if (item.has("item")) {
+				addItems(item.path("item"), name);
+			} else if (item.has("request")) {
+				requests.add(toRequest(name, item.path("request")));
+			}
+		}
+	}
+
+	private static ReplayRequest toRequest(String name, JsonNode request) {
+		JsonNode url = request.path("url");
+		Map<String, String> query = new LinkedHashMap<>();
+		String path;
+
+		if (url.isTextual()) {
+			// Short form, a plain string
+			String raw = url.asText();
+			int q = raw.indexOf('?');
+			path = pathOf(raw.substring(0, q < 0 ? raw.length() : q));
+
+			if (q >= 0) {
+				for (String pair : raw.substring(q + 1).split("&")) {
+					int eq = pair.indexOf('=');
+					query.put(eq < 0 ? pair : pair.substring(0, eq), eq < 0 ? "" : pair.substring(eq + 1));
+				}
+			}
+		} else {
+			List<String> segments = new ArrayList<>();
+			url.path("path").forEach(segment -> segments.add(segment.asText()));
+			path = pathOf(String.join("/", segments));
+
+			for (JsonNode param : url.path("query")) {
+				if (!param.path("disabled").asBoolean()) query.put(param.path("key").asText(), param.path("value").asText());
+			}
+		}
+
+		JsonNode body = request.path("body");
+		Map<String, String> form = new LinkedHashMap<>();
+		String raw = null;
+
+		if ("urlencoded".equals(body.path("mode").asText())) {
+			for (JsonNode field : body.path("urlencoded")) {
+				if (!field.path("disabled").asBoolean()) form.put(field.path("key").asText(), field.path("value").asText());
+			}
+		} else if ("raw".equals(body.path("mode").asText())) {
+			raw = body.path("raw").asText();
+		}
+
+		return new ReplayRequest(name, request.path("method").asText("GET"), path, query, form, raw);
+	}
+
+	/**
+	 * @param path full url path, e.g. LiuXinXLRestFinal/resources/CompanyServices/department
+	 * @return part below CompanyServices/, e.g. department
+	 */
+	private static String pathOf(String path) {
+		int base = path.indexOf(BASE_SEGMENT + "/");
+		return base < 0 ? path.substring(path.lastIndexOf('/') + 1) : path.substring(base + BASE_SEGMENT.length() + 1);
+	}
+}
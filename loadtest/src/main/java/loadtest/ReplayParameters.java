@@ -0,0 +1,158 @@
+package loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites the hard-coded values of a collection request so it can be replayed many times.
+ *
+ * Ids are replaced with the ones captured from earlier responses, unique numbers get a suffix per replay, dates are
+ * moved into the window the service accepts and {{name}} placeholders are filled in from the variables.
+ */
+public class ReplayParameters {
+	private static final Set<String> ID_FIELDS = new HashSet<>(Arrays.asList("dept_id", "emp_id", "timecard_id", "mng_id"));
+	private static final Set<String> CAPTURED_FIELDS = new HashSet<>(Arrays.asList("dept_id", "emp_id", "timecard_id"));
+	private static final Set<String> UNIQUE_FIELDS = new HashSet<>(Arrays.asList("dept_no", "emp_no"));
+	private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{([^}]+)}}");
+
+	private final ObjectMapper om;
+	private final Map<String, String> variables;
+	private final String suffix;
+	private final boolean refreshDates;
+
+	/**
+	 * @param om           mapper for JSON bodies and responses
+	 * @param variables    variables of this replay, updated with captured ids
+	 * @param suffix       appended to unique numbers, different for every replay
+	 * @param refreshDates whether to move dates into the accepted window
+	 */
+	public ReplayParameters(ObjectMapper om, Map<String, String> variables, String suffix, boolean refreshDates) {
+		this.om = om;
+		this.variables = variables;
+		this.suffix = suffix;
+		this.refreshDates = refreshDates;
+	}
+
+	/**
+	 * @param request request as found in the collection
+	 * @return request with this replay's values
+	 */
+	public ReplayRequest apply(ReplayRequest request) throws IOException {
+		return request.with(apply(request.getQuery()), apply(request.getForm()), applyToBody(request.getBody()));
+	}
+
+	/**
+	 * Captures the ids of the row a successful create returned
+	 *
+	 * @param request request that was sent
+	 * @param reply   response to it
+	 */
+	public void capture(ReplayRequest request, Transport.Reply reply) {
+		if (!"POST".equals(request.getMethod()) || reply.getStatus() != 200) return;
+
+		try {
+			JsonNode row = om.readTree(reply.getBody()).path("success");
+
+			for (String field : CAPTURED_FIELDS) {
+				if (row.path(field).isInt()) variables.put(field, row.path(field).asText());
+			}
+		} catch (IOException e) {
+			// Not JSON, nothing to capture
+		}
+	}
+
+	/**
+	 * @return variables of this replay
+	 */
+	public Map<String, String> getVariables() {
+		return variables;
+	}
+
+	private Map<String, String> apply(Map<String, String> params) {
+		Map<String, String> result = new LinkedHashMap<>();
+		params.forEach((key, value) -> result.put(key, value(key, value)));
+		return result;
+	}
+
+	private String applyToBody(String body) throws IOException {
+		if (body == null) return null;
+
+		JsonNode node = om.readTree(fill(body));
+		if (!(node instanceof ObjectNode)) return node.toString();
+
+		ObjectNode object = (ObjectNode) node;
+		for (Iterator<Map.Entry<String, JsonNode>> it = object.fields(); it.hasNext(); ) {
+			Map.Entry<String, JsonNode> field = it.next();
+			if (!field.getValue().isValueNode()) continue;
+
+			String value = value(field.getKey(), field.getValue().asText());
+
+			// Keep numbers numbers, the resources read ids with asInt()
+			if (field.getValue().isNumber() && value.matches("-?\\d+")) {
+				field.setValue(object.numberNode(Long.parseLong(value)));
+			} else if (!field.getValue().isNumber()) {
+				field.setValue(object.textNode(value));
+			}
+		}
+
+		return object.toString();
+	}
+
+	private String value(String key, String value) {
+		value = fill(value);
+
+		if (ID_FIELDS.contains(key) && variables.containsKey(key)) return variables.get(key);
+		if (UNIQUE_FIELDS.contains(key)) return value + "-" + suffix;
+
+		if (refreshDates) {
+			switch (key) {
+				case "hire_date":
+					return lastWeekday().toString();
+				case "start_time":
+					return LocalDate.now().minusDays(1) + " 09:00:00";
+				case "end_time":
+					return LocalDate.now().minusDays(1) + " 17:00:00";
+			}
+		}
+
+		return value;
+	}
+
+	private String fill(String text) {
+		if (text.indexOf('{') < 0) return text;
+
+		Matcher matcher = PLACEHOLDER.matcher(text);
+		StringBuffer result = new StringBuffer();
+
+		while (matcher.find()) {
+			String replacement = variables.getOrDefault(matcher.group(1), matcher.group());
+			matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+		}
+
+		matcher.appendTail(result);
+		return result.toString();
+	}
+
+	private static LocalDate lastWeekday() {
+		LocalDate date = LocalDate.now().minusDays(1);
+
+		while (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+			date = date.minusDays(1);
+		}
+
+		return date;
+	}
+}
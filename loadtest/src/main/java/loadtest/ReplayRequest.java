@@ -0,0 +1,69 @@
+package loadtest;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One request of a Postman collection, addressed relative to CompanyServices/
+ */
+public class ReplayRequest {
+	private final String name;
+	private final String method;
+	private final String path;
+	private final Map<String, String> query;
+	private final Map<String, String> form;
+	private final String body;
+
+	/**
+	 * @param name   folder and request name, e.g. "Employees / Create Employee"
+	 * @param method HTTP method
+	 * @param path   path below CompanyServices/, e.g. "employee"
+	 * @param query  query parameters in order
+	 * @param form   url encoded form fields in order
+	 * @param body   raw JSON body, null if none
+	 */
+	public ReplayRequest(String name, String method, String path, Map<String, String> query, Map<String, String> form,
+	                     String body) {
+		this.name = name;
+		this.method = method;
+		this.path = path;
+		this.query = Collections.unmodifiableMap(new LinkedHashMap<>(query));
+		this.form = Collections.unmodifiableMap(new LinkedHashMap<>(form));
+		this.body = body;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public Map<String, String> getQuery() {
+		return query;
+	}
+
+	public Map<String, String> getForm() {
+		return form;
+	}
+
+	public String getBody() {
+		return body;
+	}
+
+	/**
+	 * @param query new query parameters
+	 * @param form  new form fields
+	 * @param body  new raw JSON body
+	 * @return copy of this request with other values
+	 */
+	public ReplayRequest with(Map<String, String> query, Map<String, String> form, String body) {
+		return new ReplayRequest(name, method, path, query, form, body);
+	}
+}
@@ -0,0 +1,37 @@
+package loadtest;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Sends replayed requests, either over HTTP to a deployment or straight into the resources of an embedded instance
+ */
+public interface Transport extends Closeable {
+	/**
+	 * @param request request to send
+	 * @return status and body of the response
+	 * @throws IOException if no response was received
+	 */
+	Reply send(ReplayRequest request) throws IOException;
+
+	/**
+	 * Status and body of a response
+	 */
+	final class Reply {
+		private final int status;
+		private final String body;
+
+		public Reply(int status, String body) {
+			this.status = status;
+			this.body = body;
+		}
+
+		public int getStatus() {
+			return status;
+		}
+
+		public String getBody() {
+			return body;
+		}
+	}
+}
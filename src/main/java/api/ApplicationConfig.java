@@ -1,8 +1,12 @@
 package api;
 
+import api.service.CallTraceFilter;
 import api.service.CompanyServices;
 import api.service.DepartmentServices;
 import api.service.EmployeeServices;
+import api.service.MetricsFilter;
+import api.service.MetricsServices;
+import api.service.PoolTimeoutExceptionMapper;
 import api.service.TimecardServices;
 
 import javax.ws.rs.ApplicationPath;
@@ -12,17 +16,28 @@ import java.util.Set;
 
 @ApplicationPath("resources")
 public class ApplicationConfig extends Application {
+	private final Set<Object> singletons = getRestResourceSingletons();
+
 	@Override
-	public Set<Class<?>> getClasses() {
-		return getRestResourceClasses();
+	public Set<Object> getSingletons() {
+		return singletons;
 	}
 
-	private Set<Class<?>> getRestResourceClasses() {
-		Set<Class<?>> resources = new HashSet<>();
-		resources.add(CompanyServices.class);
-		resources.add(EmployeeServices.class);
-		resources.add(TimecardServices.class);
-		resources.add(DepartmentServices.class);
+	/**
+	 * Resources and business objects keep no per-request state, so one instance of each serves every request
+	 *
+	 * @return resource and provider instances
+	 */
+	private Set<Object> getRestResourceSingletons() {
+		Set<Object> resources = new HashSet<>();
+		resources.add(new CompanyServices());
+		resources.add(new EmployeeServices());
+		resources.add(new TimecardServices());
+		resources.add(new DepartmentServices());
+		resources.add(new MetricsServices());
+		resources.add(new PoolTimeoutExceptionMapper());
+		resources.add(new MetricsFilter());
+		resources.add(new CallTraceFilter());
 
 		return resources;
 	}
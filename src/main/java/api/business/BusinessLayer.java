@@ -1,14 +1,28 @@
 package api.business;
 
-import companydata.DataLayer;
+import api.cache.CompanyCaches;
+import api.data.DataAccess;
+import api.data.DataAccessProvider;
+import companydata.Employee;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base of the business objects. Instances hold no per-request state and are shared between requests, every
+ * operation reports its outcome through a Result.
+ */
 public abstract class BusinessLayer {
-	public DataLayer dl;
-	private String jsonTemplate;
-	private String errorJson;
+	public final DataAccess dl;
+	private final String jsonTemplate;
+	private final String errorJson;
 
 	public BusinessLayer(String company, String template, String error) {
-		this.dl = new DataLayer(company);
+		this(DataAccessProvider.get(), template, error);
+	}
+
+	public BusinessLayer(DataAccess dl, String template, String error) {
+		this.dl = dl;
 		this.jsonTemplate = template;
 		this.errorJson = error;
 	}
@@ -21,18 +35,37 @@ public abstract class BusinessLayer {
 	}
 
 	/**
-	 * @return Error json message
+	 * @return Generic error json message
 	 */
 	public String getErrorJson() {
 		return errorJson;
 	}
 
 	/**
-	 * Sets error json message
+	 * Gets several employees of a company by id, from the cache where possible and with a single data access for the
+	 * rest. Cached employees are not kept per company, so every employee, cached or not, is checked to belong to the
+	 * company through its department.
 	 *
-	 * @param json error message
+	 * @param company     rit username
+	 * @param employeeIds ids of employees
+	 * @return Employees of the company that exist, in the order of the ids
+	 */
+	protected List<Employee> employeesOf(String company, int[] employeeIds) {
+		List<Employee> employees = new ArrayList<>(employeeIds.length);
+
+		for (Employee e : CompanyCaches.EMPLOYEES.getAll(employeeIds, missing -> dl.getEmployees(company, missing))) {
+			if (CompanyCaches.DEPARTMENTS.get(company, e.getDeptId(), id -> dl.getDepartment(company, id)) != null) {
+				employees.add(e);
+			}
+		}
+
+		return employees;
+	}
+
+	/**
+	 * @return failed Result carrying the generic error json message
 	 */
-	public void setErrorJson(String json) {
-		this.errorJson = json;
+	protected <T> Result<T> error() {
+		return Result.error(errorJson);
 	}
 }
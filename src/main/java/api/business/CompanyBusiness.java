@@ -1,26 +1,100 @@
 package api.business;
 
+import api.data.DataAccess;
 import api.utils.Constants;
 
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class CompanyBusiness extends BusinessLayer {
+	private static final int MAX_FINISHED_JOBS = 100;
+
+	private static final AtomicInteger JOB_IDS = new AtomicInteger();
+	private static final Map<Integer, DeleteCompanyJob> JOBS = new ConcurrentHashMap<>();
+	private static final ExecutorService DELETE_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "company-delete");
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	public CompanyBusiness() {
 		super(Constants.USERNAME, null, Constants.ERROR_JSON);
 	}
 
+	public CompanyBusiness(DataAccess dl) {
+		super(dl, null, Constants.ERROR_JSON);
+	}
+
+	/**
+	 * Starts deleting all Department, Employee and Timecard records in the database for the given company in the
+	 * background. If a deletion of the company is already queued or running, that job is returned instead.
+	 *
+	 * @param company rit username
+	 * @return job deleting the company
+	 */
+	public Result<DeleteCompanyJob> deleteAll(String company) {
+		if (company.equals(Constants.USERNAME)) {
+			synchronized (JOBS) {
+				for (DeleteCompanyJob job : JOBS.values()) {
+					if (job.getCompany().equals(company) && !job.isFinished()) return Result.ok(job);
+				}
+
+				pruneFinishedJobs();
+
+				DeleteCompanyJob job = new DeleteCompanyJob(JOB_IDS.incrementAndGet(), company, dl);
+				JOBS.put(job.getId(), job);
+				DELETE_EXECUTOR.execute(job);
+
+				return Result.ok(job);
+			}
+		}
+
+		return error();
+	}
+
 	/**
-	 * Deletes all Department, Employee and Timecard records in the database for the given company
+	 * Gets a company deletion job
 	 *
 	 * @param company rit username
-	 * @return boolean
+	 * @param jobId   id of the job
+	 * @return job deleting the company
 	 */
-	public boolean deleteAll(String company) {
+	public Result<DeleteCompanyJob> getDeleteJob(String company, int jobId) {
 		if (company.equals(Constants.USERNAME)) {
-			int affected = dl.deleteCompany(Constants.USERNAME);
+			DeleteCompanyJob job = JOBS.get(jobId);
 
-			if(affected == 0) return true;
-			else if(affected > 0) return true;
+			if (job == null || !job.getCompany().equals(company)) {
+				return Result.error("{\"error\": \"Could not find the job!\"}");
+			}
+
+			return Result.ok(job);
 		}
 
-		return false;
+		return error();
+	}
+
+	/**
+	 * Forgets the oldest finished jobs once more than MAX_FINISHED_JOBS are kept
+	 */
+	private static void pruneFinishedJobs() {
+		int finished = 0;
+		for (DeleteCompanyJob job : JOBS.values()) {
+			if (job.isFinished()) finished++;
+		}
+
+		// Ids are handed out in order, so the lowest are the oldest
+		Iterator<Integer> ids = JOBS.keySet().stream().sorted().iterator();
+		while (finished > MAX_FINISHED_JOBS && ids.hasNext()) {
+			DeleteCompanyJob job = JOBS.get(ids.next());
+
+			if (job.isFinished()) {
+				JOBS.remove(job.getId());
+				finished--;
+			}
+		}
 	}
 }
@@ -0,0 +1,61 @@
+package api.business;
+
+import api.utils.Constants;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor and limit parameters of the paged list endpoints.
+ *
+ * A cursor holds the id of the last row of the previous page; clients only pass it back and must not rely on its
+ * contents.
+ */
+public final class Cursor {
+	private static final String PREFIX = "after:";
+
+	private Cursor() {
+	}
+
+	/**
+	 * @param lastId id of the last row of a page
+	 * @return cursor of the page after it
+	 */
+	public static String encode(int lastId) {
+		byte[] bytes = (PREFIX + lastId).getBytes(StandardCharsets.US_ASCII);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+
+	/**
+	 * @param cursor cursor from a previous response, null for the first page
+	 * @return id the page starts after, -1 if the cursor is not valid
+	 */
+	public static int decode(String cursor) {
+		if (cursor == null || cursor.isEmpty()) return 0;
+
+		try {
+			String text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+			if (!text.startsWith(PREFIX)) return -1;
+
+			int id = Integer.parseInt(text.substring(PREFIX.length()));
+			return id < 0 ? -1 : id;
+		} catch (IllegalArgumentException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * @param limit limit parameter, null for the default
+	 * @return page size capped at the maximum, -1 if the limit is not a positive number
+	 */
+	public static int limit(String limit) {
+		if (limit == null || limit.isEmpty()) return Constants.PAGE_DEFAULT_LIMIT;
+
+		try {
+			int value = Integer.parseInt(limit);
+			return value < 1 ? -1 : Math.min(value, Constants.PAGE_MAX_LIMIT);
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,256 @@
+package api.business;
+
+import api.cache.CompanyCaches;
+import api.data.DataAccess;
+import api.utils.Constants;
+import companydata.Department;
+import companydata.Employee;
+import companydata.Timecard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background deletion of all data of a company.
+ *
+ * Rows are deleted in chunks of companyservices.delete.chunkSize, timecards first, then employees (reports before
+ * their managers), then departments, so no single statement or lock covers the whole company. A final
+ * DataAccess.deleteCompany() sweeps up rows created while the job ran. The company's caches are cleared once the job
+ * has finished, whether it succeeded or not.
+ */
+public class DeleteCompanyJob implements Runnable {
+	private static final Logger LOG = Logger.getLogger(DeleteCompanyJob.class.getName());
+
+	/**
+	 * State of a job
+	 */
+	public enum Status {
+		QUEUED, RUNNING, DONE, FAILED
+	}
+
+	private final int id;
+	private final String company;
+	private final DataAccess dl;
+	private final int chunkSize;
+	private final long createdAt = System.currentTimeMillis();
+
+	private volatile Status status = Status.QUEUED;
+	private volatile String phase = "queued";
+	private volatile int timecardsDeleted;
+	private volatile int employeesDeleted;
+	private volatile int employeesTotal;
+	private volatile int departmentsDeleted;
+	private volatile int departmentsTotal;
+	private volatile long finishedAt;
+
+	DeleteCompanyJob(int id, String company, DataAccess dl) {
+		this.id = id;
+		this.company = company;
+		this.dl = dl;
+		this.chunkSize = Constants.DELETE_CHUNK_SIZE;
+	}
+
+	@Override
+	public void run() {
+		status = Status.RUNNING;
+
+		try {
+			List<Employee> employees = dl.getAllEmployee(company);
+			List<Department> departments = dl.getAllDepartment(company);
+			employeesTotal = employees.size();
+			departmentsTotal = departments.size();
+
+			phase = "timecards";
+			deleteTimecards(employees);
+
+			phase = "employees";
+			deleteEmployees(employees);
+
+			phase = "departments";
+			int[] departmentIds = departments.stream().mapToInt(Department::getId).toArray();
+			for (int from = 0; from < departmentIds.length; from += chunkSize) {
+				int[] chunk = slice(departmentIds, from);
+				departmentsDeleted += dl.deleteDepartments(company, chunk);
+			}
+
+			phase = "sweep";
+			dl.deleteCompany(company);
+
+			phase = "done";
+			status = Status.DONE;
+		} catch (RuntimeException e) {
+			LOG.log(Level.WARNING, "Deleting company " + company + " failed in phase " + phase, e);
+			status = Status.FAILED;
+		} finally {
+			CompanyCaches.invalidate(company);
+			finishedAt = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * Deletes the timecards of the employees, a chunk of timecards per call
+	 */
+	private void deleteTimecards(List<Employee> employees) {
+		int[] chunk = new int[chunkSize];
+		int size = 0;
+
+		for (Employee e : employees) {
+			for (Timecard t : dl.getAllTimecard(e.getId())) {
+				chunk[size++] = t.getId();
+
+				if (size == chunkSize) {
+					timecardsDeleted += dl.deleteTimecards(chunk);
+					size = 0;
+				}
+			}
+		}
+
+		if (size > 0) {
+			timecardsDeleted += dl.deleteTimecards(slice(chunk, 0, size));
+		}
+	}
+
+	/**
+	 * Deletes the employees a chunk per call. Each chunk only holds employees nobody left reports to, so a manager is
+	 * never deleted before their reports.
+	 */
+	private void deleteEmployees(List<Employee> employees) {
+		Map<Integer, Integer> reports = new HashMap<>();
+		for (Employee e : employees) {
+			if (e.getMngId() != 0) reports.merge(e.getMngId(), 1, Integer::sum);
+		}
+
+		Map<Integer, Employee> byId = new HashMap<>();
+		employees.forEach(e -> byId.put(e.getId(), e));
+
+		List<Employee> remaining = new ArrayList<>(employees);
+
+		while (!remaining.isEmpty()) {
+			List<Employee> leaves = new ArrayList<>();
+			List<Employee> managers = new ArrayList<>();
+
+			for (Employee e : remaining) {
+				if (reports.getOrDefault(e.getId(), 0) == 0) leaves.add(e); else managers.add(e);
+			}
+
+			// Only a cycle of managers is left, delete them anyway
+			if (leaves.isEmpty()) {
+				leaves = managers;
+				managers = new ArrayList<>();
+			}
+
+			int[] ids = leaves.stream().mapToInt(Employee::getId).toArray();
+			for (int from = 0; from < ids.length; from += chunkSize) {
+				employeesDeleted += dl.deleteEmployees(slice(ids, from));
+			}
+
+			for (Employee e : leaves) {
+				Employee manager = byId.get(e.getMngId());
+				if (manager != null) reports.merge(manager.getId(), -1, Integer::sum);
+			}
+
+			remaining = managers;
+		}
+	}
+
+	/**
+	 * @return chunk of the ids starting at from
+	 */
+	private int[] slice(int[] ids, int from) {
+		return slice(ids, from, Math.min(from + chunkSize, ids.length));
+	}
+
+	private static int[] slice(int[] ids, int from, int to) {
+		int[] chunk = new int[to - from];
+		System.arraycopy(ids, from, chunk, 0, chunk.length);
+		return chunk;
+	}
+
+	/**
+	 * @return id of the job
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * @return rit username
+	 */
+	public String getCompany() {
+		return company;
+	}
+
+	/**
+	 * @return state of the job
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return what the job is deleting: queued, timecards, employees, departments, sweep or done
+	 */
+	public String getPhase() {
+		return phase;
+	}
+
+	/**
+	 * @return number of timecards deleted so far
+	 */
+	public int getTimecardsDeleted() {
+		return timecardsDeleted;
+	}
+
+	/**
+	 * @return number of employees deleted so far
+	 */
+	public int getEmployeesDeleted() {
+		return employeesDeleted;
+	}
+
+	/**
+	 * @return number of employees the company had when the job started
+	 */
+	public int getEmployeesTotal() {
+		return employeesTotal;
+	}
+
+	/**
+	 * @return number of departments deleted so far
+	 */
+	public int getDepartmentsDeleted() {
+		return departmentsDeleted;
+	}
+
+	/**
+	 * @return number of departments the company had when the job started
+	 */
+	public int getDepartmentsTotal() {
+		return departmentsTotal;
+	}
+
+	/**
+	 * @return true once the job succeeded or failed
+	 */
+	public boolean isFinished() {
+		return status == Status.DONE || status == Status.FAILED;
+	}
+
+	/**
+	 * @return when the job was created, in epoch milliseconds
+	 */
+	public long getCreatedAt() {
+		return createdAt;
+	}
+
+	/**
+	 * @return when the job finished in epoch milliseconds, 0 while it has not
+	 */
+	public long getFinishedAt() {
+		return finishedAt;
+	}
+}
@@ -1,10 +1,12 @@
 package api.business;
 
+import api.cache.CompanyCaches;
+import api.data.DataAccess;
+import api.data.Page;
 import api.utils.Constants;
 import com.fasterxml.jackson.databind.JsonNode;
 import companydata.Department;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class DepartmentBusiness extends BusinessLayer {
@@ -12,34 +14,42 @@ public class DepartmentBusiness extends BusinessLayer {
 		super(Constants.USERNAME, Constants.DEPARTMENT_TEMPLATE, Constants.ERROR_JSON);
 	}
 
+	public DepartmentBusiness(DataAccess dl) {
+		super(dl, Constants.DEPARTMENT_TEMPLATE, Constants.ERROR_JSON);
+	}
+
 	/**
 	 * Checks the department no against all current department no(s) to check if the new department no is unique
 	 *
 	 * @param company      rit username
 	 * @param departmentNo department no
+	 * @param departmentId id of the department being updated, 0 for a new department
 	 * @return boolean
 	 */
 	private boolean checkIsUniqueDepartmentNo(String company, String departmentNo, int departmentId) {
-		List<Department> departments = dl.getAllDepartment(company);
-
-		// Remove the current department from the list since we want to check if the department no is unique in comparison of other departments
-		if (departmentId != 0) {
-			int index = 0;
-			for (int i = 0; i < departments.size(); i++) {
-				Department d = departments.get(i);
-
-				if (d.getDeptNo().equals(departmentNo) && d.getId() == departmentId) {
-					index = i;
-				}
-			}
-			departments.remove(index);
-		}
+		return CompanyCaches.DEPARTMENT_NOS.forCompany(company, () -> findDepartments(company))
+				.isUnique(departmentNo, departmentId);
+	}
 
-		// Now check if the department no is unique
-		boolean unique = departments.stream().noneMatch(d -> d.getDeptNo().equals(departmentNo));
+	/**
+	 * Gets a department through the department cache
+	 *
+	 * @param company      rit username
+	 * @param departmentId dept id
+	 * @return copy of the Department or null if it does not exist
+	 */
+	private Department findDepartment(String company, int departmentId) {
+		return CompanyCaches.DEPARTMENTS.get(company, departmentId, id -> dl.getDepartment(company, id));
+	}
 
-		if (!unique) setErrorJson("{\"error\": \"Department No is not unique!\"}");
-		return unique;
+	/**
+	 * Gets all departments through the department cache
+	 *
+	 * @param company rit username
+	 * @return unmodifiable list of Departments
+	 */
+	private List<Department> findDepartments(String company) {
+		return CompanyCaches.DEPARTMENTS.getAll(company, () -> dl.getAllDepartment(company));
 	}
 
 	/**
@@ -49,19 +59,19 @@ public class DepartmentBusiness extends BusinessLayer {
 	 * @param departmentId dept id
 	 * @return Department
 	 */
-	public Department getDepartment(String company, int departmentId) {
+	public Result<Department> getDepartment(String company, int departmentId) {
 		// Check inputs
 		if (company.equals(Constants.USERNAME) && departmentId > 0) {
-			Department d = dl.getDepartment(company, departmentId);
+			Department d = findDepartment(company, departmentId);
 
 			if (d == null) {
-				setErrorJson("{\"error\": \"Could not find the department!\"}");
+				return Result.error("{\"error\": \"Could not find the department!\"}");
 			}
 
-			return d;
+			return Result.ok(d);
 		}
 
-		return null;
+		return error();
 	}
 
 	/**
@@ -70,21 +80,54 @@ public class DepartmentBusiness extends BusinessLayer {
 	 * @param company rit username
 	 * @return list of Departments
 	 */
-	public List<Department> getDepartments(String company) {
-		List<Department> d = new ArrayList<>();
-
+	public Result<List<Department>> getDepartments(String company) {
 		// Check input
 		if (company.equals(Constants.USERNAME)) {
-			d = dl.getAllDepartment(company);
+			List<Department> d = findDepartments(company);
 
 			if (d.size() == 0) {
-				setErrorJson("{\"error\": \"There are no departments!\"}");
+				return Result.error("{\"error\": \"There are no departments!\"}");
 			}
 
-			return d;
+			return Result.ok(d);
 		}
 
-		return d;
+		return error();
+	}
+
+	/**
+	 * Get a page of departments by company, ordered by id
+	 *
+	 * @param company rit username
+	 * @param cursor  cursor of the page, null for the first page
+	 * @param limit   maximum number of departments, null for the default
+	 * @return page of Departments
+	 */
+	public Result<Page<Department>> getDepartments(String company, String cursor, String limit) {
+		int afterId = Cursor.decode(cursor);
+		int size = Cursor.limit(limit);
+
+		// Check inputs
+		if (afterId < 0) {
+			return Result.error("{\"error\": \"Invalid cursor!\"}");
+		}
+
+		if (size < 0) {
+			return Result.error("{\"error\": \"Invalid limit!\"}");
+		}
+
+		if (company.equals(Constants.USERNAME)) {
+			// The cached list is ordered by id, so the page is a view of it
+			Page<Department> page = Page.of(findDepartments(company), Department::getId, afterId, size);
+
+			if (afterId == 0 && page.getRows().isEmpty()) {
+				return Result.error("{\"error\": \"There are no departments!\"}");
+			}
+
+			return Result.ok(page);
+		}
+
+		return error();
 	}
 
 	/**
@@ -93,7 +136,7 @@ public class DepartmentBusiness extends BusinessLayer {
 	 * @param node JsonNode object that contains values of input json from service layer
 	 * @return updated Department
 	 */
-	public Department updateDepartment(JsonNode node) {
+	public Result<Department> updateDepartment(JsonNode node) {
 		// Grab all possible JSON values
 		String company = node.get("company").asText();
 		int departmentId = node.get("dept_id").asInt();
@@ -101,27 +144,36 @@ public class DepartmentBusiness extends BusinessLayer {
 		String departmentNo = node.get("dept_no").asText();
 		String location = node.get("location").asText();
 
-		// Check company name, if department exists and if the specified dept_no is unique
-		if (company.equals(Constants.USERNAME) &&
-				dl.getDepartment(company, departmentId) != null &&
-				checkIsUniqueDepartmentNo(company, departmentNo, departmentId)) {
+		// Check company name and if department exists
+		if (!company.equals(Constants.USERNAME)) {
+			return error();
+		}
+
+		Department d = findDepartment(company, departmentId);
 
-			// Update department
-			Department d = dl.getDepartment(company, departmentId);
-			d.setCompany(company);
-			d.setDeptName(departmentName);
-			d.setDeptNo(departmentNo);
-			d.setLocation(location);
-			d = dl.updateDepartment(d);
+		if (d == null) {
+			return error();
+		}
 
-			if (d == null) {
-				setErrorJson("{\"error\": \"Could not update the department!\"}");
-			}
+		// Check if the specified dept_no is unique
+		if (!checkIsUniqueDepartmentNo(company, departmentNo, departmentId)) {
+			return Result.error("{\"error\": \"Department No is not unique!\"}");
+		}
+
+		// Update department
+		d.setCompany(company);
+		d.setDeptName(departmentName);
+		d.setDeptNo(departmentNo);
+		d.setLocation(location);
+		d = dl.updateDepartment(d);
 
-			return d;
+		if (d == null) {
+			return Result.error("{\"error\": \"Could not update the department!\"}");
 		}
 
-		return null;
+		CompanyCaches.DEPARTMENTS.put(company, d);
+		CompanyCaches.DEPARTMENT_NOS.put(company, d);
+		return Result.ok(d);
 	}
 
 	/**
@@ -133,23 +185,27 @@ public class DepartmentBusiness extends BusinessLayer {
 	 * @param location       location
 	 * @return created Department
 	 */
-	public Department createDepartment(String company, String departmentName, String departmentNo, String location) {
+	public Result<Department> createDepartment(String company, String departmentName, String departmentNo, String location) {
 		// Check inputs
-		if (company.equals(Constants.USERNAME) &&
-				checkIsUniqueDepartmentNo(company, departmentNo, 0)) {
+		if (!company.equals(Constants.USERNAME)) {
+			return error();
+		}
 
-			// Create department
-			Department d = new Department(company, departmentName, departmentNo, location);
-			d = dl.insertDepartment(d);
+		if (!checkIsUniqueDepartmentNo(company, departmentNo, 0)) {
+			return Result.error("{\"error\": \"Department No is not unique!\"}");
+		}
 
-			if (d == null) {
-				setErrorJson("{\"error\": \"Could not create the department!\"}");
-			}
+		// Create department
+		Department d = new Department(company, departmentName, departmentNo, location);
+		d = dl.insertDepartment(d);
 
-			return d;
+		if (d == null) {
+			return Result.error("{\"error\": \"Could not create the department!\"}");
 		}
 
-		return null;
+		CompanyCaches.DEPARTMENTS.put(company, d);
+		CompanyCaches.DEPARTMENT_NOS.put(company, d);
+		return Result.ok(d);
 	}
 
 	/**
@@ -159,21 +215,18 @@ public class DepartmentBusiness extends BusinessLayer {
 	 * @param departmentId id of department
 	 * @return number of rows affected
 	 */
-	public int deleteDepartment(String company, int departmentId) {
+	public Result<Integer> deleteDepartment(String company, int departmentId) {
 		// Check company + department exists
-		Department d = dl.getDepartment(company, departmentId);
-
-		if (company.equals(Constants.USERNAME) && d != null) {
+		if (company.equals(Constants.USERNAME) && findDepartment(company, departmentId) != null) {
 			int affected = dl.deleteDepartment(company, departmentId);
 
-			if (affected == 0) {
-				setErrorJson("{\"error\": \"Could not delete the department!\"}");
+			if (affected == 1) {
+				CompanyCaches.DEPARTMENTS.remove(company, departmentId);
+				CompanyCaches.DEPARTMENT_NOS.remove(company, departmentId);
+				return Result.ok(affected);
 			}
-
-			return affected;
 		}
 
-		setErrorJson("{\"error\": \"Could not delete the department!\"}");
-		return 0;
+		return Result.error("{\"error\": \"Could not delete the department!\"}");
 	}
 }
@@ -1,113 +1,164 @@
 package api.business;
 
+import api.cache.CompanyCaches;
+import api.data.DataAccess;
+import api.data.Page;
 import api.utils.Constants;
 import api.utils.DateValidator;
 import com.fasterxml.jackson.databind.JsonNode;
+import companydata.Department;
 import companydata.Employee;
+import companydata.Timecard;
 
 import java.sql.Date;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class EmployeeBusiness extends BusinessLayer {
 	public EmployeeBusiness() {
 		super(Constants.USERNAME, Constants.EMPLOYEE_TEMPLATE, Constants.ERROR_JSON);
 	}
 
+	public EmployeeBusiness(DataAccess dl) {
+		super(dl, Constants.EMPLOYEE_TEMPLATE, Constants.ERROR_JSON);
+	}
+
 	/**
-	 * Checks if there are no existing employees of the company
+	 * Get employee by company + id
 	 *
-	 * @param company rit username
-	 * @return boolean
+	 * @param company    rit username
+	 * @param employeeId empl id
+	 * @return Employee
 	 */
-	private boolean checkIsFirstEmployee(String company) {
-		List<Employee> employees = dl.getAllEmployee(company);
+	public Result<Employee> getEmployee(String company, int employeeId) {
+		// Check inputs
+		if (company.equals(Constants.USERNAME) && employeeId > 0) {
+			Employee e = CompanyCaches.EMPLOYEES.get(employeeId, dl::getEmployee);
+
+			if (e == null) {
+				return Result.error("{\"error\": \"Could not find the employee!\"}");
+			}
 
-		return employees.size() == 0;
+			return Result.ok(e);
+		}
+
+		return error();
 	}
 
 	/**
-	 * Checks if the input employee id is an existing employee
+	 * Get employee by company + id together with their department and timecards. The timecards are fetched
+	 * concurrently with the employee and the department, which is looked up once the employee says which one it is.
+	 * Every lookup is started from the request thread so it is recorded in the request's CallTrace.
 	 *
 	 * @param company    rit username
-	 * @param employeeId id of employee
-	 * @return boolean
+	 * @param employeeId empl id
+	 * @return EmployeeDetails
 	 */
-	private boolean checkIsExistingEmployee(String company, int employeeId) {
-		List<Employee> employees = dl.getAllEmployee(company);
+	public Result<EmployeeDetails> getEmployeeDetails(String company, int employeeId) {
+		// Check inputs
+		if (company.equals(Constants.USERNAME) && employeeId > 0) {
+			long deadline = LookupExecutor.deadline();
+			CompletableFuture<Employee> employee = LookupExecutor.supply(() -> CompanyCaches.EMPLOYEES.get(employeeId, dl::getEmployee));
+			CompletableFuture<List<Timecard>> timecards = LookupExecutor.supply(() -> dl.getAllTimecard(employeeId));
+			Employee e = LookupExecutor.await(employee, deadline);
 
-		return employees.stream().anyMatch(e -> e.getId() == employeeId);
+			if (e == null) {
+				return Result.error("{\"error\": \"Could not find the employee!\"}");
+			}
+
+			CompletableFuture<Department> department = LookupExecutor.supply(() -> CompanyCaches.DEPARTMENTS.get(company, e.getDeptId(), id -> dl.getDepartment(company, id)));
+
+			return Result.ok(new EmployeeDetails(e, LookupExecutor.await(department, deadline), LookupExecutor.await(timecards, deadline)));
+		}
+
+		return error();
 	}
 
 	/**
-	 * Checks if the input employee no is an unique employee no
+	 * Gets list of employees from DL
 	 *
-	 * @param company    rit username
-	 * @param employeeNo no of employee
-	 * @return boolean
+	 * @param company rit username
+	 * @return list of Employees
 	 */
-	private boolean checkIsUniqueEmployeeNo(String company, String employeeNo, int employeeId) {
-		List<Employee> employees = dl.getAllEmployee(company);
-
-		// Remove the current employee from the list since we want to check if the employee no is unique in comparison of other employees
-		if (employeeId != 0) {
-			int index = 0;
-			for (int i = 0; i < employees.size(); i++) {
-				Employee e = employees.get(i);
-
-				if (e.getEmpNo().equals(employeeNo) && e.getId() == employeeId) {
-					index = i;
-				}
+	public Result<List<Employee>> getEmployees(String company) {
+		// Check input
+		if (company.equals(Constants.USERNAME)) {
+			List<Employee> e = dl.getAllEmployee(company);
+
+			if (e.size() == 0) {
+				return Result.error("{\"error\": \"There are no employees!\"}");
 			}
-			employees.remove(index);
+
+			return Result.ok(e);
 		}
 
-		return employees.stream().noneMatch(e -> e.getEmpNo().equals(employeeNo));
+		return error();
 	}
 
 	/**
-	 * Get employee by company + id
+	 * Get a page of employees by company, ordered by id
 	 *
-	 * @param company    rit username
-	 * @param employeeId empl id
-	 * @return Employee
+	 * @param company rit username
+	 * @param cursor  cursor of the page, null for the first page
+	 * @param limit   maximum number of employees, null for the default
+	 * @return page of Employees
 	 */
-	public Employee getEmployee(String company, int employeeId) {
+	public Result<Page<Employee>> getEmployees(String company, String cursor, String limit) {
+		int afterId = Cursor.decode(cursor);
+		int size = Cursor.limit(limit);
+
 		// Check inputs
-		if (company.equals(Constants.USERNAME) && employeeId > 0) {
-			Employee e = dl.getEmployee(employeeId);
+		if (afterId < 0) {
+			return Result.error("{\"error\": \"Invalid cursor!\"}");
+		}
 
-			if (e == null) {
-				setErrorJson("{\"error\": \"Could not find the employee!\"}");
+		if (size < 0) {
+			return Result.error("{\"error\": \"Invalid limit!\"}");
+		}
+
+		if (company.equals(Constants.USERNAME)) {
+			Page<Employee> page = dl.getEmployeePage(company, afterId, size);
+
+			if (afterId == 0 && page.getRows().isEmpty()) {
+				return Result.error("{\"error\": \"There are no employees!\"}");
 			}
 
-			return e;
+			return Result.ok(page);
 		}
 
-		return null;
+		return error();
 	}
 
 	/**
-	 * Gets list of employees from DL
+	 * Gets several employees by id, from the cache where possible and with a single data access for the rest
 	 *
 	 * @param company rit username
-	 * @return list of Employees
+	 * @param ids     comma separated employee ids
+	 * @return Employees that exist, in the order of the ids
 	 */
-	public List<Employee> getEmployees(String company) {
-		List<Employee> e = new ArrayList<>();
+	public Result<List<Employee>> getEmployeesById(String company, String ids) {
+		int[] employeeIds = IdList.parse(ids);
+
+		// Check inputs
+		if (employeeIds == null) {
+			return Result.error("{\"error\": \"Invalid ids!\"}");
+		}
+
+		if (employeeIds.length > Constants.MULTI_GET_MAX_IDS) {
+			return Result.error("{\"error\": \"Too many ids!\"}");
+		}
 
-		// Check input
 		if (company.equals(Constants.USERNAME)) {
-			e = dl.getAllEmployee(company);
+			List<Employee> e = employeesOf(company, employeeIds);
 
 			if (e.size() == 0) {
-				setErrorJson("{\"error\": \"There are no employees!\"}");
+				return Result.error("{\"error\": \"Could not find the employees!\"}");
 			}
 
-			return e;
+			return Result.ok(e);
 		}
 
-		return e;
+		return error();
 	}
 
 	/**
@@ -123,49 +174,86 @@ public class EmployeeBusiness extends BusinessLayer {
 	 * @param managementId id of management
 	 * @return created Employee
 	 */
-	public Employee createEmployee(String company, String employeeName, String employeeNo, String hireDate, String job, double salary, int departmentId, int managementId) {
+	public Result<Employee> createEmployee(String company, String employeeName, String employeeNo, String hireDate, String job, double salary, int departmentId, int managementId) {
+		return createEmployee(new EmployeeLookup(dl, company), company, employeeName, employeeNo, hireDate, job, salary, departmentId, managementId);
+	}
 
+	/**
+	 * Inserts an employee into the database, validating against the given lookup
+	 *
+	 * @param lookup       request scoped lookup the checks are answered from
+	 * @param company      rit username
+	 * @param employeeName name of employee
+	 * @param employeeNo   no of employee
+	 * @param hireDate     string of date hired
+	 * @param job          job name
+	 * @param salary       salary
+	 * @param departmentId id of department
+	 * @param managementId id of management
+	 * @return created Employee
+	 */
+	Result<Employee> createEmployee(EmployeeLookup lookup, String company, String employeeName, String employeeNo, String hireDate, String job, double salary, int departmentId, int managementId) {
 		// Check company, existing department, management id, valid hire date and that the employee no must be unique among all companies
-		DateValidator dv = new DateValidator(Constants.HIREDATE_FORMAT);
+		DateValidator dv = DateValidator.HIRE_DATE;
+
+		// Look up the department and the existing employees at the same time
+		if (company.equals(Constants.USERNAME) && dv.checkHireDate(hireDate)) {
+			lookup.prefetch(departmentId, 0);
+		}
 
 		if (company.equals(Constants.USERNAME) &&
-				dl.getDepartment(company, departmentId) != null &&
+				lookup.getDepartment(departmentId) != null &&
 				dv.checkHireDate(hireDate)) {
 
 			// Check if first employee
-			if (checkIsFirstEmployee(company)) {
+			if (lookup.isFirstEmployee()) {
 				managementId = 0;
 			}
 
 			// Check if manager exists
-			if (managementId != 0 && !checkIsExistingEmployee(company, managementId)) {
-				setErrorJson("{\"error\": \"Manager does not exist!\"}");
-				return null;
+			if (managementId != 0 && !lookup.isExistingEmployee(managementId)) {
+				return Result.error("{\"error\": \"Manager does not exist!\"}");
 			}
 
 			// Check the employee no
-			if (!checkIsUniqueEmployeeNo(company, employeeNo, 0)) {
-				setErrorJson("{\"error\": \"Employee No already exists!\"}");
-				return null;
+			if (!lookup.isUniqueEmployeeNo(employeeNo, 0)) {
+				return Result.error("{\"error\": \"Employee No already exists!\"}");
 			}
 
 			// Create employee to be inserted
-			Date date = new Date(dv.stringToDate(hireDate).getTime());
+			Date date = Date.valueOf(dv.parse(hireDate).toLocalDate());
 			Employee e = new Employee(employeeName, employeeNo, date, job, salary, departmentId, managementId);
 			e = dl.insertEmployee(e);
 
 			if (e == null) {
-				setErrorJson("{\"error\": \"Could not create employee!\"}");
+				return Result.error("{\"error\": \"Could not create employee!\"}");
 			}
 
-			return e;
+			CompanyCaches.EMPLOYEES.put(e);
+			CompanyCaches.EMPLOYEE_NOS.put(company, e);
+			return Result.ok(e);
 		}
 
 		if (!dv.checkHireDate(hireDate)) {
-			setErrorJson("{\"error\": \"Error with the hire date!\"}");
+			return Result.error("{\"error\": \"Error with the hire date!\"}");
+		}
+
+		return error();
+	}
+
+	/**
+	 * Starts an import of employees into a company, see EmployeeImport
+	 *
+	 * @param company rit username
+	 * @return import to run the rows through
+	 */
+	public Result<EmployeeImport> importEmployees(String company) {
+		// Check inputs
+		if (company.equals(Constants.USERNAME)) {
+			return Result.ok(new EmployeeImport(dl, company));
 		}
 
-		return null;
+		return error();
 	}
 
 	/**
@@ -174,7 +262,18 @@ public class EmployeeBusiness extends BusinessLayer {
 	 * @param node JsonNode object
 	 * @return updated Employee
 	 */
-	public Employee updateEmployee(JsonNode node) {
+	public Result<Employee> updateEmployee(JsonNode node) {
+		return updateEmployee(new EmployeeLookup(dl, node.get("company").asText()), node);
+	}
+
+	/**
+	 * Updates an existing employee, validating against the given lookup
+	 *
+	 * @param lookup request scoped lookup the checks are answered from
+	 * @param node   JsonNode object
+	 * @return updated Employee
+	 */
+	Result<Employee> updateEmployee(EmployeeLookup lookup, JsonNode node) {
 		// Grab all possible JSON values
 		String company = node.get("company").asText();
 		int employeeId = node.get("emp_id").asInt();
@@ -187,34 +286,37 @@ public class EmployeeBusiness extends BusinessLayer {
 		int managementId = node.get("mng_id").asInt();
 
 		// Check is the same as createEmployee(), but also check if the employee exists in the db
-		DateValidator dv = new DateValidator(Constants.HIREDATE_FORMAT);
+		DateValidator dv = DateValidator.HIRE_DATE;
+
+		// Look up the employee, the department and the existing employees at the same time
+		if (company.equals(Constants.USERNAME) && dv.checkHireDate(hireDate)) {
+			lookup.prefetch(departmentId, employeeId);
+		}
 
 		if (company.equals(Constants.USERNAME) &&
-				dl.getEmployee(employeeId) != null &&
-				dl.getDepartment(company, departmentId) != null &&
+				lookup.getEmployee(employeeId) != null &&
+				lookup.getDepartment(departmentId) != null &&
 				dv.checkHireDate(hireDate)) {
 
 			// Check if first employee
-			if (checkIsFirstEmployee(company)) {
+			if (lookup.isFirstEmployee()) {
 				managementId = 0;
 			}
 
 			// Check if manager exists
-			if (managementId != 0 && !checkIsExistingEmployee(company, managementId)) {
-				setErrorJson("{\"error\": \"Manager does not exist!\"}");
-				return null;
+			if (managementId != 0 && !lookup.isExistingEmployee(managementId)) {
+				return Result.error("{\"error\": \"Manager does not exist!\"}");
 			}
 
 			// Check the employee no
-			if (!checkIsUniqueEmployeeNo(company, employeeNo, employeeId)) {
-				setErrorJson("{\"error\": \"Employee No already exists!\"}");
-				return null;
+			if (!lookup.isUniqueEmployeeNo(employeeNo, employeeId)) {
+				return Result.error("{\"error\": \"Employee No already exists!\"}");
 			}
 
 			// Update the existing employee
-			Date date = new Date(dv.stringToDate(hireDate).getTime());
+			Date date = Date.valueOf(dv.parse(hireDate).toLocalDate());
 
-			Employee e = dl.getEmployee(employeeId);
+			Employee e = lookup.getEmployee(employeeId);
 			e.setEmpName(employeeName);
 			e.setEmpNo(employeeNo);
 			e.setHireDate(date);
@@ -225,17 +327,19 @@ public class EmployeeBusiness extends BusinessLayer {
 
 			e = dl.updateEmployee(e);
 			if (e == null) {
-				setErrorJson("{\"error\": \"Could not update the employee!\"}");
+				return Result.error("{\"error\": \"Could not update the employee!\"}");
 			}
 
-			return e;
+			CompanyCaches.EMPLOYEES.put(e);
+			CompanyCaches.EMPLOYEE_NOS.put(company, e);
+			return Result.ok(e);
 		}
 
 		if (!dv.checkHireDate(hireDate)) {
-			setErrorJson("{\"error\": \"Error with the hire date!\"}");
+			return Result.error("{\"error\": \"Error with the hire date!\"}");
 		}
 
-		return null;
+		return error();
 	}
 
 	/**
@@ -245,21 +349,18 @@ public class EmployeeBusiness extends BusinessLayer {
 	 * @param employeeId id of employee
 	 * @return number of rows affected
 	 */
-	public int deleteEmployee(String company, int employeeId) {
+	public Result<Integer> deleteEmployee(String company, int employeeId) {
 		// Check company + employee exists
-		Employee e = dl.getEmployee(employeeId);
-
-		if (company.equals(Constants.USERNAME) && e != null) {
+		if (company.equals(Constants.USERNAME) && CompanyCaches.EMPLOYEES.get(employeeId, dl::getEmployee) != null) {
 			int affected = dl.deleteEmployee(employeeId);
 
-			if (affected == 0) {
-				setErrorJson("{\"error\": \"Could not delete the employee!\"}");
+			if (affected == 1) {
+				CompanyCaches.EMPLOYEES.remove(employeeId);
+				CompanyCaches.EMPLOYEE_NOS.remove(company, employeeId);
+				return Result.ok(affected);
 			}
-
-			return affected;
 		}
 
-		setErrorJson("{\"error\": \"Could not delete the employee!\"}");
-		return 0;
+		return Result.error("{\"error\": \"Could not delete the employee!\"}");
 	}
 }
@@ -0,0 +1,43 @@
+package api.business;
+
+import companydata.Department;
+import companydata.Employee;
+import companydata.Timecard;
+
+import java.util.List;
+
+/**
+ * An employee together with their department and timecards
+ */
+public class EmployeeDetails {
+	private final Employee employee;
+	private final Department department;
+	private final List<Timecard> timecards;
+
+	public EmployeeDetails(Employee employee, Department department, List<Timecard> timecards) {
+		this.employee = employee;
+		this.department = department;
+		this.timecards = timecards;
+	}
+
+	/**
+	 * @return Employee
+	 */
+	public Employee getEmployee() {
+		return employee;
+	}
+
+	/**
+	 * @return Department of the employee, null if it no longer exists
+	 */
+	public Department getDepartment() {
+		return department;
+	}
+
+	/**
+	 * @return Timecards of the employee, empty if there are none
+	 */
+	public List<Timecard> getTimecards() {
+		return timecards;
+	}
+}
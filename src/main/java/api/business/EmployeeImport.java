@@ -0,0 +1,335 @@
+package api.business;
+
+import api.cache.CompanyCaches;
+import api.cache.UniqueIndex;
+import api.data.DataAccess;
+import api.utils.Constants;
+import api.utils.DateValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import companydata.Employee;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports a stream of employees into a company, e.g. when onboarding an acquired company.
+ *
+ * Rows are read one at a time and inserted in chunks of companyservices.bulk.batchSize, so only one chunk of rows is
+ * held in memory no matter how long the stream is. Every row is validated like POST employee, with emp_no uniqueness
+ * checked against the company's emp_no index, which is loaded once when the import starts and kept up to date as rows
+ * are inserted.
+ *
+ * A row may carry the emp_id it had in the system it comes from, and name its manager either by mng_id, an existing
+ * employee of the company, or by mng_emp_id, the source emp_id of a row that comes earlier in the stream or in the
+ * same chunk. The two never fall back on each other, so a source id cannot be taken for an unrelated employee. The
+ * new id of every imported row with an emp_id is kept for the whole import, under 100 bytes per such row. Instances
+ * handle a single import and are not thread safe.
+ */
+public class EmployeeImport {
+	private static final int WAIT = -1;
+	private static final int MISSING = -2;
+
+	/**
+	 * Receives the outcome of the import as it goes
+	 */
+	public interface Listener {
+		/**
+		 * @param row    number of the row in the stream, starting at 1
+		 * @param result created Employee or why the row was rejected
+		 */
+		void row(int row, Result<Employee> result) throws IOException;
+
+		/**
+		 * Called after every chunk
+		 *
+		 * @param processed rows read so far
+		 * @param created   employees created so far
+		 * @param failed    rows rejected so far
+		 */
+		void progress(int processed, int created, int failed) throws IOException;
+	}
+
+	private final DataAccess dl;
+	private final String company;
+	private final UniqueIndex.Keys employeeNos;
+	private final Map<Integer, Integer> importedIds = new HashMap<>();
+
+	private final List<Row> chunk = new ArrayList<>(Constants.BULK_BATCH_SIZE);
+	private final Set<String> chunkNos = new HashSet<>();
+	private final Set<Integer> chunkSourceIds = new HashSet<>();
+
+	private int processed;
+	private int created;
+	private int failed;
+
+	EmployeeImport(DataAccess dl, String company) {
+		this.dl = dl;
+		this.company = company;
+		this.employeeNos = CompanyCaches.EMPLOYEE_NOS.forCompany(company, () -> dl.getAllEmployee(company));
+	}
+
+	/**
+	 * Imports every row of the stream
+	 *
+	 * @param rows     rows as objects with emp_name, emp_no, hire_date, job, salary, dept_id and optionally emp_id,
+	 *                 mng_id and mng_emp_id
+	 * @param listener receives the outcome of every row and the progress after every chunk
+	 * @throws UncheckedIOException if reading the rows fails, after the rows read until then were imported
+	 */
+	public void run(Iterator<JsonNode> rows, Listener listener) throws IOException {
+		while (true) {
+			JsonNode node;
+
+			try {
+				if (!rows.hasNext()) break;
+				node = rows.next();
+			} catch (UncheckedIOException e) {
+				// Report the rows read before the body broke off
+				if (!chunk.isEmpty()) flush(listener);
+				throw e;
+			}
+
+			Row row = new Row(++processed, node);
+			validate(row);
+			chunk.add(row);
+
+			if (chunk.size() == Constants.BULK_BATCH_SIZE) {
+				flush(listener);
+			}
+		}
+
+		if (!chunk.isEmpty()) {
+			flush(listener);
+		}
+	}
+
+	/**
+	 * @return rows read so far
+	 */
+	public int getProcessed() {
+		return processed;
+	}
+
+	/**
+	 * @return employees created so far
+	 */
+	public int getCreated() {
+		return created;
+	}
+
+	/**
+	 * @return rows rejected so far
+	 */
+	public int getFailed() {
+		return failed;
+	}
+
+	/**
+	 * Checks the fields of a row and builds its employee, or sets the error of the row
+	 *
+	 * @param row row to check
+	 */
+	private void validate(Row row) {
+		JsonNode node = row.node;
+		DateValidator dv = DateValidator.HIRE_DATE;
+
+		String employeeName = text(node, "emp_name");
+		String employeeNo = text(node, "emp_no");
+		String hireDate = text(node, "hire_date");
+		String job = text(node, "job");
+		Double salary = decimal(text(node, "salary"));
+		Integer departmentId = integer(text(node, "dept_id"));
+		Integer sourceId = optional(text(node, "emp_id"));
+		Integer managementId = optional(text(node, "mng_id"));
+		Integer sourceManagementId = optional(text(node, "mng_emp_id"));
+
+		if (employeeName == null || employeeNo == null || hireDate == null || job == null || salary == null ||
+				departmentId == null || sourceId == null || managementId == null || sourceManagementId == null ||
+				(managementId != 0 && sourceManagementId != 0)) {
+			row.result = Result.error("{\"error\": \"Invalid employee!\"}");
+		} else if (sourceId != 0 && (importedIds.containsKey(sourceId) || chunkSourceIds.contains(sourceId))) {
+			row.result = Result.error("{\"error\": \"Employee id already imported!\"}");
+		} else if (!dv.checkHireDate(hireDate)) {
+			row.result = Result.error("{\"error\": \"Error with the hire date!\"}");
+		} else if (CompanyCaches.DEPARTMENTS.get(company, departmentId, id -> dl.getDepartment(company, id)) == null) {
+			row.result = Result.error("{\"error\": \"Department does not exist!\"}");
+		} else if (!employeeNos.isUnique(employeeNo, 0) || !chunkNos.add(employeeNo)) {
+			row.result = Result.error("{\"error\": \"Employee No already exists!\"}");
+		} else {
+			Date date = Date.valueOf(dv.parse(hireDate).toLocalDate());
+			row.employee = new Employee(employeeName, employeeNo, date, job, salary, departmentId, 0);
+			row.sourceId = sourceId;
+			row.managerRef = managementId;
+			row.sourceManagerRef = sourceManagementId;
+			if (sourceId != 0) chunkSourceIds.add(sourceId);
+		}
+	}
+
+	/**
+	 * Inserts the valid rows of the chunk, managers before the rows that report to them, and reports the chunk
+	 *
+	 * @param listener receives the outcome
+	 */
+	private void flush(Listener listener) throws IOException {
+		List<Row> pending = new ArrayList<>();
+		for (Row row : chunk) {
+			if (row.result == null) pending.add(row);
+		}
+
+		while (!pending.isEmpty()) {
+			// Rows of this chunk other rows may still be waiting for
+			Set<Integer> waiting = new HashSet<>();
+			for (Row row : pending) {
+				if (row.sourceId != 0) waiting.add(row.sourceId);
+			}
+
+			List<Row> ready = new ArrayList<>();
+			List<Row> blocked = new ArrayList<>();
+
+			for (Row row : pending) {
+				int managementId = resolveManager(row, waiting);
+
+				if (managementId == MISSING) {
+					row.result = Result.error("{\"error\": \"Manager does not exist!\"}");
+				} else if (managementId == WAIT) {
+					blocked.add(row);
+				} else {
+					row.employee.setMngId(managementId);
+					ready.add(row);
+				}
+			}
+
+			// Left waiting on each other
+			if (ready.isEmpty()) {
+				blocked.forEach(row -> row.result = Result.error("{\"error\": \"Manager does not exist!\"}"));
+				break;
+			}
+
+			insert(ready);
+			pending = blocked;
+		}
+
+		for (Row row : chunk) {
+			if (row.result.isOk()) created++; else failed++;
+			listener.row(row.number, row.result);
+		}
+
+		listener.progress(processed, created, failed);
+		chunk.clear();
+		chunkNos.clear();
+		chunkSourceIds.clear();
+	}
+
+	/**
+	 * @param row     row to find the manager of
+	 * @param waiting emp_ids of rows of the chunk that are not inserted yet
+	 * @return id of the manager, 0 for none, WAIT if the manager is a row of the chunk that is not inserted yet or
+	 * MISSING if there is no such employee
+	 */
+	private int resolveManager(Row row, Set<Integer> waiting) {
+		if (row.sourceManagerRef != 0) {
+			Integer imported = importedIds.get(row.sourceManagerRef);
+			if (imported != null) return imported;
+
+			return waiting.contains(row.sourceManagerRef) ? WAIT : MISSING;
+		}
+
+		if (row.managerRef == 0) return 0;
+
+		return employeeNos.containsId(row.managerRef) ? row.managerRef : MISSING;
+	}
+
+	/**
+	 * @param rows rows to insert with a single data access
+	 */
+	private void insert(List<Row> rows) {
+		List<Employee> employees = new ArrayList<>(rows.size());
+		for (Row row : rows) {
+			employees.add(row.employee);
+		}
+
+		List<Employee> inserted = dl.insertEmployees(employees);
+
+		for (int i = 0; i < rows.size(); i++) {
+			Row row = rows.get(i);
+			Employee e = inserted.get(i);
+
+			if (e == null) {
+				row.result = Result.error("{\"error\": \"Could not create employee!\"}");
+				continue;
+			}
+
+			// Not put in the employee cache, a large import would evict every employee that is actually in use
+			CompanyCaches.EMPLOYEE_NOS.put(company, e);
+			if (row.sourceId != 0) importedIds.put(row.sourceId, e.getId());
+			row.result = Result.ok(e);
+		}
+	}
+
+	/**
+	 * @return value of the field as text, null if it is missing, empty or not a single value
+	 */
+	private static String text(JsonNode node, String field) {
+		JsonNode value = node == null ? null : node.get(field);
+
+		if (value == null || !value.isValueNode() || value.isNull()) return null;
+
+		String text = value.asText().trim();
+		return text.isEmpty() ? null : text;
+	}
+
+	private static Integer integer(String text) {
+		if (text == null) return null;
+
+		try {
+			int value = Integer.parseInt(text);
+			return value > 0 ? value : null;
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return id, 0 if there is none, null if it is not a valid id
+	 */
+	private static Integer optional(String text) {
+		return text == null || text.equals("0") ? Integer.valueOf(0) : integer(text);
+	}
+
+	private static Double decimal(String text) {
+		if (text == null) return null;
+
+		try {
+			double value = Double.parseDouble(text);
+			return Double.isFinite(value) ? value : null;
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * One row of the stream and what became of it
+	 */
+	private static final class Row {
+		private final int number;
+		private final JsonNode node;
+		private Employee employee;
+		private int sourceId;
+		private int managerRef;
+		private int sourceManagerRef;
+		private Result<Employee> result;
+
+		private Row(int number, JsonNode node) {
+			this.number = number;
+			this.node = node;
+		}
+	}
+}
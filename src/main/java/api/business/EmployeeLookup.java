@@ -0,0 +1,172 @@
+package api.business;
+
+import api.cache.CompanyCaches;
+import api.data.DataAccess;
+import api.cache.UniqueIndex;
+import companydata.Department;
+import companydata.Employee;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Request scoped view of the data an employee write is validated against.
+ *
+ * Each dataset is fetched from the DataLayer the first time it is needed and answered from memory afterwards, so a
+ * create or update issues every lookup at most once no matter how many checks use it. Checks on the company's
+ * employees go through the shared emp_no index, which only needs the employee list once per company. prefetch()
+ * issues the independent lookups of a write concurrently instead of one after another. Instances are not thread safe
+ * and must not outlive the request they were created for.
+ */
+public class EmployeeLookup {
+	private final DataAccess dl;
+	private final String company;
+
+	private List<Employee> employees;
+	private Department department;
+	private int departmentId;
+	private boolean departmentLoaded;
+	private Employee employee;
+	private int employeeId;
+	private boolean employeeLoaded;
+
+	private final AtomicInteger roundTrips = new AtomicInteger();
+
+	public EmployeeLookup(DataAccess dl, String company) {
+		this.dl = dl;
+		this.company = company;
+	}
+
+	/**
+	 * Looks up the department, the employee and the emp_no index of the company at the same time on the
+	 * LookupExecutor and waits for all of them, so the checks that follow are answered from memory
+	 *
+	 * @param departmentId id of department
+	 * @param employeeId   id of employee, 0 to skip the employee
+	 * @throws api.data.PoolTimeoutException if the lookups did not finish within companyservices.lookup.timeoutMs
+	 */
+	public void prefetch(int departmentId, int employeeId) {
+		long deadline = LookupExecutor.deadline();
+
+		CompletableFuture<Department> department = LookupExecutor.supply(() -> loadDepartment(departmentId));
+		CompletableFuture<Employee> employee = employeeId == 0
+				? CompletableFuture.completedFuture(null)
+				: LookupExecutor.supply(() -> loadEmployee(employeeId));
+		CompletableFuture<UniqueIndex.Keys> employeeNos = LookupExecutor.supply(() ->
+				CompanyCaches.EMPLOYEE_NOS.forCompany(company, () -> {
+					roundTrips.incrementAndGet();
+					return dl.getAllEmployee(company);
+				}));
+
+		setDepartment(departmentId, LookupExecutor.await(department, deadline));
+		if (employeeId != 0) setEmployee(employeeId, LookupExecutor.await(employee, deadline));
+		LookupExecutor.await(employeeNos, deadline);
+	}
+
+	/**
+	 * @return all employees of the company
+	 */
+	public List<Employee> getEmployees() {
+		if (employees == null) {
+			employees = dl.getAllEmployee(company);
+			roundTrips.incrementAndGet();
+		}
+
+		return employees;
+	}
+
+	/**
+	 * @param departmentId id of department
+	 * @return Department or null if it does not exist
+	 */
+	public Department getDepartment(int departmentId) {
+		if (!departmentLoaded || this.departmentId != departmentId) {
+			setDepartment(departmentId, loadDepartment(departmentId));
+		}
+
+		return department;
+	}
+
+	/**
+	 * @param employeeId id of employee
+	 * @return Employee or null if it does not exist
+	 */
+	public Employee getEmployee(int employeeId) {
+		if (!employeeLoaded || this.employeeId != employeeId) {
+			setEmployee(employeeId, loadEmployee(employeeId));
+		}
+
+		return employee;
+	}
+
+	private Department loadDepartment(int departmentId) {
+		return CompanyCaches.DEPARTMENTS.get(company, departmentId, id -> {
+			roundTrips.incrementAndGet();
+			return dl.getDepartment(company, id);
+		});
+	}
+
+	private Employee loadEmployee(int employeeId) {
+		return CompanyCaches.EMPLOYEES.get(employeeId, id -> {
+			roundTrips.incrementAndGet();
+			return dl.getEmployee(id);
+		});
+	}
+
+	private void setDepartment(int departmentId, Department department) {
+		this.department = department;
+		this.departmentId = departmentId;
+		this.departmentLoaded = true;
+	}
+
+	private void setEmployee(int employeeId, Employee employee) {
+		this.employee = employee;
+		this.employeeId = employeeId;
+		this.employeeLoaded = true;
+	}
+
+	/**
+	 * @return emp_no index of the company
+	 */
+	private UniqueIndex.Keys getEmployeeNos() {
+		return CompanyCaches.EMPLOYEE_NOS.forCompany(company, this::getEmployees);
+	}
+
+	/**
+	 * Checks if there are no existing employees of the company
+	 *
+	 * @return boolean
+	 */
+	public boolean isFirstEmployee() {
+		return getEmployeeNos().isEmpty();
+	}
+
+	/**
+	 * Checks if the input employee id is an existing employee of the company
+	 *
+	 * @param employeeId id of employee
+	 * @return boolean
+	 */
+	public boolean isExistingEmployee(int employeeId) {
+		return getEmployeeNos().containsId(employeeId);
+	}
+
+	/**
+	 * Checks if the input employee no is not used by any other employee of the company
+	 *
+	 * @param employeeNo no of employee
+	 * @param employeeId id of the employee being updated, 0 for a new employee
+	 * @return boolean
+	 */
+	public boolean isUniqueEmployeeNo(String employeeNo, int employeeId) {
+		return getEmployeeNos().isUnique(employeeNo, employeeId);
+	}
+
+	/**
+	 * @return number of DataLayer calls issued through this lookup
+	 */
+	public int getRoundTrips() {
+		return roundTrips.get();
+	}
+}
@@ -0,0 +1,52 @@
+package api.business;
+
+import java.util.Arrays;
+
+/**
+ * ids parameter of the multi-get endpoints, a comma separated list of ids such as "1,2,3".
+ */
+public final class IdList {
+	private IdList() {
+	}
+
+	/**
+	 * @param ids comma separated ids
+	 * @return distinct ids in the order they were first given, null if the list is empty or an id is not a positive
+	 * number
+	 */
+	public static int[] parse(String ids) {
+		if (ids == null) return null;
+
+		String[] parts = ids.split(",");
+		int[] result = new int[parts.length];
+		int count = 0;
+
+		for (String part : parts) {
+			part = part.trim();
+			if (part.isEmpty()) continue;
+
+			int id;
+			try {
+				id = Integer.parseInt(part);
+			} catch (NumberFormatException e) {
+				return null;
+			}
+
+			if (id < 1) return null;
+
+			if (!contains(result, count, id)) {
+				result[count++] = id;
+			}
+		}
+
+		return count == 0 ? null : Arrays.copyOf(result, count);
+	}
+
+	private static boolean contains(int[] ids, int count, int id) {
+		for (int i = 0; i < count; i++) {
+			if (ids[i] == id) return true;
+		}
+
+		return false;
+	}
+}
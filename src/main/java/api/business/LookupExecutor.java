@@ -0,0 +1,108 @@
+package api.business;
+
+import api.data.PoolTimeoutException;
+import api.metrics.CallTrace;
+import api.metrics.Metrics;
+import api.utils.Constants;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Shared pool the independent lookups of a single request are run on concurrently.
+ *
+ * Lookups carry the CallTrace of the request that issued them. When every thread is busy and the queue is full a
+ * lookup runs on the calling thread instead, so a burst degrades to sequential lookups rather than failing. The
+ * lookups of a request share a deadline of companyservices.lookup.timeoutMs, see deadline().
+ */
+public final class LookupExecutor {
+	private static final int QUEUE_CAPACITY = 1024;
+	private static final ThreadPoolExecutor EXECUTOR = createExecutor(Constants.LOOKUP_THREADS);
+
+	private LookupExecutor() {
+	}
+
+	private static ThreadPoolExecutor createExecutor(int threads) {
+		AtomicInteger count = new AtomicInteger();
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+				r -> {
+					Thread thread = new Thread(r, "lookup-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				(r, pool) -> {
+					Metrics.LOOKUP_EXECUTOR.rejected();
+					if (!pool.isShutdown()) r.run();
+				});
+		executor.allowCoreThreadTimeOut(true);
+		Metrics.LOOKUP_EXECUTOR.bind(executor);
+
+		return executor;
+	}
+
+	/**
+	 * Starts a lookup on the pool
+	 *
+	 * @param lookup lookup to run
+	 * @return result of the lookup once it completes
+	 */
+	public static <T> CompletableFuture<T> supply(Supplier<T> lookup) {
+		CallTrace trace = CallTrace.current();
+
+		return CompletableFuture.supplyAsync(() -> {
+			CallTrace previous = CallTrace.attach(trace);
+
+			try {
+				return lookup.get();
+			} finally {
+				CallTrace.detach(previous);
+			}
+		}, EXECUTOR);
+	}
+
+	/**
+	 * @return deadline for the lookups of a request started now, in System.nanoTime() terms
+	 */
+	public static long deadline() {
+		return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Constants.LOOKUP_TIMEOUT_MS);
+	}
+
+	/**
+	 * Waits for a lookup until the deadline, rethrowing what it failed with so e.g. a PoolTimeoutException still
+	 * reaches its mapper. A lookup that misses the deadline is left to finish in the background.
+	 *
+	 * @param lookup   started lookup
+	 * @param deadline shared deadline of the request's lookups, from deadline()
+	 * @return result of the lookup
+	 * @throws PoolTimeoutException if the lookup did not finish by the deadline, so the request is answered with 503
+	 */
+	public static <T> T await(CompletableFuture<T> lookup, long deadline) {
+		try {
+			return lookup.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			throw new PoolTimeoutException("Lookups did not finish within " + Constants.LOOKUP_TIMEOUT_MS + "ms");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PoolTimeoutException("Interrupted while waiting for a lookup");
+		} catch (ExecutionException e) {
+			throw unwrap(e);
+		}
+	}
+
+	private static RuntimeException unwrap(Exception e) {
+		Throwable cause = e.getCause();
+
+		if (cause instanceof RuntimeException) return (RuntimeException) cause;
+		if (cause instanceof Error) throw (Error) cause;
+		return new CompletionException(cause);
+	}
+}
@@ -0,0 +1,53 @@
+package api.business;
+
+/**
+ * Immutable outcome of a business operation, either the resulting value or the error json to send back
+ *
+ * @param <T> type of the value
+ */
+public final class Result<T> {
+	private final T value;
+	private final String errorJson;
+
+	private Result(T value, String errorJson) {
+		this.value = value;
+		this.errorJson = errorJson;
+	}
+
+	/**
+	 * @param value result value
+	 * @return successful Result
+	 */
+	public static <T> Result<T> ok(T value) {
+		return new Result<>(value, null);
+	}
+
+	/**
+	 * @param errorJson error json message
+	 * @return failed Result
+	 */
+	public static <T> Result<T> error(String errorJson) {
+		return new Result<>(null, errorJson);
+	}
+
+	/**
+	 * @return true if the operation succeeded
+	 */
+	public boolean isOk() {
+		return errorJson == null;
+	}
+
+	/**
+	 * @return value of a successful operation, null otherwise
+	 */
+	public T getValue() {
+		return value;
+	}
+
+	/**
+	 * @return error json message of a failed operation, null otherwise
+	 */
+	public String getErrorJson() {
+		return errorJson;
+	}
+}
@@ -1,5 +1,8 @@
 package api.business;
 
+import api.cache.CompanyCaches;
+import api.data.DataAccess;
+import api.data.Page;
 import api.utils.Constants;
 import api.utils.DateValidator;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -8,13 +11,23 @@ import companydata.Timecard;
 
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class TimecardBusiness extends BusinessLayer {
 	public TimecardBusiness() {
 		super(Constants.USERNAME, Constants.TIMECARD_TEMPLATE, Constants.ERROR_JSON);
 	}
 
+	public TimecardBusiness(DataAccess dl) {
+		super(dl, Constants.TIMECARD_TEMPLATE, Constants.ERROR_JSON);
+	}
+
 	/**
 	 * Get timecard by company + id
 	 *
@@ -22,19 +35,19 @@ public class TimecardBusiness extends BusinessLayer {
 	 * @param timecardId timecard id
 	 * @return Timecard
 	 */
-	public Timecard getTimecard(String company, int timecardId) {
+	public Result<Timecard> getTimecard(String company, int timecardId) {
 		// Check inputs
 		if (company.equals(Constants.USERNAME) && timecardId > 0) {
 			Timecard t = dl.getTimecard(timecardId);
 
 			if (t == null) {
-				setErrorJson("{\"error\": \"Could not find timecard!\"}");
+				return Result.error("{\"error\": \"Could not find timecard!\"}");
 			}
 
-			return t;
+			return Result.ok(t);
 		}
 
-		return null;
+		return error();
 	}
 
 	/**
@@ -44,21 +57,96 @@ public class TimecardBusiness extends BusinessLayer {
 	 * @param employeeId employee id
 	 * @return list of Timecards for specified employee
 	 */
-	public List<Timecard> getTimecards(String company, int employeeId) {
-		List<Timecard> timecards = new ArrayList<>();
-
+	public Result<List<Timecard>> getTimecards(String company, int employeeId) {
 		// Check inputs
 		if (company.equals(Constants.USERNAME) && employeeId > 0) {
-			timecards = dl.getAllTimecard(employeeId);
+			List<Timecard> timecards = dl.getAllTimecard(employeeId);
 
 			if (timecards.size() == 0) {
-				setErrorJson("{\"error\": \"There are no timecards!\"}");
+				return Result.error("{\"error\": \"There are no timecards!\"}");
+			}
+
+			return Result.ok(timecards);
+		}
+
+		return error();
+	}
+
+	/**
+	 * Get a page of timecards by company + employee id, ordered by id
+	 *
+	 * @param company    rit username
+	 * @param employeeId id of employee
+	 * @param cursor     cursor of the page, null for the first page
+	 * @param limit      maximum number of timecards, null for the default
+	 * @return page of Timecards
+	 */
+	public Result<Page<Timecard>> getTimecards(String company, int employeeId, String cursor, String limit) {
+		int afterId = Cursor.decode(cursor);
+		int size = Cursor.limit(limit);
+
+		// Check inputs
+		if (afterId < 0) {
+			return Result.error("{\"error\": \"Invalid cursor!\"}");
+		}
+
+		if (size < 0) {
+			return Result.error("{\"error\": \"Invalid limit!\"}");
+		}
+
+		if (company.equals(Constants.USERNAME) && employeeId > 0) {
+			Page<Timecard> page = dl.getTimecardPage(employeeId, afterId, size);
+
+			if (afterId == 0 && page.getRows().isEmpty()) {
+				return Result.error("{\"error\": \"There are no timecards!\"}");
 			}
 
-			return timecards;
+			return Result.ok(page);
 		}
 
-		return timecards;
+		return error();
+	}
+
+	/**
+	 * Gets several timecards by id with a single data access
+	 *
+	 * @param company rit username
+	 * @param ids     comma separated timecard ids
+	 * @return Timecards that exist, in the order of the ids
+	 */
+	public Result<List<Timecard>> getTimecardsById(String company, String ids) {
+		int[] timecardIds = IdList.parse(ids);
+
+		// Check inputs
+		if (timecardIds == null) {
+			return Result.error("{\"error\": \"Invalid ids!\"}");
+		}
+
+		if (timecardIds.length > Constants.MULTI_GET_MAX_IDS) {
+			return Result.error("{\"error\": \"Too many ids!\"}");
+		}
+
+		if (company.equals(Constants.USERNAME)) {
+			List<Timecard> loaded = dl.getTimecards(timecardIds);
+
+			if (loaded.size() == 0) {
+				return Result.error("{\"error\": \"Could not find the timecards!\"}");
+			}
+
+			// Back into the order of the ids
+			Map<Integer, Timecard> byId = new HashMap<>();
+			loaded.forEach(t -> byId.put(t.getId(), t));
+
+			List<Timecard> timecards = new ArrayList<>(loaded.size());
+			for (int id : timecardIds) {
+				Timecard t = byId.get(id);
+				if (t != null) timecards.add(t);
+			}
+
+			return Result.ok(timecards);
+		}
+
+		return error();
 	}
 
 	/**
@@ -72,9 +160,9 @@ public class TimecardBusiness extends BusinessLayer {
 	 *                   the same day as the start_time
 	 * @return created Timecard
 	 */
-	public Timecard createTimecard(String company, int employeeId, String startTime, String endTime) {
-		Employee e = dl.getEmployee(employeeId);
-		DateValidator dv = new DateValidator(Constants.TIMESTAMP_FORMAT);
+	public Result<Timecard> createTimecard(String company, int employeeId, String startTime, String endTime) {
+		Employee e = CompanyCaches.EMPLOYEES.get(employeeId, dl::getEmployee);
+		DateValidator dv = DateValidator.TIMESTAMP;
 
 		// Check company, employee exists and validate timestamps
 		if (company.equals(Constants.USERNAME) &&
@@ -82,27 +170,132 @@ public class TimecardBusiness extends BusinessLayer {
 				dv.validateTimestamps(startTime, endTime)) {
 
 			// Create timecard POJO
-			Timestamp start = new Timestamp(dv.stringToDate(startTime).getTime());
-			Timestamp end = new Timestamp(dv.stringToDate(endTime).getTime());
+			Timestamp start = Timestamp.valueOf(dv.parse(startTime));
+			Timestamp end = Timestamp.valueOf(dv.parse(endTime));
 			Timecard t = new Timecard(start, end, employeeId);
 			t = dl.insertTimecard(t);
 
 			if (t == null) {
-				setErrorJson("{\"error\": \"Could not create timecard!\"}");
+				return Result.error("{\"error\": \"Could not create timecard!\"}");
 			}
 
-			return t;
+			return Result.ok(t);
+		}
+
+		// Report the timestamps first, then the employee
+		if (!dv.validateTimestamps(startTime, endTime)) {
+			return Result.error("{\"error\": \"Error with timestamps!\"}");
 		}
 
 		if (e == null) {
-			setErrorJson("{\"error\": \"Employee does not exist!\"}");
+			return Result.error("{\"error\": \"Employee does not exist!\"}");
 		}
 
-		if (!dv.validateTimestamps(startTime, endTime)) {
-			setErrorJson("{\"error\": \"Error with timestamps!\"}");
+		return error();
+	}
+
+	/**
+	 * Inserts a batch of timecards. Every item is validated first, each distinct employee is looked up once for the
+	 * whole batch and the valid timecards are inserted in batches.
+	 *
+	 * @param company rit username
+	 * @param items   timecards as objects with emp_id, start_time and end_time
+	 * @return outcome of every item, in the order of the items
+	 */
+	public Result<List<Result<Timecard>>> createTimecards(String company, List<JsonNode> items) {
+		// Check inputs
+		if (!company.equals(Constants.USERNAME)) {
+			return error();
+		}
+
+		if (items.isEmpty()) {
+			return Result.error("{\"error\": \"There are no timecards!\"}");
+		}
+
+		if (items.size() > Constants.BULK_MAX_ITEMS) {
+			return Result.error("{\"error\": \"Too many timecards!\"}");
+		}
+
+		DateValidator dv = DateValidator.TIMESTAMP;
+		List<Result<Timecard>> results = new ArrayList<>(Collections.nCopies(items.size(), null));
+		Timecard[] pending = new Timecard[items.size()];
+		Set<Integer> employeeIds = new HashSet<>();
+
+		// Validate the fields and timestamps of every item
+		for (int i = 0; i < items.size(); i++) {
+			JsonNode node = items.get(i);
+			int employeeId = node == null ? 0 : node.path("emp_id").asInt();
+			String startTime = node == null ? null : node.path("start_time").textValue();
+			String endTime = node == null ? null : node.path("end_time").textValue();
+
+			if (employeeId < 1 || startTime == null || endTime == null) {
+				results.set(i, Result.error("{\"error\": \"Invalid timecard!\"}"));
+			} else if (!dv.validateTimestamps(startTime, endTime)) {
+				results.set(i, Result.error("{\"error\": \"Error with timestamps!\"}"));
+			} else {
+				Timestamp start = Timestamp.valueOf(dv.parse(startTime));
+				Timestamp end = Timestamp.valueOf(dv.parse(endTime));
+				pending[i] = new Timecard(start, end, employeeId);
+				employeeIds.add(employeeId);
+			}
+		}
+
+		// Look up each employee once
+		Set<Integer> existing = new HashSet<>();
+		int[] ids = employeeIds.stream().mapToInt(Integer::intValue).toArray();
+
+		if (ids.length > 0) {
+			for (Employee e : employeesOf(company, ids)) {
+				existing.add(e.getId());
+			}
+		}
+
+		// Insert the valid timecards in batches
+		List<Timecard> batch = new ArrayList<>(Constants.BULK_BATCH_SIZE);
+		List<Integer> batchIndexes = new ArrayList<>(Constants.BULK_BATCH_SIZE);
+
+		for (int i = 0; i < pending.length; i++) {
+			if (pending[i] == null) continue;
+
+			if (!existing.contains(pending[i].getEmpId())) {
+				results.set(i, Result.error("{\"error\": \"Employee does not exist!\"}"));
+				continue;
+			}
+
+			batch.add(pending[i]);
+			batchIndexes.add(i);
+
+			if (batch.size() == Constants.BULK_BATCH_SIZE) {
+				insertBatch(batch, batchIndexes, results);
+			}
 		}
 
-		return null;
+		if (!batch.isEmpty()) {
+			insertBatch(batch, batchIndexes, results);
+		}
+
+		return Result.ok(results);
+	}
+
+	/**
+	 * Inserts a batch of timecards and records the outcome of each, then empties the batch
+	 *
+	 * @param batch        timecards to insert
+	 * @param batchIndexes index of each timecard among the items
+	 * @param results      outcomes of the items
+	 */
+	private void insertBatch(List<Timecard> batch, List<Integer> batchIndexes, List<Result<Timecard>> results) {
+		List<Timecard> created = dl.insertTimecards(batch);
+
+		for (int j = 0; j < batch.size(); j++) {
+			Timecard t = created.get(j);
+			results.set(batchIndexes.get(j), t == null
+					? Result.error("{\"error\": \"Could not create timecard!\"}")
+					: Result.ok(t));
+		}
+
+		batch.clear();
+		batchIndexes.clear();
 	}
 
 	/**
@@ -111,7 +304,7 @@ public class TimecardBusiness extends BusinessLayer {
 	 * @param node JsonNode object that contains values of input json from service layer
 	 * @return updated Timecard
 	 */
-	public Timecard updateTimecard(JsonNode node) {
+	public Result<Timecard> updateTimecard(JsonNode node) {
 		// Grab all possible JSON values
 		String company = node.get("company").asText();
 		int timecardId = node.get("timecard_id").asInt();
@@ -119,10 +312,15 @@ public class TimecardBusiness extends BusinessLayer {
 		String endTime = node.get("end_time").asText();
 		int empId = node.get("emp_id").asInt();
 
-		Employee e = dl.getEmployee(empId);
-		Timecard t = dl.getTimecard(timecardId);
+		// Look up the employee and the timecard at the same time
+		long deadline = LookupExecutor.deadline();
+		CompletableFuture<Employee> employee = LookupExecutor.supply(() -> CompanyCaches.EMPLOYEES.get(empId, dl::getEmployee));
+		CompletableFuture<Timecard> timecard = LookupExecutor.supply(() -> dl.getTimecard(timecardId));
+
+		Employee e = LookupExecutor.await(employee, deadline);
+		Timecard t = LookupExecutor.await(timecard, deadline);
 
-		DateValidator dv = new DateValidator(Constants.TIMESTAMP_FORMAT);
+		DateValidator dv = DateValidator.TIMESTAMP;
 
 		// Check if company, employee and timecard exists and validate timestamps
 		if (company.equals(Constants.USERNAME) &&
@@ -131,8 +329,8 @@ public class TimecardBusiness extends BusinessLayer {
 				dv.validateTimestamps(startTime, endTime)) {
 
 			// Update timecard
-			Timestamp start = new Timestamp(dv.stringToDate(startTime).getTime());
-			Timestamp end = new Timestamp(dv.stringToDate(endTime).getTime());
+			Timestamp start = Timestamp.valueOf(dv.parse(startTime));
+			Timestamp end = Timestamp.valueOf(dv.parse(endTime));
 			t.setStartTime(start);
 			t.setEndTime(end);
 			t.setEmpId(empId);
@@ -140,25 +338,26 @@ public class TimecardBusiness extends BusinessLayer {
 			t = dl.updateTimecard(t);
 
 			if (t == null) {
-				setErrorJson("{\"error\": \"Could not update timecard!\"}");
+				return Result.error("{\"error\": \"Could not update timecard!\"}");
 			}
 
-			return t;
+			return Result.ok(t);
 		}
 
-		if (e == null) {
-			setErrorJson("{\"error\": \"Employee does not exist!\"}");
+		// Report the timestamps first, then the timecard, then the employee
+		if (!dv.validateTimestamps(startTime, endTime)) {
+			return Result.error("{\"error\": \"Error with timestamps!\"}");
 		}
 
 		if (t == null) {
-			setErrorJson("{\"error\": \"Timecard does not exist!\"}");
+			return Result.error("{\"error\": \"Timecard does not exist!\"}");
 		}
 
-		if (!dv.validateTimestamps(startTime, endTime)) {
-			setErrorJson("{\"error\": \"Error with timestamps!\"}");
+		if (e == null) {
+			return Result.error("{\"error\": \"Employee does not exist!\"}");
 		}
 
-		return null;
+		return error();
 	}
 
 	/**
@@ -168,21 +367,18 @@ public class TimecardBusiness extends BusinessLayer {
 	 * @param timecardId id of timecard
 	 * @return number of rows affected
 	 */
-	public int deleteTimecard(String company, int timecardId) {
+	public Result<Integer> deleteTimecard(String company, int timecardId) {
 		// Check company + timecard exists
 		Timecard t = dl.getTimecard(timecardId);
 
 		if (company.equals(Constants.USERNAME) && t != null) {
 			int affected = dl.deleteTimecard(timecardId);
 
-			if (affected == 0) {
-				setErrorJson("{\"error\": \"Could not delete timecard!\"}");
+			if (affected == 1) {
+				return Result.ok(affected);
 			}
-
-			return affected;
 		}
 
-		setErrorJson("{\"error\": \"Could not delete timecard!\"}");
-		return 0;
+		return Result.error("{\"error\": \"Could not delete timecard!\"}");
 	}
 }
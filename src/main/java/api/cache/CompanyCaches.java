@@ -0,0 +1,32 @@
+package api.cache;
+
+import api.utils.Constants;
+import companydata.Department;
+import companydata.Employee;
+
+/**
+ * Caches and indexes shared by every business object
+ */
+public final class CompanyCaches {
+	public static final DepartmentCache DEPARTMENTS = new DepartmentCache();
+	public static final UniqueIndex<Department> DEPARTMENT_NOS = new UniqueIndex<>(Department::getDeptNo, Department::getId);
+	public static final EmployeeCache EMPLOYEES = new EmployeeCache(Constants.EMPLOYEE_CACHE_CAPACITY,
+			Constants.EMPLOYEE_CACHE_TTL_MS);
+	public static final UniqueIndex<Employee> EMPLOYEE_NOS = new UniqueIndex<>(Employee::getEmpNo, Employee::getId);
+
+	private CompanyCaches() {
+	}
+
+	/**
+	 * Drops everything cached for a company, e.g. after its data was deleted. Employees are not cached by company, so
+	 * the whole employee cache is cleared.
+	 *
+	 * @param company rit username
+	 */
+	public static void invalidate(String company) {
+		DEPARTMENTS.invalidate(company);
+		DEPARTMENT_NOS.invalidate(company);
+		EMPLOYEES.clear();
+		EMPLOYEE_NOS.invalidate(company);
+	}
+}
@@ -0,0 +1,208 @@
+package api.cache;
+
+import companydata.Department;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of departments per company, by id and as the full list.
+ *
+ * Misses are loaded through the supplied loader and writes made through the business layer update the cache right
+ * after they reach the database. Single departments are handed out as copies since callers modify them before
+ * writing them back.
+ */
+public class DepartmentCache {
+	private static final Comparator<Department> BY_ID = Comparator.comparingInt(Department::getId);
+
+	private final Map<String, Segment> companies = new ConcurrentHashMap<>();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Gets a department, loading it on a miss
+	 *
+	 * @param company      rit username
+	 * @param departmentId id of department
+	 * @param loader       loads the department by id, may return null
+	 * @return copy of the Department or null if it does not exist
+	 */
+	public Department get(String company, int departmentId, IntFunction<Department> loader) {
+		Segment segment = segment(company);
+		Department d = segment.byId.get(departmentId);
+
+		if (d != null || segment.complete) {
+			hits.incrementAndGet();
+			return copy(d);
+		}
+
+		misses.incrementAndGet();
+		long version = segment.version;
+		d = loader.apply(departmentId);
+
+		if (d != null) {
+			segment.install(d, version);
+		}
+
+		return copy(d);
+	}
+
+	/**
+	 * Gets every department of a company, loading them on a miss
+	 *
+	 * @param company rit username
+	 * @param loader  loads all departments of the company
+	 * @return unmodifiable list of departments ordered by id, the entries must not be modified
+	 */
+	public List<Department> getAll(String company, Supplier<List<Department>> loader) {
+		Segment segment = segment(company);
+
+		if (segment.complete) {
+			hits.incrementAndGet();
+			return segment.list();
+		}
+
+		// Loaded outside of any lock, writers of the company don't wait for the query
+		misses.incrementAndGet();
+		long version = segment.version;
+		List<Department> departments = loader.get();
+
+		if (segment.load(departments, version)) {
+			return segment.list();
+		}
+
+		// A write raced with the load, answer from the load without caching it
+		List<Department> sorted = new ArrayList<>(departments);
+		sorted.sort(BY_ID);
+		return Collections.unmodifiableList(sorted);
+	}
+
+	/**
+	 * Records a created or updated department
+	 *
+	 * @param company    rit username
+	 * @param department department as written to the database
+	 */
+	public void put(String company, Department department) {
+		segment(company).put(copy(department));
+	}
+
+	/**
+	 * Drops a deleted department
+	 *
+	 * @param company      rit username
+	 * @param departmentId id of the deleted department
+	 */
+	public void remove(String company, int departmentId) {
+		segment(company).remove(departmentId);
+	}
+
+	/**
+	 * Forgets everything cached for a company. The segment is kept and its version bumped, so loads that are in
+	 * flight cannot install what they read before.
+	 *
+	 * @param company rit username
+	 */
+	public void invalidate(String company) {
+		Segment segment = companies.get(company);
+		if (segment != null) segment.clear();
+	}
+
+	/**
+	 * @return number of lookups answered from the cache
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return number of lookups that had to go to the database
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	private Segment segment(String company) {
+		return companies.computeIfAbsent(company, c -> new Segment());
+	}
+
+	private static Department copy(Department d) {
+		if (d == null) return null;
+
+		return new Department(d.getId(), d.getCompany(), d.getDeptName(), d.getDeptNo(), d.getLocation());
+	}
+
+	/**
+	 * Departments of a single company. Writes and invalidation bump the version so a load that started before them
+	 * cannot put stale departments back afterwards.
+	 */
+	private static final class Segment {
+		private final Map<Integer, Department> byId = new ConcurrentSkipListMap<>();
+		private volatile boolean complete;
+		private volatile long version;
+		private volatile List<Department> list;
+
+		private synchronized void install(Department d, long loadedAt) {
+			if (version == loadedAt) {
+				byId.putIfAbsent(d.getId(), d);
+			}
+		}
+
+		/**
+		 * @return false if the segment was written to since loadedAt and the departments were not installed
+		 */
+		private synchronized boolean load(List<Department> departments, long loadedAt) {
+			if (version != loadedAt) return false;
+
+			byId.clear();
+			departments.forEach(d -> byId.put(d.getId(), d));
+			list = null;
+			complete = true;
+			return true;
+		}
+
+		private synchronized void put(Department d) {
+			version++;
+			byId.put(d.getId(), d);
+			list = null;
+		}
+
+		private synchronized void remove(int departmentId) {
+			version++;
+			byId.remove(departmentId);
+			list = null;
+		}
+
+		private synchronized void clear() {
+			version++;
+			complete = false;
+			byId.clear();
+			list = null;
+		}
+
+		private List<Department> list() {
+			List<Department> snapshot = list;
+
+			if (snapshot != null) {
+				return snapshot;
+			}
+
+			// Rebuilt under the lock so a concurrent write cannot be overwritten with an older snapshot
+			synchronized (this) {
+				if (list == null) {
+					list = Collections.unmodifiableList(new ArrayList<>(byId.values()));
+				}
+
+				return list;
+			}
+		}
+	}
+}
@@ -0,0 +1,318 @@
+package api.cache;
+
+import companydata.Employee;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Size bounded LRU cache of employees by emp_id with a time to live.
+ *
+ * The cache is split into segments by id, each an access ordered LinkedHashMap behind its own lock, so lookups of
+ * different employees rarely contend. Employees are copied on the way in and out since callers modify them before
+ * writing them back.
+ */
+public class EmployeeCache {
+	private static final int SEGMENTS = 16;
+
+	private final Segment[] segments = new Segment[SEGMENTS];
+	private final long ttlMillis;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	private final AtomicLong expirations = new AtomicLong();
+
+	/**
+	 * @param capacity  maximum number of cached employees
+	 * @param ttlMillis how long an employee is served from the cache after it was loaded or written
+	 */
+	public EmployeeCache(int capacity, long ttlMillis) {
+		if (capacity < SEGMENTS) throw new IllegalArgumentException("capacity must be at least " + SEGMENTS);
+
+		this.ttlMillis = ttlMillis;
+
+		for (int i = 0; i < SEGMENTS; i++) {
+			segments[i] = new Segment(capacity / SEGMENTS);
+		}
+	}
+
+	/**
+	 * Gets an employee, loading it on a miss
+	 *
+	 * @param employeeId id of employee
+	 * @param loader     loads the employee by id, may return null
+	 * @return copy of the Employee or null if it does not exist
+	 */
+	public Employee get(int employeeId, IntFunction<Employee> loader) {
+		Segment segment = segmentFor(employeeId);
+		long now = System.currentTimeMillis();
+		long version;
+
+		segment.lock.lock();
+		try {
+			CachedEmployee entry = segment.map.get(employeeId);
+
+			if (entry != null) {
+				if (entry.expiresAt > now) {
+					hits.incrementAndGet();
+					return copy(entry.employee);
+				}
+
+				segment.map.remove(employeeId);
+				expirations.incrementAndGet();
+			}
+
+			version = segment.version;
+		} finally {
+			segment.lock.unlock();
+		}
+
+		misses.incrementAndGet();
+		Employee e = loader.apply(employeeId);
+
+		if (e != null) {
+			segment.lock.lock();
+			try {
+				// Skip it if the segment was written to while loading, the loaded row could be stale
+				if (segment.version == version) {
+					segment.map.putIfAbsent(employeeId, new CachedEmployee(copy(e), System.currentTimeMillis() + ttlMillis));
+				}
+			} finally {
+				segment.lock.unlock();
+			}
+		}
+
+		return copy(e);
+	}
+
+	/**
+	 * Gets several employees, loading all misses with a single call of the loader
+	 *
+	 * @param employeeIds distinct ids of employees
+	 * @param loader      loads the employees with the given ids, leaving out ones that do not exist
+	 * @return copies of the employees that exist, in the order of the ids
+	 */
+	public List<Employee> getAll(int[] employeeIds, Function<int[], List<Employee>> loader) {
+		Employee[] found = new Employee[employeeIds.length];
+		int[] missing = new int[employeeIds.length];
+		long[] versions = new long[employeeIds.length];
+		int missCount = 0;
+		long now = System.currentTimeMillis();
+
+		for (int i = 0; i < employeeIds.length; i++) {
+			int employeeId = employeeIds[i];
+			Segment segment = segmentFor(employeeId);
+
+			segment.lock.lock();
+			try {
+				CachedEmployee entry = segment.map.get(employeeId);
+
+				if (entry != null && entry.expiresAt > now) {
+					found[i] = copy(entry.employee);
+					continue;
+				}
+
+				if (entry != null) {
+					segment.map.remove(employeeId);
+					expirations.incrementAndGet();
+				}
+
+				missing[missCount] = employeeId;
+				versions[missCount] = segment.version;
+				missCount++;
+			} finally {
+				segment.lock.unlock();
+			}
+		}
+
+		hits.addAndGet(employeeIds.length - missCount);
+
+		if (missCount > 0) {
+			misses.addAndGet(missCount);
+			Map<Integer, Employee> loaded = new HashMap<>();
+
+			for (Employee e : loader.apply(Arrays.copyOf(missing, missCount))) {
+				loaded.put(e.getId(), e);
+			}
+
+			long expiresAt = System.currentTimeMillis() + ttlMillis;
+
+			for (int i = 0; i < missCount; i++) {
+				Employee e = loaded.get(missing[i]);
+				if (e == null) continue;
+
+				Segment segment = segmentFor(missing[i]);
+				segment.lock.lock();
+				try {
+					// Skip it if the segment was written to while loading, the loaded row could be stale
+					if (segment.version == versions[i]) {
+						segment.map.putIfAbsent(missing[i], new CachedEmployee(copy(e), expiresAt));
+					}
+				} finally {
+					segment.lock.unlock();
+				}
+			}
+
+			for (int i = 0; i < employeeIds.length; i++) {
+				if (found[i] == null) found[i] = copy(loaded.get(employeeIds[i]));
+			}
+		}
+
+		List<Employee> result = new ArrayList<>(employeeIds.length);
+		for (Employee e : found) {
+			if (e != null) result.add(e);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Records a created or updated employee
+	 *
+	 * @param employee employee as written to the database
+	 */
+	public void put(Employee employee) {
+		Segment segment = segmentFor(employee.getId());
+
+		segment.lock.lock();
+		try {
+			segment.version++;
+			segment.map.put(employee.getId(), new CachedEmployee(copy(employee), System.currentTimeMillis() + ttlMillis));
+		} finally {
+			segment.lock.unlock();
+		}
+	}
+
+	/**
+	 * Drops a deleted employee
+	 *
+	 * @param employeeId id of the deleted employee
+	 */
+	public void remove(int employeeId) {
+		Segment segment = segmentFor(employeeId);
+
+		segment.lock.lock();
+		try {
+			segment.version++;
+			segment.map.remove(employeeId);
+		} finally {
+			segment.lock.unlock();
+		}
+	}
+
+	/**
+	 * Drops every cached employee
+	 */
+	public void clear() {
+		for (Segment segment : segments) {
+			segment.lock.lock();
+			try {
+				segment.version++;
+				segment.map.clear();
+			} finally {
+				segment.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * @return number of cached employees, including ones that expired but were not looked up since
+	 */
+	public int size() {
+		int size = 0;
+
+		for (Segment segment : segments) {
+			segment.lock.lock();
+			try {
+				size += segment.map.size();
+			} finally {
+				segment.lock.unlock();
+			}
+		}
+
+		return size;
+	}
+
+	/**
+	 * @return number of lookups answered from the cache
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return number of lookups that had to go to the database
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * @return number of employees dropped to stay within capacity
+	 */
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	/**
+	 * @return number of employees dropped because their time to live ran out
+	 */
+	public long getExpirations() {
+		return expirations.get();
+	}
+
+	private Segment segmentFor(int employeeId) {
+		// Spread sequential ids over the segments
+		int h = employeeId * 0x9E3779B9;
+		return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+	}
+
+	private static Employee copy(Employee e) {
+		if (e == null) return null;
+
+		Date hireDate = e.getHireDate() == null ? null : new Date(e.getHireDate().getTime());
+
+		return new Employee(e.getId(), e.getEmpName(), e.getEmpNo(), hireDate, e.getJob(), e.getSalary(),
+				e.getDeptId(), e.getMngId());
+	}
+
+	private static final class CachedEmployee {
+		private final Employee employee;
+		private final long expiresAt;
+
+		private CachedEmployee(Employee employee, long expiresAt) {
+			this.employee = employee;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	private final class Segment {
+		private final ReentrantLock lock = new ReentrantLock();
+		private final LinkedHashMap<Integer, CachedEmployee> map;
+		private long version;
+
+		private Segment(int capacity) {
+			this.map = new LinkedHashMap<Integer, CachedEmployee>(capacity, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Integer, CachedEmployee> eldest) {
+					if (size() > capacity) {
+						evictions.incrementAndGet();
+						return true;
+					}
+
+					return false;
+				}
+			};
+		}
+	}
+}
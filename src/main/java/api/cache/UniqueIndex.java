@@ -0,0 +1,181 @@
+package api.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Per company hash index of a unique business key (dept_no, emp_no) to the id of the row that owns it.
+ *
+ * A company's index is built from a single full load the first time it is asked for and is then kept up to date by
+ * put() and remove() as rows are written, so uniqueness checks are answered in O(1) without going to the database.
+ * Each company is loaded through a future of its own rather than inside ConcurrentHashMap.computeIfAbsent, so only
+ * callers for the same company wait for the load, and a virtual thread waiting on it does not pin its carrier thread.
+ *
+ * @param <E> type of the indexed rows
+ */
+public class UniqueIndex<E> {
+	private final Function<E, String> keyOf;
+	private final ToIntFunction<E> idOf;
+	private final Map<String, CompletableFuture<Keys>> companies = new ConcurrentHashMap<>();
+
+	public UniqueIndex(Function<E, String> keyOf, ToIntFunction<E> idOf) {
+		this.keyOf = keyOf;
+		this.idOf = idOf;
+	}
+
+	/**
+	 * Gets the index of a company, loading it on first use
+	 *
+	 * @param company rit username
+	 * @param loader  supplies every row of the company, only called if the company is not indexed yet
+	 * @return index of the company
+	 */
+	public Keys forCompany(String company, Supplier<? extends Collection<E>> loader) {
+		CompletableFuture<Keys> keys = companies.get(company);
+
+		if (keys == null) {
+			CompletableFuture<Keys> load = new CompletableFuture<>();
+			keys = companies.putIfAbsent(company, load);
+
+			// Nobody else is loading it, load it on this thread
+			if (keys == null) {
+				try {
+					Keys loaded = new Keys();
+					loader.get().forEach(row -> loaded.put(keyOf.apply(row), idOf.applyAsInt(row)));
+					load.complete(loaded);
+					return loaded;
+				} catch (RuntimeException | Error e) {
+					// Let the next caller try again
+					companies.remove(company, load);
+					load.completeExceptionally(e);
+					throw e;
+				}
+			}
+		}
+
+		try {
+			return keys.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if (cause instanceof Error) throw (Error) cause;
+			throw e;
+		}
+	}
+
+	/**
+	 * Records an inserted or updated row, a changed key replaces the old one
+	 *
+	 * @param company rit username
+	 * @param row     row as written to the database
+	 */
+	public void put(String company, E row) {
+		// Not indexed yet, the row will be picked up by the initial load
+		Keys keys = indexed(company);
+		if (keys != null) keys.put(keyOf.apply(row), idOf.applyAsInt(row));
+	}
+
+	/**
+	 * Drops a deleted row
+	 *
+	 * @param company rit username
+	 * @param id      id of the deleted row
+	 */
+	public void remove(String company, int id) {
+		Keys keys = indexed(company);
+		if (keys != null) keys.remove(id);
+	}
+
+	/**
+	 * Waits for a load of the company that is in progress, so a row written while the company is being loaded is not
+	 * lost
+	 *
+	 * @return index of the company, null if it is not indexed
+	 */
+	private Keys indexed(String company) {
+		CompletableFuture<Keys> keys = companies.get(company);
+		if (keys == null) return null;
+
+		try {
+			return keys.join();
+		} catch (CompletionException e) {
+			// The load failed, the next one will read the row from the database
+			return null;
+		}
+	}
+
+	/**
+	 * Forgets the index of a company, it is rebuilt on next use
+	 *
+	 * @param company rit username
+	 */
+	public void invalidate(String company) {
+		companies.remove(company);
+	}
+
+	/**
+	 * Index of a single company
+	 */
+	public static final class Keys {
+		private final Map<String, Integer> idsByKey = new ConcurrentHashMap<>();
+		private final Map<Integer, String> keysById = new ConcurrentHashMap<>();
+
+		private synchronized void put(String key, int id) {
+			String old = keysById.put(id, key);
+
+			if (old != null && !old.equals(key)) {
+				idsByKey.remove(old, id);
+			}
+
+			idsByKey.put(key, id);
+		}
+
+		private synchronized void remove(int id) {
+			String key = keysById.remove(id);
+
+			if (key != null) {
+				idsByKey.remove(key, id);
+			}
+		}
+
+		/**
+		 * @param key key to check
+		 * @param id  id of the row that wants the key, 0 for a new row
+		 * @return true if no other row uses the key
+		 */
+		public boolean isUnique(String key, int id) {
+			Integer owner = idsByKey.get(key);
+
+			return owner == null || owner == id;
+		}
+
+		/**
+		 * @param id row id
+		 * @return true if a row with the id is indexed
+		 */
+		public boolean containsId(int id) {
+			return keysById.containsKey(id);
+		}
+
+		/**
+		 * @return true if the company has no rows
+		 */
+		public boolean isEmpty() {
+			return keysById.isEmpty();
+		}
+
+		/**
+		 * @return number of indexed rows
+		 */
+		public int size() {
+			return keysById.size();
+		}
+	}
+}
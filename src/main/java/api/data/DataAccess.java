@@ -0,0 +1,203 @@
+package api.data;
+
+import companydata.Department;
+import companydata.Employee;
+import companydata.Timecard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every operation of companydata.DataLayer, so the business layer can run against MySQL through PooledDataLayer or
+ * against InMemoryDataAccess without a database.
+ *
+ * Implementations must be safe to share between threads. Lookups return null when the row does not exist, deletes
+ * return the number of rows removed.
+ */
+public interface DataAccess {
+	int deleteCompany(String company);
+
+	List<Department> getAllDepartment(String company);
+
+	Department getDepartment(String company, int departmentId);
+
+	Department getDepartmentNo(String company, String departmentNo);
+
+	Department insertDepartment(Department department);
+
+	Department updateDepartment(Department department);
+
+	int deleteDepartment(String company, int departmentId);
+
+	/**
+	 * Deletes several departments at once, by default one at a time.
+	 *
+	 * @param company       rit username
+	 * @param departmentIds ids of departments
+	 * @return number of rows removed
+	 */
+	default int deleteDepartments(String company, int[] departmentIds) {
+		int affected = 0;
+
+		for (int id : departmentIds) {
+			affected += deleteDepartment(company, id);
+		}
+
+		return affected;
+	}
+
+	Employee insertEmployee(Employee employee);
+
+	/**
+	 * Inserts several employees at once, by default one at a time.
+	 *
+	 * @param employees employees to insert
+	 * @return inserted employees in the same order, null where an insert failed
+	 */
+	default List<Employee> insertEmployees(List<Employee> employees) {
+		List<Employee> result = new ArrayList<>(employees.size());
+
+		for (Employee e : employees) {
+			result.add(insertEmployee(e));
+		}
+
+		return result;
+	}
+
+	List<Employee> getAllEmployee(String company);
+
+	/**
+	 * Gets the employees of a company with ids greater than afterId, in id order. DataLayer has no paged query, so by
+	 * default the page is cut out of getAllEmployee().
+	 *
+	 * @param company rit username
+	 * @param afterId id the page starts after, 0 for the first page
+	 * @param limit   maximum number of employees
+	 * @return page of employees
+	 */
+	default Page<Employee> getEmployeePage(String company, int afterId, int limit) {
+		return Page.sorted(getAllEmployee(company), Employee::getId, afterId, limit);
+	}
+
+	Employee getEmployee(int employeeId);
+
+	/**
+	 * Gets several employees of a company at once. DataLayer has no query for a list of ids, so by default they are
+	 * looked up one at a time, and their departments once each to tell whether they belong to the company.
+	 *
+	 * @param company     rit username
+	 * @param employeeIds distinct ids of employees
+	 * @return employees that exist in the company, in no particular order
+	 */
+	default List<Employee> getEmployees(String company, int[] employeeIds) {
+		List<Employee> result = new ArrayList<>(employeeIds.length);
+		Map<Integer, Boolean> ownDepartments = new HashMap<>();
+
+		for (int id : employeeIds) {
+			Employee e = getEmployee(id);
+
+			if (e != null && ownDepartments.computeIfAbsent(e.getDeptId(), d -> getDepartment(company, d) != null)) {
+				result.add(e);
+			}
+		}
+
+		return result;
+	}
+
+	Employee updateEmployee(Employee employee);
+
+	int deleteEmployee(int employeeId);
+
+	/**
+	 * Deletes several employees at once, by default one at a time.
+	 *
+	 * @param employeeIds ids of employees
+	 * @return number of rows removed
+	 */
+	default int deleteEmployees(int[] employeeIds) {
+		int affected = 0;
+
+		for (int id : employeeIds) {
+			affected += deleteEmployee(id);
+		}
+
+		return affected;
+	}
+
+	Timecard insertTimecard(Timecard timecard);
+
+	/**
+	 * Inserts several timecards at once. DataLayer has no multi-row insert, so by default they are inserted one at a
+	 * time.
+	 *
+	 * @param timecards timecards to insert
+	 * @return inserted timecards in the same order, null where an insert failed
+	 */
+	default List<Timecard> insertTimecards(List<Timecard> timecards) {
+		List<Timecard> result = new ArrayList<>(timecards.size());
+
+		for (Timecard t : timecards) {
+			result.add(insertTimecard(t));
+		}
+
+		return result;
+	}
+
+	List<Timecard> getAllTimecard(int employeeId);
+
+	/**
+	 * Gets the timecards of an employee with ids greater than afterId, in id order. By default the page is cut out of
+	 * getAllTimecard().
+	 *
+	 * @param employeeId id of employee
+	 * @param afterId    id the page starts after, 0 for the first page
+	 * @param limit      maximum number of timecards
+	 * @return page of timecards
+	 */
+	default Page<Timecard> getTimecardPage(int employeeId, int afterId, int limit) {
+		return Page.sorted(getAllTimecard(employeeId), Timecard::getId, afterId, limit);
+	}
+
+	Timecard getTimecard(int timecardId);
+
+	/**
+	 * Gets several timecards at once, by default one at a time.
+	 *
+	 * @param timecardIds distinct ids of timecards
+	 * @return timecards that exist, in no particular order
+	 */
+	default List<Timecard> getTimecards(int[] timecardIds) {
+		List<Timecard> result = new ArrayList<>(timecardIds.length);
+
+		for (int id : timecardIds) {
+			Timecard t = getTimecard(id);
+			if (t != null) result.add(t);
+		}
+
+		return result;
+	}
+
+	Timecard updateTimecard(Timecard timecard);
+
+	int deleteTimecard(int timecardId);
+
+	/**
+	 * Deletes several timecards at once, by default one at a time.
+	 *
+	 * @param timecardIds ids of timecards
+	 * @return number of rows removed
+	 */
+	default int deleteTimecards(int[] timecardIds) {
+		int affected = 0;
+
+		for (int id : timecardIds) {
+			affected += deleteTimecard(id);
+		}
+
+		return affected;
+	}
+
+	void close();
+}
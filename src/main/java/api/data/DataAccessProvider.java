@@ -0,0 +1,35 @@
+package api.data;
+
+import api.utils.Constants;
+
+/**
+ * Picks the DataAccess the business layer uses, from the companyservices.dataAccess system property
+ */
+public final class DataAccessProvider {
+	private static final DataAccess INSTANCE = new TimedDataAccess(create(Constants.DATA_ACCESS));
+
+	private DataAccessProvider() {
+	}
+
+	/**
+	 * @return shared DataAccess selected at startup, timed in Metrics.DATA_ACCESS
+	 */
+	public static DataAccess get() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @param name "mysql" for the pooled DataLayer, "memory" for the in-memory store
+	 * @return new DataAccess of the named kind
+	 */
+	static DataAccess create(String name) {
+		switch (name) {
+			case "mysql":
+				return PooledDataLayer.getInstance();
+			case "memory":
+				return new InMemoryDataAccess();
+			default:
+				throw new IllegalArgumentException("Unknown data access: " + name);
+		}
+	}
+}
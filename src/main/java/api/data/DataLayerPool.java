@@ -0,0 +1,229 @@
+package api.data;
+
+import api.utils.Constants;
+import companydata.DataLayer;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of DataLayer handles for a single company.
+ *
+ * A DataLayer keeps its connection, statement and result set in instance fields, so one handle can only serve one
+ * call at a time. The pool hands out at most maxSize handles at once, which also caps the number of concurrent
+ * MySQL connections, and keeps returned handles around for reuse until they have been idle for too long.
+ */
+public class DataLayerPool {
+	private static final DataLayerPool INSTANCE = new DataLayerPool(Constants.USERNAME, Constants.POOL_MAX_SIZE,
+			Constants.POOL_BORROW_TIMEOUT_MS, Constants.POOL_IDLE_TIMEOUT_MS);
+
+	private final String company;
+	private final int maxSize;
+	private final long borrowTimeoutMillis;
+	private final long idleTimeoutMillis;
+
+	private final Semaphore permits;
+	private final Deque<IdleHandle> idle = new ConcurrentLinkedDeque<>();
+
+	private final AtomicInteger created = new AtomicInteger();
+	private final AtomicInteger evicted = new AtomicInteger();
+	private final AtomicLong borrowed = new AtomicLong();
+	private final AtomicLong timeouts = new AtomicLong();
+	private final AtomicLong waitNanos = new AtomicLong();
+
+	public DataLayerPool(String company, int maxSize, long borrowTimeoutMillis, long idleTimeoutMillis) {
+		if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be positive");
+
+		this.company = company;
+		this.maxSize = maxSize;
+		this.borrowTimeoutMillis = borrowTimeoutMillis;
+		this.idleTimeoutMillis = idleTimeoutMillis;
+		this.permits = new Semaphore(maxSize, true);
+	}
+
+	/**
+	 * @return shared pool for the configured company
+	 */
+	public static DataLayerPool getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return company the pooled handles are bound to
+	 */
+	public String getCompany() {
+		return company;
+	}
+
+	/**
+	 * Borrows a handle, waiting up to the borrow timeout for one to be released
+	 *
+	 * @return DataLayer that must be handed back with release()
+	 * @throws PoolTimeoutException if no handle became available in time
+	 */
+	public DataLayer borrow() {
+		long start = System.nanoTime();
+
+		try {
+			if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				timeouts.incrementAndGet();
+				throw new PoolTimeoutException("Timed out after " + borrowTimeoutMillis + "ms waiting for a DataLayer");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PoolTimeoutException("Interrupted while waiting for a DataLayer");
+		}
+
+		waitNanos.addAndGet(System.nanoTime() - start);
+		borrowed.incrementAndGet();
+
+		// Most recently returned handle first, the stale ones collect at the tail
+		IdleHandle handle = idle.pollFirst();
+		if (handle != null) {
+			return handle.dl;
+		}
+
+		created.incrementAndGet();
+		return new DataLayer(company);
+	}
+
+	/**
+	 * Returns a borrowed handle to the pool
+	 *
+	 * @param dl handle obtained from borrow()
+	 */
+	public void release(DataLayer dl) {
+		long now = System.currentTimeMillis();
+
+		idle.offerFirst(new IdleHandle(dl, now));
+		permits.release();
+
+		evictIdle(now);
+	}
+
+	/**
+	 * Closes and drops handles that have not been used for longer than the idle timeout
+	 *
+	 * @param now current time in milliseconds
+	 */
+	private void evictIdle(long now) {
+		IdleHandle oldest;
+
+		while ((oldest = idle.peekLast()) != null && now - oldest.releasedAt > idleTimeoutMillis) {
+			// Another thread may have taken or evicted it in the meantime
+			if (idle.removeLastOccurrence(oldest)) {
+				oldest.dl.close();
+				evicted.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Closes every idle handle, borrowed handles are left alone
+	 */
+	public void clear() {
+		IdleHandle handle;
+
+		while ((handle = idle.pollLast()) != null) {
+			handle.dl.close();
+			evicted.incrementAndGet();
+		}
+	}
+
+	/**
+	 * @return snapshot of the pool counters
+	 */
+	public Stats getStats() {
+		int active = maxSize - permits.availablePermits();
+		long borrows = borrowed.get();
+		double avgWaitMillis = borrows == 0 ? 0 : waitNanos.get() / 1_000_000.0 / borrows;
+
+		return new Stats(maxSize, active, idle.size(), created.get(), evicted.get(), borrows, timeouts.get(),
+				permits.getQueueLength(), avgWaitMillis);
+	}
+
+	private static final class IdleHandle {
+		private final DataLayer dl;
+		private final long releasedAt;
+
+		private IdleHandle(DataLayer dl, long releasedAt) {
+			this.dl = dl;
+			this.releasedAt = releasedAt;
+		}
+	}
+
+	/**
+	 * Immutable snapshot of pool statistics
+	 */
+	public static final class Stats {
+		private final int maxSize;
+		private final int active;
+		private final int idle;
+		private final int created;
+		private final int evicted;
+		private final long borrowed;
+		private final long timeouts;
+		private final int waiting;
+		private final double averageWaitMillis;
+
+		Stats(int maxSize, int active, int idle, int created, int evicted, long borrowed, long timeouts, int waiting,
+		      double averageWaitMillis) {
+			this.maxSize = maxSize;
+			this.active = active;
+			this.idle = idle;
+			this.created = created;
+			this.evicted = evicted;
+			this.borrowed = borrowed;
+			this.timeouts = timeouts;
+			this.waiting = waiting;
+			this.averageWaitMillis = averageWaitMillis;
+		}
+
+		public int getMaxSize() {
+			return maxSize;
+		}
+
+		public int getActive() {
+			return active;
+		}
+
+		public int getIdle() {
+			return idle;
+		}
+
+		public int getCreated() {
+			return created;
+		}
+
+		public int getEvicted() {
+			return evicted;
+		}
+
+		public long getBorrowed() {
+			return borrowed;
+		}
+
+		public long getTimeouts() {
+			return timeouts;
+		}
+
+		public int getWaiting() {
+			return waiting;
+		}
+
+		public double getAverageWaitMillis() {
+			return averageWaitMillis;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("DataLayerPool[max=%d, active=%d, idle=%d, created=%d, evicted=%d, borrowed=%d, " +
+							"timeouts=%d, waiting=%d, avgWait=%.3fms]", maxSize, active, idle, created, evicted, borrowed,
+					timeouts, waiting, averageWaitMillis);
+		}
+	}
+}
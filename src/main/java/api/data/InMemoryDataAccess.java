@@ -0,0 +1,548 @@
+package api.data;
+
+import companydata.Department;
+import companydata.Employee;
+import companydata.Timecard;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * DataAccess that keeps every table in memory, for load tests and benchmarks without MySQL and as an embedded store.
+ *
+ * Rows live in int-keyed open addressing maps guarded by a read/write lock, so lookups run in parallel and never box
+ * the id. Rows are copied on the way in and out, and the constraints of the MySQL schema are mirrored: ids are
+ * generated, dept_no is unique per company, emp_no is unique, and rows that are still referenced cannot be deleted.
+ * The department and employee ids of every company are kept sorted, so listing or paging a company's rows only
+ * visits that company's rows, and the employees of every department and the reports of every manager are counted,
+ * so checking whether a row is still referenced does not scan the table either.
+ */
+public class InMemoryDataAccess implements DataAccess {
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final IntObjectMap<Department> departments = new IntObjectMap<>();
+	private final IntObjectMap<Employee> employees = new IntObjectMap<>();
+	private final IntObjectMap<Timecard> timecards = new IntObjectMap<>();
+	private final IntObjectMap<List<Timecard>> timecardsByEmployee = new IntObjectMap<>();
+	private final Map<String, Map<String, Department>> departmentNos = new HashMap<>();
+	private final Map<String, Employee> employeeNos = new HashMap<>();
+	private final Map<String, NavigableSet<Integer>> employeeIds = new HashMap<>();
+	private final Map<String, NavigableSet<Integer>> departmentIds = new HashMap<>();
+	private final IntObjectMap<Integer> employeesByDepartment = new IntObjectMap<>();
+	private final IntObjectMap<Integer> reportsByManager = new IntObjectMap<>();
+
+	private int nextDepartmentId = 1;
+	private int nextEmployeeId = 1;
+	private int nextTimecardId = 1;
+
+	@Override
+	public int deleteCompany(String company) {
+		return write(() -> {
+			int affected = 0;
+
+			for (Employee e : employeesOf(company)) {
+				List<Timecard> cards = timecardsByEmployee.remove(e.getId());
+
+				if (cards != null) {
+					for (Timecard t : cards) timecards.remove(t.getId());
+					affected += cards.size();
+				}
+
+				employees.remove(e.getId());
+				employeeNos.remove(e.getEmpNo());
+				count(e, -1);
+				affected++;
+			}
+
+			for (Department d : departmentsOf(company)) {
+				departments.remove(d.getId());
+				affected++;
+			}
+
+			departmentNos.remove(company);
+			employeeIds.remove(company);
+			departmentIds.remove(company);
+			return affected;
+		});
+	}
+
+	@Override
+	public List<Department> getAllDepartment(String company) {
+		return read(() -> {
+			List<Department> result = departmentsOf(company);
+			result.replaceAll(InMemoryDataAccess::copy);
+			return result;
+		});
+	}
+
+	@Override
+	public Department getDepartment(String company, int departmentId) {
+		return read(() -> {
+			Department d = departments.get(departmentId);
+			return d != null && d.getCompany().equals(company) ? copy(d) : null;
+		});
+	}
+
+	@Override
+	public Department getDepartmentNo(String company, String departmentNo) {
+		return read(() -> {
+			Map<String, Department> nos = departmentNos.get(company);
+			Department d = nos == null ? null : nos.get(departmentNo);
+			return d == null ? null : copy(d);
+		});
+	}
+
+	@Override
+	public Department insertDepartment(Department department) {
+		return write(() -> {
+			Map<String, Department> nos = departmentNos.computeIfAbsent(department.getCompany(), c -> new HashMap<>());
+			if (nos.containsKey(department.getDeptNo())) return null;
+
+			Department d = new Department(nextDepartmentId++, department.getCompany(), department.getDeptName(),
+					department.getDeptNo(), department.getLocation());
+			departments.put(d.getId(), d);
+			nos.put(d.getDeptNo(), d);
+			departmentIdsOf(d.getCompany()).add(d.getId());
+			return copy(d);
+		});
+	}
+
+	@Override
+	public Department updateDepartment(Department department) {
+		return write(() -> {
+			Department d = departments.get(department.getId());
+			if (d == null) return null;
+
+			// dept_no is unique per company
+			Map<String, Department> nos = departmentNos.get(d.getCompany());
+			Department owner = nos.get(department.getDeptNo());
+			if (owner != null && owner != d) return null;
+
+			nos.remove(d.getDeptNo());
+			d.setDeptName(department.getDeptName());
+			d.setDeptNo(department.getDeptNo());
+			d.setLocation(department.getLocation());
+			nos.put(d.getDeptNo(), d);
+			return copy(d);
+		});
+	}
+
+	@Override
+	public int deleteDepartment(String company, int departmentId) {
+		return write(() -> {
+			Department d = departments.get(departmentId);
+			if (d == null || !d.getCompany().equals(company)) return 0;
+
+			// Employees still reference the department
+			if (employeesByDepartment.get(departmentId) != null) return 0;
+
+			departments.remove(departmentId);
+			departmentNos.get(company).remove(d.getDeptNo());
+			departmentIdsOf(company).remove(departmentId);
+			return 1;
+		});
+	}
+
+	@Override
+	public int deleteDepartments(String company, int[] departmentIds) {
+		return write(() -> DataAccess.super.deleteDepartments(company, departmentIds));
+	}
+
+	@Override
+	public Employee insertEmployee(Employee employee) {
+		return write(() -> insert(employee));
+	}
+
+	@Override
+	public List<Employee> insertEmployees(List<Employee> employees) {
+		return write(() -> {
+			List<Employee> result = new ArrayList<>(employees.size());
+
+			for (Employee e : employees) {
+				result.add(insert(e));
+			}
+
+			return result;
+		});
+	}
+
+	/**
+	 * @return copy of the inserted employee, null if its department does not exist or its emp_no is taken, caller
+	 * must hold the write lock
+	 */
+	private Employee insert(Employee employee) {
+		if (departments.get(employee.getDeptId()) == null || employeeNos.containsKey(employee.getEmpNo())) {
+			return null;
+		}
+
+		Employee e = copy(employee);
+		e.setId(nextEmployeeId++);
+		employees.put(e.getId(), e);
+		employeeNos.put(e.getEmpNo(), e);
+		idsOf(companyOf(e)).add(e.getId());
+		count(e, 1);
+		return copy(e);
+	}
+
+	@Override
+	public List<Employee> getAllEmployee(String company) {
+		return read(() -> {
+			List<Employee> result = employeesOf(company);
+			result.replaceAll(InMemoryDataAccess::copy);
+			return result;
+		});
+	}
+
+	@Override
+	public Page<Employee> getEmployeePage(String company, int afterId, int limit) {
+		return read(() -> {
+			List<Employee> rows = new ArrayList<>(Math.min(limit, 1024));
+			NavigableSet<Integer> ids = employeeIds.get(company);
+			if (ids == null) return new Page<>(rows, false, 0);
+
+			for (int id : ids.tailSet(afterId, false)) {
+				if (rows.size() == limit) return new Page<>(rows, true, rows.get(limit - 1).getId());
+				rows.add(copy(employees.get(id)));
+			}
+
+			return new Page<>(rows, false, rows.isEmpty() ? 0 : rows.get(rows.size() - 1).getId());
+		});
+	}
+
+	@Override
+	public Employee getEmployee(int employeeId) {
+		return read(() -> {
+			Employee e = employees.get(employeeId);
+			return e == null ? null : copy(e);
+		});
+	}
+
+	@Override
+	public List<Employee> getEmployees(String company, int[] employeeIds) {
+		return read(() -> {
+			List<Employee> result = new ArrayList<>(employeeIds.length);
+
+			for (int id : employeeIds) {
+				Employee e = employees.get(id);
+				if (e != null && company.equals(companyOf(e))) result.add(copy(e));
+			}
+
+			return result;
+		});
+	}
+
+	@Override
+	public Employee updateEmployee(Employee employee) {
+		return write(() -> {
+			Employee e = employees.get(employee.getId());
+			if (e == null || departments.get(employee.getDeptId()) == null) return null;
+
+			Employee owner = employeeNos.get(employee.getEmpNo());
+			if (owner != null && owner != e) return null;
+
+			Employee updated = copy(employee);
+			employees.put(updated.getId(), updated);
+			employeeNos.remove(e.getEmpNo());
+			employeeNos.put(updated.getEmpNo(), updated);
+
+			// The new department may belong to another company
+			idsOf(companyOf(e)).remove(e.getId());
+			idsOf(companyOf(updated)).add(updated.getId());
+			count(e, -1);
+			count(updated, 1);
+			return copy(updated);
+		});
+	}
+
+	@Override
+	public int deleteEmployee(int employeeId) {
+		return write(() -> {
+			Employee e = employees.get(employeeId);
+			if (e == null) return 0;
+
+			// Timecards or other employees still reference the employee
+			List<Timecard> cards = timecardsByEmployee.get(employeeId);
+			if (cards != null && !cards.isEmpty()) return 0;
+
+			if (reportsByManager.get(employeeId) != null) return 0;
+
+			employees.remove(employeeId);
+			employeeNos.remove(e.getEmpNo());
+			idsOf(companyOf(e)).remove(employeeId);
+			count(e, -1);
+			timecardsByEmployee.remove(employeeId);
+			return 1;
+		});
+	}
+
+	@Override
+	public int deleteEmployees(int[] employeeIds) {
+		return write(() -> DataAccess.super.deleteEmployees(employeeIds));
+	}
+
+	@Override
+	public Timecard insertTimecard(Timecard timecard) {
+		return write(() -> insert(timecard));
+	}
+
+	@Override
+	public List<Timecard> insertTimecards(List<Timecard> timecards) {
+		return write(() -> {
+			List<Timecard> result = new ArrayList<>(timecards.size());
+
+			for (Timecard t : timecards) {
+				result.add(insert(t));
+			}
+
+			return result;
+		});
+	}
+
+	/**
+	 * @return copy of the inserted timecard, null if its employee does not exist, caller must hold the write lock
+	 */
+	private Timecard insert(Timecard timecard) {
+		if (employees.get(timecard.getEmpId()) == null) return null;
+
+		Timecard t = copy(timecard);
+		t.setId(nextTimecardId++);
+		timecards.put(t.getId(), t);
+
+		List<Timecard> cards = timecardsByEmployee.get(t.getEmpId());
+		if (cards == null) {
+			cards = new ArrayList<>();
+			timecardsByEmployee.put(t.getEmpId(), cards);
+		}
+		cards.add(t);
+
+		return copy(t);
+	}
+
+	@Override
+	public List<Timecard> getAllTimecard(int employeeId) {
+		return read(() -> {
+			List<Timecard> cards = timecardsByEmployee.get(employeeId);
+			List<Timecard> result = new ArrayList<>(cards == null ? 0 : cards.size());
+
+			if (cards != null) {
+				for (Timecard t : cards) result.add(copy(t));
+			}
+
+			return result;
+		});
+	}
+
+	@Override
+	public Page<Timecard> getTimecardPage(int employeeId, int afterId, int limit) {
+		return read(() -> {
+			List<Timecard> cards = timecardsByEmployee.get(employeeId);
+			if (cards == null) return new Page<>(new ArrayList<>(), false, 0);
+
+			// Timecards are appended as they are created, so the list is already in id order
+			Page<Timecard> page = Page.of(cards, Timecard::getId, afterId, limit);
+			List<Timecard> rows = new ArrayList<>(page.getRows().size());
+			for (Timecard t : page.getRows()) rows.add(copy(t));
+
+			return new Page<>(rows, page.hasMore(), page.getLastId());
+		});
+	}
+
+	@Override
+	public Timecard getTimecard(int timecardId) {
+		return read(() -> {
+			Timecard t = timecards.get(timecardId);
+			return t == null ? null : copy(t);
+		});
+	}
+
+	@Override
+	public List<Timecard> getTimecards(int[] timecardIds) {
+		return read(() -> {
+			List<Timecard> result = new ArrayList<>(timecardIds.length);
+
+			for (int id : timecardIds) {
+				Timecard t = timecards.get(id);
+				if (t != null) result.add(copy(t));
+			}
+
+			return result;
+		});
+	}
+
+	@Override
+	public Timecard updateTimecard(Timecard timecard) {
+		return write(() -> {
+			Timecard t = timecards.get(timecard.getId());
+			if (t == null) return null;
+
+			// Only the times can change, like the UPDATE issued by DataLayer
+			t.setStartTime(copy(timecard.getStartTime()));
+			t.setEndTime(copy(timecard.getEndTime()));
+			return copy(t);
+		});
+	}
+
+	@Override
+	public int deleteTimecard(int timecardId) {
+		return write(() -> {
+			Timecard t = timecards.remove(timecardId);
+			if (t == null) return 0;
+
+			timecardsByEmployee.get(t.getEmpId()).remove(t);
+			return 1;
+		});
+	}
+
+	@Override
+	public int deleteTimecards(int[] timecardIds) {
+		return write(() -> DataAccess.super.deleteTimecards(timecardIds));
+	}
+
+	@Override
+	public void close() {
+	}
+
+	/**
+	 * Removes every row and restarts the generated ids
+	 */
+	public void clear() {
+		write(() -> {
+			departments.clear();
+			employees.clear();
+			timecards.clear();
+			timecardsByEmployee.clear();
+			departmentNos.clear();
+			employeeNos.clear();
+			employeeIds.clear();
+			departmentIds.clear();
+			employeesByDepartment.clear();
+			reportsByManager.clear();
+			nextDepartmentId = 1;
+			nextEmployeeId = 1;
+			nextTimecardId = 1;
+			return null;
+		});
+	}
+
+	/**
+	 * @return stored departments of the company ordered by id, caller must hold the lock
+	 */
+	private List<Department> departmentsOf(String company) {
+		NavigableSet<Integer> ids = departmentIds.get(company);
+		List<Department> result = new ArrayList<>(ids == null ? 0 : ids.size());
+
+		if (ids != null) {
+			for (int id : ids) result.add(departments.get(id));
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return stored employees whose department belongs to the company ordered by id, caller must hold the lock
+	 */
+	private List<Employee> employeesOf(String company) {
+		NavigableSet<Integer> ids = employeeIds.get(company);
+		List<Employee> result = new ArrayList<>(ids == null ? 0 : ids.size());
+
+		if (ids != null) {
+			for (int id : ids) result.add(employees.get(id));
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return company of the employee's department, caller must hold the lock
+	 */
+	private String companyOf(Employee e) {
+		Department d = departments.get(e.getDeptId());
+		return d == null ? null : d.getCompany();
+	}
+
+	/**
+	 * @return sorted employee ids of the company, created on first use, caller must hold the write lock
+	 */
+	private NavigableSet<Integer> idsOf(String company) {
+		return employeeIds.computeIfAbsent(company, c -> new TreeSet<>());
+	}
+
+	/**
+	 * @return sorted department ids of the company, created on first use, caller must hold the write lock
+	 */
+	private NavigableSet<Integer> departmentIdsOf(String company) {
+		return departmentIds.computeIfAbsent(company, c -> new TreeSet<>());
+	}
+
+	/**
+	 * Adds an employee to or takes it off the count of its department and of its manager's reports. An employee
+	 * that is its own manager does not count as a report. Caller must hold the write lock.
+	 *
+	 * @param e     stored employee
+	 * @param delta 1 when the employee is stored, -1 when it is removed
+	 */
+	private void count(Employee e, int delta) {
+		count(employeesByDepartment, e.getDeptId(), delta);
+
+		if (e.getMngId() != 0 && e.getMngId() != e.getId()) {
+			count(reportsByManager, e.getMngId(), delta);
+		}
+	}
+
+	/**
+	 * Changes a count, a count of zero is not kept
+	 */
+	private static void count(IntObjectMap<Integer> counts, int id, int delta) {
+		Integer count = counts.get(id);
+		int updated = (count == null ? 0 : count) + delta;
+
+		if (updated == 0) counts.remove(id); else counts.put(id, updated);
+	}
+
+	private <T> T read(Supplier<T> action) {
+		lock.readLock().lock();
+
+		try {
+			return action.get();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private <T> T write(Supplier<T> action) {
+		lock.writeLock().lock();
+
+		try {
+			return action.get();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private static Department copy(Department d) {
+		return new Department(d.getId(), d.getCompany(), d.getDeptName(), d.getDeptNo(), d.getLocation());
+	}
+
+	private static Employee copy(Employee e) {
+		Date hireDate = e.getHireDate() == null ? null : (Date) e.getHireDate().clone();
+		return new Employee(e.getId(), e.getEmpName(), e.getEmpNo(), hireDate, e.getJob(), e.getSalary(), e.getDeptId(),
+				e.getMngId());
+	}
+
+	private static Timecard copy(Timecard t) {
+		return new Timecard(t.getId(), copy(t.getStartTime()), copy(t.getEndTime()), t.getEmpId());
+	}
+
+	private static Timestamp copy(Timestamp t) {
+		return t == null ? null : (Timestamp) t.clone();
+	}
+}
@@ -0,0 +1,157 @@
+package api.data;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Open addressing hash map keyed by a primitive int, so lookups by id neither box the key nor allocate an entry.
+ *
+ * Not thread-safe, callers guard it with their own lock. Null values are not supported.
+ */
+final class IntObjectMap<V> {
+	private static final float LOAD_FACTOR = 0.6f;
+
+	private int[] keys;
+	private Object[] values;
+	private int size;
+	private int threshold;
+
+	IntObjectMap() {
+		this(16);
+	}
+
+	IntObjectMap(int expected) {
+		int capacity = Integer.highestOneBit(Math.max(4, (int) (expected / LOAD_FACTOR)) - 1) << 1;
+		allocate(capacity);
+	}
+
+	/**
+	 * @param key key
+	 * @return value mapped to the key, null when absent
+	 */
+	@SuppressWarnings("unchecked")
+	V get(int key) {
+		int mask = keys.length - 1;
+
+		for (int i = mix(key) & mask; values[i] != null; i = (i + 1) & mask) {
+			if (keys[i] == key) return (V) values[i];
+		}
+
+		return null;
+	}
+
+	/**
+	 * @param key key
+	 * @param value value, not null
+	 * @return previous value mapped to the key, null when absent
+	 */
+	@SuppressWarnings("unchecked")
+	V put(int key, V value) {
+		int mask = keys.length - 1;
+		int i = mix(key) & mask;
+
+		for (; values[i] != null; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				V previous = (V) values[i];
+				values[i] = value;
+				return previous;
+			}
+		}
+
+		keys[i] = key;
+		values[i] = value;
+
+		if (++size > threshold) rehash(keys.length << 1);
+		return null;
+	}
+
+	/**
+	 * @param key key
+	 * @return removed value, null when absent
+	 */
+	@SuppressWarnings("unchecked")
+	V remove(int key) {
+		int mask = keys.length - 1;
+
+		for (int i = mix(key) & mask; values[i] != null; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				V previous = (V) values[i];
+				shiftBack(i, mask);
+				size--;
+				return previous;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return number of mappings
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @param action called with every value, in no particular order
+	 */
+	@SuppressWarnings("unchecked")
+	void forEachValue(Consumer<? super V> action) {
+		for (Object value : values) {
+			if (value != null) action.accept((V) value);
+		}
+	}
+
+	/**
+	 * Removes every mapping
+	 */
+	void clear() {
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	/**
+	 * Closes the gap left at a removed slot by moving back entries whose probe chain crosses it
+	 */
+	private void shiftBack(int gap, int mask) {
+		for (int i = (gap + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+			int home = mix(keys[i]) & mask;
+
+			// Entry may fill the gap only if its home slot is not cyclically within (gap, i]
+			if (((i - home) & mask) >= ((i - gap) & mask)) {
+				keys[gap] = keys[i];
+				values[gap] = values[i];
+				gap = i;
+			}
+		}
+
+		values[gap] = null;
+	}
+
+	private void rehash(int capacity) {
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(capacity);
+
+		int mask = capacity - 1;
+		for (int j = 0; j < oldValues.length; j++) {
+			if (oldValues[j] == null) continue;
+
+			int i = mix(oldKeys[j]) & mask;
+			while (values[i] != null) i = (i + 1) & mask;
+			keys[i] = oldKeys[j];
+			values[i] = oldValues[j];
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new Object[capacity];
+		threshold = (int) (capacity * LOAD_FACTOR);
+	}
+
+	private static int mix(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
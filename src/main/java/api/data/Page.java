@@ -0,0 +1,89 @@
+package api.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Rows with ids greater than a given id, in id order, and whether more rows follow them
+ *
+ * @param <T> type of the rows
+ */
+public final class Page<T> {
+	private final List<T> rows;
+	private final boolean more;
+	private final int lastId;
+
+	/**
+	 * @param rows   rows of the page ordered by id
+	 * @param more   whether rows with greater ids exist
+	 * @param lastId id of the last row, 0 if the page is empty
+	 */
+	public Page(List<T> rows, boolean more, int lastId) {
+		this.rows = Collections.unmodifiableList(rows);
+		this.more = more;
+		this.lastId = lastId;
+	}
+
+	/**
+	 * Cuts a page out of a list already ordered by id, without copying the rows
+	 *
+	 * @param sorted  rows ordered by id
+	 * @param id      id of a row
+	 * @param afterId rows with this id or lower are skipped
+	 * @param limit   maximum number of rows
+	 * @return page of at most limit rows
+	 */
+	public static <T> Page<T> of(List<T> sorted, ToIntFunction<T> id, int afterId, int limit) {
+		// First row with an id greater than afterId
+		int low = 0;
+		int high = sorted.size();
+
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (id.applyAsInt(sorted.get(mid)) <= afterId) low = mid + 1; else high = mid;
+		}
+
+		int end = (int) Math.min(sorted.size(), (long) low + limit);
+		List<T> rows = sorted.subList(low, end);
+		return new Page<>(rows, end < sorted.size(), rows.isEmpty() ? 0 : id.applyAsInt(rows.get(rows.size() - 1)));
+	}
+
+	/**
+	 * Cuts a page out of a list in any order
+	 *
+	 * @param rows    rows in any order
+	 * @param id      id of a row
+	 * @param afterId rows with this id or lower are skipped
+	 * @param limit   maximum number of rows
+	 * @return page of at most limit rows
+	 */
+	public static <T> Page<T> sorted(List<T> rows, ToIntFunction<T> id, int afterId, int limit) {
+		List<T> sorted = new ArrayList<>(rows);
+		sorted.sort(Comparator.comparingInt(id));
+		return of(sorted, id, afterId, limit);
+	}
+
+	/**
+	 * @return rows ordered by id
+	 */
+	public List<T> getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return whether rows with greater ids exist
+	 */
+	public boolean hasMore() {
+		return more;
+	}
+
+	/**
+	 * @return id of the last row, where the next page starts after
+	 */
+	public int getLastId() {
+		return lastId;
+	}
+}
@@ -0,0 +1,13 @@
+package api.data;
+
+/**
+ * Thrown when no DataLayer could be borrowed from the pool within the borrow timeout, or when the concurrent lookups
+ * of a request did not finish by their deadline
+ */
+public class PoolTimeoutException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public PoolTimeoutException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,286 @@
+package api.data;
+
+import companydata.DataLayer;
+import companydata.Department;
+import companydata.Employee;
+import companydata.Timecard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * DataAccess backed by MySQL that borrows a pooled DataLayer handle for the duration of every call.
+ *
+ * Unlike a plain DataLayer this class is safe to share between threads, so the business layer can hold a single
+ * instance instead of constructing a new DataLayer per request.
+ */
+public class PooledDataLayer implements DataAccess {
+	private static final int SCAN_THRESHOLD = 32;
+	private static final PooledDataLayer INSTANCE = new PooledDataLayer(DataLayerPool.getInstance());
+
+	private final DataLayerPool pool;
+
+	public PooledDataLayer(DataLayerPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * @return shared instance backed by the default pool
+	 */
+	public static PooledDataLayer getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return pool the handles are borrowed from
+	 */
+	public DataLayerPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Runs a call against a borrowed handle and always hands it back
+	 *
+	 * @param call DataLayer call
+	 * @return result of the call
+	 */
+	private <T> T withHandle(Function<DataLayer, T> call) {
+		DataLayer dl = pool.borrow();
+
+		try {
+			return call.apply(dl);
+		} finally {
+			pool.release(dl);
+		}
+	}
+
+	@Override
+	public int deleteCompany(String company) {
+		return withHandle(dl -> dl.deleteCompany(company));
+	}
+
+	@Override
+	public List<Department> getAllDepartment(String company) {
+		return withHandle(dl -> dl.getAllDepartment(company));
+	}
+
+	@Override
+	public Department getDepartment(String company, int departmentId) {
+		return withHandle(dl -> dl.getDepartment(company, departmentId));
+	}
+
+	@Override
+	public Department getDepartmentNo(String company, String departmentNo) {
+		return withHandle(dl -> dl.getDepartmentNo(company, departmentNo));
+	}
+
+	@Override
+	public Department insertDepartment(Department department) {
+		return withHandle(dl -> dl.insertDepartment(department));
+	}
+
+	@Override
+	public Department updateDepartment(Department department) {
+		return withHandle(dl -> dl.updateDepartment(department));
+	}
+
+	@Override
+	public int deleteDepartment(String company, int departmentId) {
+		return withHandle(dl -> dl.deleteDepartment(company, departmentId));
+	}
+
+	/**
+	 * Deletes the departments on a single handle
+	 */
+	@Override
+	public int deleteDepartments(String company, int[] departmentIds) {
+		return withHandle(dl -> {
+			int affected = 0;
+
+			for (int id : departmentIds) {
+				affected += dl.deleteDepartment(company, id);
+			}
+
+			return affected;
+		});
+	}
+
+	@Override
+	public Employee insertEmployee(Employee employee) {
+		return withHandle(dl -> dl.insertEmployee(employee));
+	}
+
+	/**
+	 * Inserts the employees on a single handle
+	 */
+	@Override
+	public List<Employee> insertEmployees(List<Employee> employees) {
+		return withHandle(dl -> {
+			List<Employee> result = new ArrayList<>(employees.size());
+
+			for (Employee e : employees) {
+				result.add(dl.insertEmployee(e));
+			}
+
+			return result;
+		});
+	}
+
+	@Override
+	public List<Employee> getAllEmployee(String company) {
+		return withHandle(dl -> dl.getAllEmployee(company));
+	}
+
+	@Override
+	public Employee getEmployee(int employeeId) {
+		return withHandle(dl -> dl.getEmployee(employeeId));
+	}
+
+	/**
+	 * Looks the employees up on a single handle, checking each distinct department once to keep only employees of
+	 * the company. For long id lists one getAllEmployee query is cheaper than a query per id, so those are filtered
+	 * out of the whole company instead.
+	 */
+	@Override
+	public List<Employee> getEmployees(String company, int[] employeeIds) {
+		if (employeeIds.length >= SCAN_THRESHOLD) {
+			int[] sorted = employeeIds.clone();
+			Arrays.sort(sorted);
+
+			List<Employee> result = new ArrayList<>(employeeIds.length);
+			for (Employee e : getAllEmployee(company)) {
+				if (Arrays.binarySearch(sorted, e.getId()) >= 0) result.add(e);
+			}
+
+			return result;
+		}
+
+		return withHandle(dl -> {
+			List<Employee> result = new ArrayList<>(employeeIds.length);
+			Map<Integer, Boolean> ownDepartments = new HashMap<>();
+
+			for (int id : employeeIds) {
+				Employee e = dl.getEmployee(id);
+
+				// Same rows as the getAllEmployee path, only employees of the company
+				if (e != null && ownDepartments.computeIfAbsent(e.getDeptId(),
+						d -> dl.getDepartment(company, d) != null)) {
+					result.add(e);
+				}
+			}
+
+			return result;
+		});
+	}
+
+	@Override
+	public Employee updateEmployee(Employee employee) {
+		return withHandle(dl -> dl.updateEmployee(employee));
+	}
+
+	@Override
+	public int deleteEmployee(int employeeId) {
+		return withHandle(dl -> dl.deleteEmployee(employeeId));
+	}
+
+	/**
+	 * Deletes the employees on a single handle
+	 */
+	@Override
+	public int deleteEmployees(int[] employeeIds) {
+		return withHandle(dl -> {
+			int affected = 0;
+
+			for (int id : employeeIds) {
+				affected += dl.deleteEmployee(id);
+			}
+
+			return affected;
+		});
+	}
+
+	@Override
+	public Timecard insertTimecard(Timecard timecard) {
+		return withHandle(dl -> dl.insertTimecard(timecard));
+	}
+
+	/**
+	 * Inserts the timecards on a single handle
+	 */
+	@Override
+	public List<Timecard> insertTimecards(List<Timecard> timecards) {
+		return withHandle(dl -> {
+			List<Timecard> result = new ArrayList<>(timecards.size());
+
+			for (Timecard t : timecards) {
+				result.add(dl.insertTimecard(t));
+			}
+
+			return result;
+		});
+	}
+
+	@Override
+	public List<Timecard> getAllTimecard(int employeeId) {
+		return withHandle(dl -> dl.getAllTimecard(employeeId));
+	}
+
+	@Override
+	public Timecard getTimecard(int timecardId) {
+		return withHandle(dl -> dl.getTimecard(timecardId));
+	}
+
+	/**
+	 * Looks the timecards up on a single handle
+	 */
+	@Override
+	public List<Timecard> getTimecards(int[] timecardIds) {
+		return withHandle(dl -> {
+			List<Timecard> result = new ArrayList<>(timecardIds.length);
+
+			for (int id : timecardIds) {
+				Timecard t = dl.getTimecard(id);
+				if (t != null) result.add(t);
+			}
+
+			return result;
+		});
+	}
+
+	@Override
+	public Timecard updateTimecard(Timecard timecard) {
+		return withHandle(dl -> dl.updateTimecard(timecard));
+	}
+
+	@Override
+	public int deleteTimecard(int timecardId) {
+		return withHandle(dl -> dl.deleteTimecard(timecardId));
+	}
+
+	/**
+	 * Deletes the timecards on a single handle
+	 */
+	@Override
+	public int deleteTimecards(int[] timecardIds) {
+		return withHandle(dl -> {
+			int affected = 0;
+
+			for (int id : timecardIds) {
+				affected += dl.deleteTimecard(id);
+			}
+
+			return affected;
+		});
+	}
+
+	/**
+	 * Handles are closed by the pool, closing the shared facade is a no-op
+	 */
+	@Override
+	public void close() {
+	}
+}
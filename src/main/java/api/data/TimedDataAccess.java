@@ -0,0 +1,203 @@
+package api.data;
+
+import api.metrics.CallTrace;
+import api.metrics.Metrics;
+import api.metrics.Timer;
+import companydata.Department;
+import companydata.Employee;
+import companydata.Timecard;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * DataAccess that records the duration of every call of the DataAccess it wraps in Metrics.DATA_ACCESS, and in the
+ * CallTrace of the request when there is one
+ */
+public class TimedDataAccess implements DataAccess {
+	private final DataAccess delegate;
+
+	public TimedDataAccess(DataAccess delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * @return wrapped DataAccess
+	 */
+	public DataAccess getDelegate() {
+		return delegate;
+	}
+
+	/**
+	 * Runs a call and records its duration and row count under the operation name
+	 *
+	 * @param operation DataAccess method name
+	 * @param call      call to the wrapped DataAccess
+	 * @return result of the call
+	 */
+	private static <T> T time(String operation, Supplier<T> call) {
+		Timer timer = Metrics.DATA_ACCESS.get(operation);
+		long start = System.nanoTime();
+		boolean failed = true;
+		long rows = 0;
+
+		try {
+			T result = call.get();
+			failed = false;
+			rows = rowsOf(result);
+			return result;
+		} finally {
+			long duration = System.nanoTime() - start;
+			timer.record(duration, failed);
+
+			CallTrace trace = CallTrace.current();
+			if (trace != null) trace.record(operation, start, duration, rows);
+		}
+	}
+
+	/**
+	 * @param result result of a DataAccess call
+	 * @return rows the call returned or affected
+	 */
+	private static long rowsOf(Object result) {
+		if (result instanceof List) return ((List<?>) result).size();
+		if (result instanceof Page) return ((Page<?>) result).getRows().size();
+		if (result instanceof Integer) return (Integer) result;
+		return result == null ? 0 : 1;
+	}
+
+	@Override
+	public int deleteCompany(String company) {
+		return time("deleteCompany", () -> delegate.deleteCompany(company));
+	}
+
+	@Override
+	public List<Department> getAllDepartment(String company) {
+		return time("getAllDepartment", () -> delegate.getAllDepartment(company));
+	}
+
+	@Override
+	public Department getDepartment(String company, int departmentId) {
+		return time("getDepartment", () -> delegate.getDepartment(company, departmentId));
+	}
+
+	@Override
+	public Department getDepartmentNo(String company, String departmentNo) {
+		return time("getDepartmentNo", () -> delegate.getDepartmentNo(company, departmentNo));
+	}
+
+	@Override
+	public Department insertDepartment(Department department) {
+		return time("insertDepartment", () -> delegate.insertDepartment(department));
+	}
+
+	@Override
+	public Department updateDepartment(Department department) {
+		return time("updateDepartment", () -> delegate.updateDepartment(department));
+	}
+
+	@Override
+	public int deleteDepartment(String company, int departmentId) {
+		return time("deleteDepartment", () -> delegate.deleteDepartment(company, departmentId));
+	}
+
+	@Override
+	public int deleteDepartments(String company, int[] departmentIds) {
+		return time("deleteDepartments", () -> delegate.deleteDepartments(company, departmentIds));
+	}
+
+	@Override
+	public Employee insertEmployee(Employee employee) {
+		return time("insertEmployee", () -> delegate.insertEmployee(employee));
+	}
+
+	@Override
+	public List<Employee> insertEmployees(List<Employee> employees) {
+		return time("insertEmployees", () -> delegate.insertEmployees(employees));
+	}
+
+	@Override
+	public List<Employee> getAllEmployee(String company) {
+		return time("getAllEmployee", () -> delegate.getAllEmployee(company));
+	}
+
+	@Override
+	public Page<Employee> getEmployeePage(String company, int afterId, int limit) {
+		return time("getEmployeePage", () -> delegate.getEmployeePage(company, afterId, limit));
+	}
+
+	@Override
+	public Employee getEmployee(int employeeId) {
+		return time("getEmployee", () -> delegate.getEmployee(employeeId));
+	}
+
+	@Override
+	public List<Employee> getEmployees(String company, int[] employeeIds) {
+		return time("getEmployees", () -> delegate.getEmployees(company, employeeIds));
+	}
+
+	@Override
+	public Employee updateEmployee(Employee employee) {
+		return time("updateEmployee", () -> delegate.updateEmployee(employee));
+	}
+
+	@Override
+	public int deleteEmployee(int employeeId) {
+		return time("deleteEmployee", () -> delegate.deleteEmployee(employeeId));
+	}
+
+	@Override
+	public int deleteEmployees(int[] employeeIds) {
+		return time("deleteEmployees", () -> delegate.deleteEmployees(employeeIds));
+	}
+
+	@Override
+	public Timecard insertTimecard(Timecard timecard) {
+		return time("insertTimecard", () -> delegate.insertTimecard(timecard));
+	}
+
+	@Override
+	public List<Timecard> insertTimecards(List<Timecard> timecards) {
+		return time("insertTimecards", () -> delegate.insertTimecards(timecards));
+	}
+
+	@Override
+	public List<Timecard> getAllTimecard(int employeeId) {
+		return time("getAllTimecard", () -> delegate.getAllTimecard(employeeId));
+	}
+
+	@Override
+	public Page<Timecard> getTimecardPage(int employeeId, int afterId, int limit) {
+		return time("getTimecardPage", () -> delegate.getTimecardPage(employeeId, afterId, limit));
+	}
+
+	@Override
+	public Timecard getTimecard(int timecardId) {
+		return time("getTimecard", () -> delegate.getTimecard(timecardId));
+	}
+
+	@Override
+	public List<Timecard> getTimecards(int[] timecardIds) {
+		return time("getTimecards", () -> delegate.getTimecards(timecardIds));
+	}
+
+	@Override
+	public Timecard updateTimecard(Timecard timecard) {
+		return time("updateTimecard", () -> delegate.updateTimecard(timecard));
+	}
+
+	@Override
+	public int deleteTimecard(int timecardId) {
+		return time("deleteTimecard", () -> delegate.deleteTimecard(timecardId));
+	}
+
+	@Override
+	public int deleteTimecards(int[] timecardIds) {
+		return time("deleteTimecards", () -> delegate.deleteTimecards(timecardIds));
+	}
+
+	@Override
+	public void close() {
+		delegate.close();
+	}
+}
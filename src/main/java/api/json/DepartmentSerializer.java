@@ -0,0 +1,35 @@
+package api.json;
+
+import companydata.Department;
+
+import java.util.Arrays;
+
+/**
+ * Writes a Department in the layout of Constants.DEPARTMENT_TEMPLATE
+ */
+public final class DepartmentSerializer implements EntitySerializer<Department> {
+	public static final DepartmentSerializer INSTANCE = new DepartmentSerializer();
+
+	/**
+	 * Fields a fields= parameter can select
+	 */
+	public static final FieldSet<Department> FIELDS = new FieldSet<>(Arrays.asList(
+			new Field<>("dept_id", (out, d) -> out.number(d.getId())),
+			new Field<>("company", (out, d) -> out.string(d.getCompany())),
+			new Field<>("dept_name", (out, d) -> out.string(d.getDeptName())),
+			new Field<>("dept_no", (out, d) -> out.string(d.getDeptNo())),
+			new Field<>("location", (out, d) -> out.string(d.getLocation()))));
+
+	private DepartmentSerializer() {
+	}
+
+	@Override
+	public void write(JsonBuffer out, Department d) {
+		out.raw("{\"dept_id\": ").number(d.getId())
+				.raw(", \"company\": ").string(d.getCompany())
+				.raw(", \"dept_name\": ").string(d.getDeptName())
+				.raw(", \"dept_no\": ").string(d.getDeptNo())
+				.raw(", \"location\": ").string(d.getLocation())
+				.raw('}');
+	}
+}
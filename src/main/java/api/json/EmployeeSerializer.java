@@ -0,0 +1,41 @@
+package api.json;
+
+import companydata.Employee;
+
+import java.util.Arrays;
+
+/**
+ * Writes an Employee in the layout of Constants.EMPLOYEE_TEMPLATE
+ */
+public final class EmployeeSerializer implements EntitySerializer<Employee> {
+	public static final EmployeeSerializer INSTANCE = new EmployeeSerializer();
+
+	/**
+	 * Fields a fields= parameter can select
+	 */
+	public static final FieldSet<Employee> FIELDS = new FieldSet<>(Arrays.asList(
+			new Field<>("emp_id", (out, e) -> out.number(e.getId())),
+			new Field<>("emp_name", (out, e) -> out.string(e.getEmpName())),
+			new Field<>("emp_no", (out, e) -> out.string(e.getEmpNo())),
+			new Field<>("hire_date", (out, e) -> out.raw('"').date(e.getHireDate()).raw('"')),
+			new Field<>("job", (out, e) -> out.string(e.getJob())),
+			new Field<>("salary", (out, e) -> out.fixed2(e.getSalary())),
+			new Field<>("dept_id", (out, e) -> out.number(e.getDeptId())),
+			new Field<>("mng_id", (out, e) -> out.number(e.getMngId()))));
+
+	private EmployeeSerializer() {
+	}
+
+	@Override
+	public void write(JsonBuffer out, Employee e) {
+		out.raw("{\"emp_id\": ").number(e.getId())
+				.raw(", \"emp_name\": ").string(e.getEmpName())
+				.raw(", \"emp_no\": ").string(e.getEmpNo())
+				.raw(", \"hire_date\": \"").date(e.getHireDate()).raw('"')
+				.raw(", \"job\": ").string(e.getJob())
+				.raw(", \"salary\": ").fixed2(e.getSalary())
+				.raw(", \"dept_id\": ").number(e.getDeptId())
+				.raw(", \"mng_id\": ").number(e.getMngId())
+				.raw(" }");
+	}
+}
@@ -0,0 +1,38 @@
+package api.json;
+
+/**
+ * Writes one entity as JSON
+ *
+ * @param <T> type of the entity
+ */
+public interface EntitySerializer<T> {
+	/**
+	 * @param out    buffer to write into
+	 * @param entity entity to write
+	 */
+	void write(JsonBuffer out, T entity);
+
+	/**
+	 * @param entity entity to write
+	 * @return JSON of the entity
+	 */
+	default String toJson(T entity) {
+		JsonBuffer out = JsonBuffer.acquire();
+		write(out, entity);
+		return out.toString();
+	}
+
+	/**
+	 * @param prefix raw JSON written before the entity
+	 * @param entity entity to write
+	 * @param suffix raw JSON written after the entity
+	 * @return JSON of the entity wrapped in prefix and suffix
+	 */
+	default String toJson(String prefix, T entity, String suffix) {
+		JsonBuffer out = JsonBuffer.acquire();
+		out.raw(prefix);
+		write(out, entity);
+		out.raw(suffix);
+		return out.toString();
+	}
+}
@@ -0,0 +1,39 @@
+package api.json;
+
+import java.util.function.BiConsumer;
+
+/**
+ * One JSON field of an entity: its name and how to write its value
+ *
+ * @param <T> type of the entity
+ */
+public final class Field<T> {
+	private final String name;
+	private final String key;
+	private final BiConsumer<JsonBuffer, T> value;
+
+	/**
+	 * @param name  field name, e.g. emp_id
+	 * @param value writes the value of the field
+	 */
+	public Field(String name, BiConsumer<JsonBuffer, T> value) {
+		this.name = name;
+		this.key = "\"" + name + "\": ";
+		this.value = value;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Writes "name": value
+	 *
+	 * @param out    buffer to write into
+	 * @param entity entity the value is taken from
+	 */
+	void write(JsonBuffer out, T entity) {
+		out.raw(key);
+		value.accept(out, entity);
+	}
+}
@@ -0,0 +1,99 @@
+package api.json;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fields of an entity that a fields= parameter can select from.
+ *
+ * A selection is a bit per field, so the serializer of every selection is built once and reused.
+ *
+ * @param <T> type of the entity
+ */
+public final class FieldSet<T> {
+	private final Field<T>[] fields;
+	private final AtomicReferenceArray<EntitySerializer<T>> projections;
+
+	public FieldSet(List<Field<T>> fields) {
+		if (fields.size() > 16) throw new IllegalArgumentException("Too many fields to project");
+
+		this.fields = fields.toArray(newArray(fields.size()));
+		this.projections = new AtomicReferenceArray<>(1 << fields.size());
+	}
+
+	/**
+	 * @param spec comma separated field names, null or empty for every field
+	 * @param all  serializer writing every field
+	 * @return serializer writing the selected fields in their usual order, null if a name is unknown
+	 */
+	public EntitySerializer<T> select(String spec, EntitySerializer<T> all) {
+		if (spec == null || spec.trim().isEmpty()) return all;
+
+		int mask = 0;
+		for (String name : spec.split(",")) {
+			name = name.trim();
+			if (name.isEmpty()) continue;
+
+			int index = indexOf(name);
+			if (index < 0) return null;
+			mask |= 1 << index;
+		}
+
+		if (mask == 0) return all;
+
+		EntitySerializer<T> projection = projections.get(mask);
+		if (projection == null) {
+			projection = new Projection<>(selected(mask));
+			projections.compareAndSet(mask, null, projection);
+		}
+
+		return projection;
+	}
+
+	private int indexOf(String name) {
+		for (int i = 0; i < fields.length; i++) {
+			if (fields[i].getName().equals(name)) return i;
+		}
+
+		return -1;
+	}
+
+	private Field<T>[] selected(int mask) {
+		Field<T>[] result = newArray(Integer.bitCount(mask));
+		int n = 0;
+
+		for (int i = 0; i < fields.length; i++) {
+			if ((mask & (1 << i)) != 0) result[n++] = fields[i];
+		}
+
+		return result;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static <T> Field<T>[] newArray(int length) {
+		return new Field[length];
+	}
+
+	/**
+	 * Writes only the selected fields, the others are never read or formatted
+	 */
+	private static final class Projection<T> implements EntitySerializer<T> {
+		private final Field<T>[] fields;
+
+		private Projection(Field<T>[] fields) {
+			this.fields = fields;
+		}
+
+		@Override
+		public void write(JsonBuffer out, T entity) {
+			out.raw('{');
+
+			for (int i = 0; i < fields.length; i++) {
+				if (i > 0) out.raw(", ");
+				fields[i].write(out, entity);
+			}
+
+			out.raw('}');
+		}
+	}
+}
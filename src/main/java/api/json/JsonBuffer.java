@@ -0,0 +1,337 @@
+package api.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Growable character buffer that entity JSON is written into.
+ *
+ * Numbers and dates are written digit by digit and strings are escaped on the way in, so no format string is parsed
+ * and no intermediate strings are built per field.
+ */
+public final class JsonBuffer {
+	private static final int INITIAL_CAPACITY = 512;
+	private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private static final ThreadLocal<JsonBuffer> LOCAL = ThreadLocal.withInitial(() -> new JsonBuffer(INITIAL_CAPACITY));
+
+	private char[] chars;
+	private int length;
+
+	public JsonBuffer(int capacity) {
+		this.chars = new char[capacity];
+	}
+
+	/**
+	 * Hands out the calling thread's buffer, emptied. The buffer is shared by everything running on the thread, so
+	 * it must not be held on to across calls that may acquire it again.
+	 *
+	 * @return empty buffer
+	 */
+	public static JsonBuffer acquire() {
+		JsonBuffer buffer = LOCAL.get();
+
+		// Don't keep a buffer that a single huge payload blew up
+		if (buffer.chars.length > MAX_RETAINED_CAPACITY) {
+			buffer = new JsonBuffer(INITIAL_CAPACITY);
+			LOCAL.set(buffer);
+		}
+
+		buffer.length = 0;
+		return buffer;
+	}
+
+	/**
+	 * @return number of buffered characters
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Empties the buffer, keeping its capacity
+	 */
+	public void reset() {
+		length = 0;
+	}
+
+	/**
+	 * Appends characters as they are, for the JSON structure around the values
+	 *
+	 * @param s raw characters
+	 * @return this buffer
+	 */
+	public JsonBuffer raw(String s) {
+		int n = s.length();
+		ensure(n);
+		s.getChars(0, n, chars, length);
+		length += n;
+		return this;
+	}
+
+	/**
+	 * @param c raw character
+	 * @return this buffer
+	 */
+	public JsonBuffer raw(char c) {
+		ensure(1);
+		chars[length++] = c;
+		return this;
+	}
+
+	/**
+	 * Appends a quoted, escaped string. null is written as "null" like the templates did.
+	 *
+	 * @param s string value
+	 * @return this buffer
+	 */
+	public JsonBuffer string(String s) {
+		if (s == null) s = "null";
+
+		int n = s.length();
+		ensure(n + 2);
+		chars[length++] = '"';
+
+		for (int i = 0; i < n; i++) {
+			char c = s.charAt(i);
+
+			if (c == '"' || c == '\\') {
+				ensure(2);
+				chars[length++] = '\\';
+				chars[length++] = c;
+			} else if (c < 0x20) {
+				escapeControl(c);
+			} else {
+				ensure(1);
+				chars[length++] = c;
+			}
+		}
+
+		ensure(1);
+		chars[length++] = '"';
+		return this;
+	}
+
+	private void escapeControl(char c) {
+		ensure(6);
+		chars[length++] = '\\';
+
+		switch (c) {
+			case '\n':
+				chars[length++] = 'n';
+				break;
+			case '\r':
+				chars[length++] = 'r';
+				break;
+			case '\t':
+				chars[length++] = 't';
+				break;
+			case '\b':
+				chars[length++] = 'b';
+				break;
+			case '\f':
+				chars[length++] = 'f';
+				break;
+			default:
+				chars[length++] = 'u';
+				chars[length++] = '0';
+				chars[length++] = '0';
+				chars[length++] = HEX[c >> 4];
+				chars[length++] = HEX[c & 0xF];
+		}
+	}
+
+	/**
+	 * @param value int value
+	 * @return this buffer
+	 */
+	public JsonBuffer number(int value) {
+		if (value == Integer.MIN_VALUE) return raw(Integer.toString(value));
+
+		ensure(11);
+
+		if (value < 0) {
+			chars[length++] = '-';
+			value = -value;
+		}
+
+		int digits = digits(value);
+		int end = length + digits;
+
+		for (int i = end - 1; i >= length; i--) {
+			chars[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+
+		length = end;
+		return this;
+	}
+
+	/**
+	 * Appends a number with exactly two decimals, rounded half up like %.2f. null is written as null.
+	 *
+	 * @param value double value
+	 * @return this buffer
+	 */
+	public JsonBuffer fixed2(Double value) {
+		if (value == null) return raw("null");
+
+		double d = value;
+		if (Double.isNaN(d) || Double.isInfinite(d)) return raw(Double.toString(d));
+
+		String s = Double.toString(Math.abs(d));
+
+		// Large and tiny values come back in scientific notation, let BigDecimal deal with those
+		if (s.indexOf('E') >= 0) {
+			BigDecimal scaled = new BigDecimal(s).setScale(2, RoundingMode.HALF_UP);
+			if (d < 0 || (d == 0 && 1 / d < 0)) raw('-');
+			return raw(scaled.toPlainString());
+		}
+
+		if (d < 0 || (d == 0 && 1 / d < 0)) raw('-');
+
+		int dot = s.indexOf('.');
+		int fraction = s.length() - dot - 1;
+
+		if (fraction <= 2) {
+			raw(s);
+			for (int i = fraction; i < 2; i++) raw('0');
+			return this;
+		}
+
+		// Copy the integer part and two decimals, then round on the third decimal
+		int start = length;
+		ensure(dot + 4);
+		s.getChars(0, dot + 3, chars, length);
+		length += dot + 3;
+
+		if (s.charAt(dot + 3) >= '5') {
+			roundUp(start);
+		}
+
+		return this;
+	}
+
+	private void roundUp(int start) {
+		for (int i = length - 1; i >= start; i--) {
+			char c = chars[i];
+
+			if (c == '.') continue;
+
+			if (c != '9') {
+				chars[i] = (char) (c + 1);
+				return;
+			}
+
+			chars[i] = '0';
+		}
+
+		// Carried past the first digit, e.g. 99.995 -> 100.00
+		ensure(1);
+		System.arraycopy(chars, start, chars, start + 1, length - start);
+		chars[start] = '1';
+		length++;
+	}
+
+	/**
+	 * Appends a date as yyyy-MM-dd in the default time zone. null is written as null, which the serializers quote
+	 * like the templates did.
+	 *
+	 * @param date date value
+	 * @return this buffer
+	 */
+	public JsonBuffer date(java.sql.Date date) {
+		if (date == null) return raw("null");
+
+		LocalDate d = date.toLocalDate();
+
+		ensure(10);
+		pad(d.getYear(), 4);
+		chars[length++] = '-';
+		pad(d.getMonthValue(), 2);
+		chars[length++] = '-';
+		pad(d.getDayOfMonth(), 2);
+		return this;
+	}
+
+	/**
+	 * Appends a timestamp as yyyy-MM-dd HH:mm:ss in the default time zone. null is written as null like date().
+	 *
+	 * @param timestamp timestamp value
+	 * @return this buffer
+	 */
+	public JsonBuffer timestamp(Timestamp timestamp) {
+		if (timestamp == null) return raw("null");
+
+		LocalDateTime t = timestamp.toLocalDateTime();
+
+		ensure(19);
+		pad(t.getYear(), 4);
+		chars[length++] = '-';
+		pad(t.getMonthValue(), 2);
+		chars[length++] = '-';
+		pad(t.getDayOfMonth(), 2);
+		chars[length++] = ' ';
+		pad(t.getHour(), 2);
+		chars[length++] = ':';
+		pad(t.getMinute(), 2);
+		chars[length++] = ':';
+		pad(t.getSecond(), 2);
+		return this;
+	}
+
+	private void pad(int value, int width) {
+		int digits = digits(value);
+
+		if (digits > width) {
+			number(value);
+			return;
+		}
+
+		for (int i = digits; i < width; i++) {
+			chars[length++] = '0';
+		}
+
+		number(value);
+	}
+
+	private static int digits(int value) {
+		int digits = 1;
+
+		while (value >= 10) {
+			value /= 10;
+			digits++;
+		}
+
+		return digits;
+	}
+
+	private void ensure(int extra) {
+		if (length + extra > chars.length) {
+			char[] grown = new char[Math.max(chars.length * 2, length + extra)];
+			System.arraycopy(chars, 0, grown, 0, length);
+			chars = grown;
+		}
+	}
+
+	/**
+	 * Writes the buffered characters
+	 *
+	 * @param writer destination
+	 * @throws IOException if the writer fails
+	 */
+	public void writeTo(Writer writer) throws IOException {
+		writer.write(chars, 0, length);
+	}
+
+	@Override
+	public String toString() {
+		return new String(chars, 0, length);
+	}
+}
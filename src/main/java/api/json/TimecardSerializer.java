@@ -0,0 +1,33 @@
+package api.json;
+
+import companydata.Timecard;
+
+import java.util.Arrays;
+
+/**
+ * Writes a Timecard in the layout of Constants.TIMECARD_TEMPLATE
+ */
+public final class TimecardSerializer implements EntitySerializer<Timecard> {
+	public static final TimecardSerializer INSTANCE = new TimecardSerializer();
+
+	/**
+	 * Fields a fields= parameter can select
+	 */
+	public static final FieldSet<Timecard> FIELDS = new FieldSet<>(Arrays.asList(
+			new Field<>("timecard_id", (out, t) -> out.number(t.getId())),
+			new Field<>("start_time", (out, t) -> out.raw('"').timestamp(t.getStartTime()).raw('"')),
+			new Field<>("end_time", (out, t) -> out.raw('"').timestamp(t.getEndTime()).raw('"')),
+			new Field<>("emp_id", (out, t) -> out.number(t.getEmpId()))));
+
+	private TimecardSerializer() {
+	}
+
+	@Override
+	public void write(JsonBuffer out, Timecard t) {
+		out.raw("{\"timecard_id\": ").number(t.getId())
+				.raw(", \"start_time\": \"").timestamp(t.getStartTime()).raw('"')
+				.raw(", \"end_time\": \"").timestamp(t.getEndTime()).raw('"')
+				.raw(", \"emp_id\": ").number(t.getEmpId())
+				.raw('}');
+	}
+}
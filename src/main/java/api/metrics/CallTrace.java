@@ -0,0 +1,144 @@
+package api.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataAccess calls issued while handling one request, with when they started, how long they took and how many rows
+ * they returned or affected.
+ *
+ * The trace of the request being handled is bound to the current thread between begin() and end(); work handed to
+ * another thread carries it over with attach() and detach().
+ */
+public final class CallTrace {
+	private static final ThreadLocal<CallTrace> CURRENT = new ThreadLocal<>();
+	private static final int MAX_TIMELINE_CALLS = 50;
+
+	private final long start = System.nanoTime();
+	private final List<Call> calls = new ArrayList<>();
+	private long rows;
+	private long nanos;
+
+	/**
+	 * Starts a trace for the request handled by the current thread
+	 *
+	 * @return new trace
+	 */
+	public static CallTrace begin() {
+		CallTrace trace = new CallTrace();
+		CURRENT.set(trace);
+		return trace;
+	}
+
+	/**
+	 * @return trace of the current thread, null if none
+	 */
+	public static CallTrace current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Unbinds the trace from the current thread
+	 *
+	 * @return trace that was bound, null if none
+	 */
+	public static CallTrace end() {
+		CallTrace trace = CURRENT.get();
+		CURRENT.remove();
+		return trace;
+	}
+
+	/**
+	 * Binds a trace to the current thread, for work done on behalf of the request on another thread
+	 *
+	 * @param trace trace to bind, may be null
+	 * @return trace that was bound before, to restore with detach()
+	 */
+	public static CallTrace attach(CallTrace trace) {
+		CallTrace previous = CURRENT.get();
+		if (trace == null) CURRENT.remove(); else CURRENT.set(trace);
+		return previous;
+	}
+
+	/**
+	 * @param previous trace returned by attach()
+	 */
+	public static void detach(CallTrace previous) {
+		if (previous == null) CURRENT.remove(); else CURRENT.set(previous);
+	}
+
+	/**
+	 * @param operation     DataAccess method name
+	 * @param startNanos    System.nanoTime() when the call started
+	 * @param durationNanos duration of the call
+	 * @param rowCount      rows returned or affected
+	 */
+	public synchronized void record(String operation, long startNanos, long durationNanos, long rowCount) {
+		calls.add(new Call(operation, startNanos - start, durationNanos, rowCount));
+		rows += rowCount;
+		nanos += durationNanos;
+	}
+
+	/**
+	 * @return number of calls
+	 */
+	public synchronized int getCalls() {
+		return calls.size();
+	}
+
+	/**
+	 * @return rows returned or affected by all calls
+	 */
+	public synchronized long getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return time spent in calls, in nanoseconds
+	 */
+	public synchronized long getNanos() {
+		return nanos;
+	}
+
+	/**
+	 * @return e.g. calls=4; rows=12; time=3.214ms
+	 */
+	public synchronized String summary() {
+		return "calls=" + calls.size() + "; rows=" + rows + "; time=" + millis(nanos) + "ms";
+	}
+
+	/**
+	 * @return calls in order as operation@offset+duration(rows), e.g. getEmployee@0.120ms+0.400ms(1)
+	 */
+	public synchronized String timeline() {
+		StringBuilder out = new StringBuilder();
+
+		for (int i = 0; i < calls.size() && i < MAX_TIMELINE_CALLS; i++) {
+			Call call = calls.get(i);
+			if (i > 0) out.append(", ");
+			out.append(call.operation).append('@').append(millis(call.offsetNanos)).append("ms+")
+					.append(millis(call.durationNanos)).append("ms(").append(call.rows).append(')');
+		}
+
+		if (calls.size() > MAX_TIMELINE_CALLS) out.append(", ... ").append(calls.size() - MAX_TIMELINE_CALLS).append(" more");
+		return out.toString();
+	}
+
+	private static String millis(long nanos) {
+		return String.format("%.3f", nanos / 1e6);
+	}
+
+	private static final class Call {
+		private final String operation;
+		private final long offsetNanos;
+		private final long durationNanos;
+		private final long rows;
+
+		private Call(String operation, long offsetNanos, long durationNanos, long rows) {
+			this.operation = operation;
+			this.offsetNanos = offsetNanos;
+			this.durationNanos = durationNanos;
+			this.rows = rows;
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package api.metrics;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Threads, queue and throughput of a thread pool, exposed as gauges and counters
+ */
+public class ExecutorMetrics {
+	private final String name;
+	private final String help;
+	private final AtomicLong rejected = new AtomicLong();
+	private volatile Source source;
+
+	/**
+	 * @param name metric name stem, e.g. companyservices_request_executor for
+	 *             companyservices_request_executor_active_threads and the like
+	 * @param help the pool measured, e.g. "pool the resource methods run on"
+	 */
+	public ExecutorMetrics(String name, String help) {
+		this.name = name;
+		this.help = help;
+	}
+
+	/**
+	 * @param executor pool to measure
+	 */
+	public void bind(ThreadPoolExecutor executor) {
+		this.source = new Source(executor::getPoolSize, executor::getActiveCount, () -> executor.getQueue().size(),
+				executor::getCompletedTaskCount);
+	}
+
+	/**
+	 * Measures an executor that starts a thread per task, so its threads are its running tasks and nothing queues
+	 *
+	 * @param running   number of tasks running
+	 * @param completed number of tasks finished
+	 */
+	public void bind(IntSupplier running, LongSupplier completed) {
+		this.source = new Source(running, running, () -> 0, completed);
+	}
+
+	/**
+	 * Counts a task the pool had no room for
+	 */
+	public void rejected() {
+		rejected.incrementAndGet();
+	}
+
+	/**
+	 * @return number of tasks the pool had no room for
+	 */
+	public long getRejected() {
+		return rejected.get();
+	}
+
+	/**
+	 * Appends the HELP, TYPE and sample of every metric, nothing until a pool is bound
+	 *
+	 * @param out exposition being built
+	 */
+	void writeTo(StringBuilder out) {
+		Source pool = source;
+		if (pool == null) return;
+
+		sample(out, "_threads", "gauge", "Threads of the " + help, pool.threads.getAsInt());
+		sample(out, "_active_threads", "gauge", "Busy threads of the " + help, pool.active.getAsInt());
+		sample(out, "_queued_tasks", "gauge", "Tasks waiting for a thread of the " + help, pool.queued.getAsInt());
+		sample(out, "_completed_tasks_total", "counter", "Tasks completed by the " + help, pool.completed.getAsLong());
+		sample(out, "_rejected_tasks_total", "counter", "Tasks the " + help + " had no room for", rejected.get());
+	}
+
+	private void sample(StringBuilder out, String suffix, String type, String text, long value) {
+		out.append("# HELP ").append(name).append(suffix).append(' ').append(text).append('\n');
+		out.append("# TYPE ").append(name).append(suffix).append(' ').append(type).append('\n');
+		out.append(name).append(suffix).append(' ').append(value).append('\n');
+	}
+
+	private static final class Source {
+		private final IntSupplier threads;
+		private final IntSupplier active;
+		private final IntSupplier queued;
+		private final LongSupplier completed;
+
+		private Source(IntSupplier threads, IntSupplier active, IntSupplier queued, LongSupplier completed) {
+			this.threads = threads;
+			this.active = active;
+			this.queued = queued;
+			this.completed = completed;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package api.metrics;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram with fixed bucket bounds in seconds, in the cumulative form Prometheus expects
+ */
+public class Histogram {
+	static final double[] BOUNDS = {0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+	private static final long[] BOUNDS_NANOS = new long[BOUNDS.length];
+	private static final String[] LABELS = new String[BOUNDS.length + 1];
+
+	static {
+		for (int i = 0; i < BOUNDS.length; i++) {
+			BOUNDS_NANOS[i] = (long) (BOUNDS[i] * 1e9);
+			LABELS[i] = BigDecimal.valueOf(BOUNDS[i]).stripTrailingZeros().toPlainString();
+		}
+		LABELS[BOUNDS.length] = "+Inf";
+	}
+
+	private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sumNanos = new LongAdder();
+
+	public Histogram() {
+		for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+	}
+
+	/**
+	 * @param nanos observed duration in nanoseconds
+	 */
+	public void observe(long nanos) {
+		int i = 0;
+		while (i < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[i]) i++;
+
+		buckets[i].increment();
+		count.increment();
+		sumNanos.add(nanos);
+	}
+
+	/**
+	 * @return number of observations
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Appends the _bucket, _sum and _count samples
+	 *
+	 * @param out    exposition being built
+	 * @param name   metric name
+	 * @param labels rendered labels without braces, e.g. resource="EmployeeServices"
+	 */
+	void writeTo(StringBuilder out, String name, String labels) {
+		String prefix = labels.isEmpty() ? "" : labels + ",";
+		long cumulative = 0;
+
+		for (int i = 0; i < buckets.length; i++) {
+			cumulative += buckets[i].sum();
+			out.append(name).append("_bucket{").append(prefix).append("le=\"").append(LABELS[i]).append("\"} ")
+					.append(cumulative).append('\n');
+		}
+
+		out.append(name).append("_sum{").append(labels).append("} ").append(sumNanos.sum() / 1e9).append('\n');
+		out.append(name).append("_count{").append(labels).append("} ").append(count.sum()).append('\n');
+	}
+}
@@ -0,0 +1,45 @@
+package api.metrics;
+
+/**
+ * Metrics of the service, scraped from /resources/metrics
+ */
+public final class Metrics {
+	/**
+	 * Requests per resource method, errors are responses with a 4xx or 5xx status
+	 */
+	public static final TimerFamily REQUESTS = new TimerFamily("companyservices_http_request",
+			"HTTP requests per resource method", "resource", "method");
+
+	/**
+	 * DataAccess calls per operation, errors are calls that threw
+	 */
+	public static final TimerFamily DATA_ACCESS = new TimerFamily("companyservices_data_access_call",
+			"DataAccess calls per operation", "operation");
+
+	/**
+	 * Pool the resource methods run on, rejected requests were answered with 503
+	 */
+	public static final ExecutorMetrics REQUEST_EXECUTOR = new ExecutorMetrics("companyservices_request_executor",
+			"request pool");
+
+	/**
+	 * Pool the concurrent lookups of a request run on, rejected lookups ran on the requesting thread instead
+	 */
+	public static final ExecutorMetrics LOOKUP_EXECUTOR = new ExecutorMetrics("companyservices_lookup_executor",
+			"lookup pool");
+
+	private Metrics() {
+	}
+
+	/**
+	 * @return every metric in the Prometheus text exposition format
+	 */
+	public static String scrape() {
+		StringBuilder out = new StringBuilder(8192);
+		REQUESTS.writeTo(out);
+		DATA_ACCESS.writeTo(out);
+		REQUEST_EXECUTOR.writeTo(out);
+		LOOKUP_EXECUTOR.writeTo(out);
+		return out.toString();
+	}
+}
@@ -0,0 +1,38 @@
+package api.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count, error count and latency histogram of one operation
+ */
+public class Timer {
+	private final LongAdder errors = new LongAdder();
+	private final Histogram histogram = new Histogram();
+
+	/**
+	 * @param nanos duration of the operation
+	 * @param error whether the operation failed
+	 */
+	public void record(long nanos, boolean error) {
+		histogram.observe(nanos);
+		if (error) errors.increment();
+	}
+
+	/**
+	 * @return number of recorded operations
+	 */
+	public long getCount() {
+		return histogram.getCount();
+	}
+
+	/**
+	 * @return number of failed operations
+	 */
+	public long getErrors() {
+		return errors.sum();
+	}
+
+	Histogram getHistogram() {
+		return histogram;
+	}
+}
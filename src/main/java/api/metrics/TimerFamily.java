@@ -0,0 +1,80 @@
+package api.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Timers of one kind of operation, one per combination of label values, exposed as a total, an error total and a
+ * duration histogram
+ */
+public class TimerFamily {
+	private final String name;
+	private final String help;
+	private final String[] labelNames;
+	private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+	/**
+	 * @param name       singular metric name stem, e.g. companyservices_http_request for
+	 *                   companyservices_http_requests_total, companyservices_http_request_errors_total and
+	 *                   companyservices_http_request_duration_seconds
+	 * @param help       what is counted, e.g. "HTTP requests per resource method"
+	 * @param labelNames names of the labels the timers are split by
+	 */
+	public TimerFamily(String name, String help, String... labelNames) {
+		this.name = name;
+		this.help = help;
+		this.labelNames = labelNames;
+	}
+
+	/**
+	 * @param labelValues one value per label name, in the same order
+	 * @return timer of the label values, created on first use
+	 */
+	public Timer get(String... labelValues) {
+		return timers.computeIfAbsent(render(labelValues), labels -> new Timer());
+	}
+
+	/**
+	 * Appends the HELP, TYPE and samples of the three metrics
+	 *
+	 * @param out exposition being built
+	 */
+	void writeTo(StringBuilder out) {
+		Map<String, Timer> sorted = new TreeMap<>(timers);
+
+		header(out, name + "s_total", "counter", help);
+		sorted.forEach((labels, timer) -> sample(out, name + "s_total", labels, timer.getCount()));
+
+		header(out, name + "_errors_total", "counter", "Failed " + help);
+		sorted.forEach((labels, timer) -> sample(out, name + "_errors_total", labels, timer.getErrors()));
+
+		header(out, name + "_duration_seconds", "histogram", "Duration of " + help);
+		sorted.forEach((labels, timer) -> timer.getHistogram().writeTo(out, name + "_duration_seconds", labels));
+	}
+
+	private static void header(StringBuilder out, String metric, String type, String text) {
+		out.append("# HELP ").append(metric).append(' ').append(text).append('\n');
+		out.append("# TYPE ").append(metric).append(' ').append(type).append('\n');
+	}
+
+	private static void sample(StringBuilder out, String metric, String labels, long value) {
+		out.append(metric).append('{').append(labels).append("} ").append(value).append('\n');
+	}
+
+	private String render(String[] labelValues) {
+		StringBuilder labels = new StringBuilder();
+
+		for (int i = 0; i < labelNames.length; i++) {
+			if (i > 0) labels.append(',');
+
+			String value = i < labelValues.length && labelValues[i] != null ? labelValues[i] : "";
+			labels.append(labelNames[i]).append("=\"")
+					.append(value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+					.append('"');
+		}
+
+		return labels.toString();
+	}
+}
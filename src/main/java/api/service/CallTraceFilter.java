@@ -0,0 +1,48 @@
+package api.service;
+
+import api.metrics.CallTrace;
+import api.utils.Constants;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.ext.Provider;
+import java.util.logging.Logger;
+
+/**
+ * Traces the DataAccess calls of every request.
+ *
+ * With -Dcompanyservices.trace.debug=true the X-DataAccess-Calls and X-DataAccess-Trace response headers carry the
+ * call count, rows, time and timeline. A request issuing more calls than companyservices.trace.callBudget is logged.
+ * The trace is kept on the request as well, since an async resource method finishes on another thread.
+ */
+@Provider
+public class CallTraceFilter implements ContainerRequestFilter, ContainerResponseFilter {
+	private static final Logger LOG = Logger.getLogger(CallTraceFilter.class.getName());
+	private static final String TRACE = CallTraceFilter.class.getName() + ".trace";
+
+	@Override
+	public void filter(ContainerRequestContext request) {
+		request.setProperty(TRACE, CallTrace.begin());
+	}
+
+	@Override
+	public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+		CallTrace.end();
+
+		CallTrace trace = (CallTrace) request.getProperty(TRACE);
+		if (trace == null) return;
+
+		if (Constants.TRACE_DEBUG) {
+			response.getHeaders().putSingle("X-DataAccess-Calls", trace.summary());
+			response.getHeaders().putSingle("X-DataAccess-Trace", trace.timeline());
+		}
+
+		if (trace.getCalls() > Constants.TRACE_CALL_BUDGET) {
+			LOG.warning(String.format("%s %s issued %d DataAccess calls, budget is %d: %s [%s]",
+					request.getMethod(), request.getUriInfo().getPath(), trace.getCalls(), Constants.TRACE_CALL_BUDGET,
+					trace.summary(), trace.timeline()));
+		}
+	}
+}
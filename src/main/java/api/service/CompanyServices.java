@@ -1,39 +1,85 @@
 package api.service;
 
 import api.business.CompanyBusiness;
+import api.business.DeleteCompanyJob;
+import api.business.Result;
 
 import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.net.URI;
+import java.util.concurrent.CompletionStage;
 
 @Path("CompanyServices")
 public class CompanyServices {
-	private CompanyBusiness comBL;
+	private final CompanyBusiness comBL;
 
 	public CompanyServices() {
 		this.comBL = new CompanyBusiness();
 	}
 
 	/**
-	 * Deletes all Department, Employee and Timecard records in the database for the given company
+	 * Starts deleting all Department, Employee and Timecard records in the database for the given company. The
+	 * deletion runs in the background, its progress is available from GET company/delete.
 	 *
 	 * @param company rit username
-	 * @return json confirmation
+	 * @return json of the deletion job
 	 */
 	@Path("company")
 	@DELETE
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response deleteCompany(@QueryParam("company") String company) {
-		boolean deleted = comBL.deleteAll(company);
+	public CompletionStage<Response> deleteCompany(@QueryParam("company") String company) {
+		return RequestExecutor.submit(() -> {
+			Result<DeleteCompanyJob> result = comBL.deleteAll(company);
 
-		if (deleted) {
-			String json = "{\"success\": " + String.format("\"%s's information deleted\"", company) + "}";
-			return Response.ok(json).build();
-		}
+			if (result.isOk()) {
+				DeleteCompanyJob job = result.getValue();
+				URI status = URI.create(String.format("CompanyServices/company/delete?company=%s&job_id=%d", company, job.getId()));
 
-		return Response.ok(comBL.getErrorJson()).status(400).build();
+				return Response.accepted(toJson(job)).location(status).build();
+			}
+
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
+	}
+
+	/**
+	 * Returns the progress of a company deletion.
+	 *
+	 * @param company rit username
+	 * @param jobId   job_id returned by DELETE company
+	 * @return json of the deletion job
+	 */
+	@Path("company/delete")
+	@GET
+	@Produces(MediaType.APPLICATION_JSON)
+	public CompletionStage<Response> getDeleteJob(@QueryParam("company") String company,
+	                                              @QueryParam("job_id") String jobId) {
+		return RequestExecutor.submit(() -> {
+			Result<DeleteCompanyJob> result = comBL.getDeleteJob(company, Integer.parseInt(jobId));
+
+			if (result.isOk()) {
+				return Response.ok(toJson(result.getValue())).build();
+			}
+
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
+	}
+
+	/**
+	 * @param job company deletion job
+	 * @return json of the job's state and progress
+	 */
+	private static String toJson(DeleteCompanyJob job) {
+		return String.format("{\"job_id\": %d, \"company\": \"%s\", \"status\": \"%s\", \"phase\": \"%s\", " +
+						"\"timecards_deleted\": %d, \"employees_deleted\": %d, \"employees_total\": %d, " +
+						"\"departments_deleted\": %d, \"departments_total\": %d}",
+				job.getId(), job.getCompany(), job.getStatus().name().toLowerCase(), job.getPhase(),
+				job.getTimecardsDeleted(), job.getEmployeesDeleted(), job.getEmployeesTotal(),
+				job.getDepartmentsDeleted(), job.getDepartmentsTotal());
 	}
 }
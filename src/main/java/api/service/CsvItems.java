@@ -0,0 +1,130 @@
+package api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the rows of a CSV request body as objects keyed by the column names of the header line.
+ *
+ * Fields may be quoted to hold commas, with "" for a quote inside a quoted field. A row is one line, quoted fields
+ * cannot span lines. Blank lines are skipped and columns missing from a short row are left out of its object.
+ */
+final class CsvItems {
+	private CsvItems() {
+	}
+
+	/**
+	 * @param input request body
+	 * @return rows of the body, read as they are iterated. A failing read throws an UncheckedIOException.
+	 * @throws IOException if the header line cannot be read
+	 */
+	static Iterator<JsonNode> iterate(InputStream input) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+		String header = nextLine(reader);
+
+		// Excel writes a byte order mark in front of the header
+		if (header != null && !header.isEmpty() && header.charAt(0) == '\uFEFF') header = header.substring(1);
+
+		List<String> columns = header == null ? new ArrayList<>() : split(header);
+		columns.replaceAll(String::trim);
+
+		return new RowIterator(reader, columns, header == null ? null : nextLine(reader));
+	}
+
+	/**
+	 * @return next line that is not blank, null at the end of the body
+	 */
+	private static String nextLine(BufferedReader reader) throws IOException {
+		String line;
+
+		do {
+			line = reader.readLine();
+		} while (line != null && line.trim().isEmpty());
+
+		return line;
+	}
+
+	/**
+	 * @param line CSV line
+	 * @return fields of the line, unquoted
+	 */
+	private static List<String> split(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+
+		fields.add(field.toString());
+		return fields;
+	}
+
+	private static final class RowIterator implements Iterator<JsonNode> {
+		private final BufferedReader reader;
+		private final List<String> columns;
+		private String line;
+
+		private RowIterator(BufferedReader reader, List<String> columns, String line) {
+			this.reader = reader;
+			this.columns = columns;
+			this.line = line;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return line != null;
+		}
+
+		@Override
+		public JsonNode next() {
+			if (line == null) throw new NoSuchElementException();
+
+			List<String> fields = split(line);
+			ObjectNode row = JsonNodeFactory.instance.objectNode();
+
+			for (int i = 0; i < columns.size() && i < fields.size(); i++) {
+				row.put(columns.get(i), fields.get(i));
+			}
+
+			try {
+				line = nextLine(reader);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+
+			return row;
+		}
+	}
+}
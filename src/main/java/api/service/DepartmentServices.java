@@ -1,6 +1,10 @@
 package api.service;
 
 import api.business.DepartmentBusiness;
+import api.business.Result;
+import api.data.Page;
+import api.json.EntitySerializer;
+import api.json.DepartmentSerializer;
 import api.utils.Constants;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -11,13 +15,19 @@ import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @Path("CompanyServices")
 public class DepartmentServices {
-	private DepartmentBusiness deptBL;
+	private static final Logger LOG = Logger.getLogger(DepartmentServices.class.getName());
+	private final DepartmentBusiness deptBL;
+	private final ObjectMapper om;
 
 	public DepartmentServices() {
 		this.deptBL = new DepartmentBusiness();
+		this.om = new ObjectMapper();
 	}
 
 	/**
@@ -25,55 +35,83 @@ public class DepartmentServices {
 	 *
 	 * @param company      rit username
 	 * @param departmentId department id
+	 * @param fields       comma separated fields to return, all fields if omitted
 	 * @return json of fetched Department
 	 */
 	@Path("department")
 	@GET
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response getDepartment(@QueryParam("company") String company,
-	                              @QueryParam("dept_id") String departmentId) {
-		Department d = deptBL.getDepartment(company, Integer.parseInt(departmentId));
+	public CompletionStage<Response> getDepartment(@QueryParam("company") String company,
+	                                               @QueryParam("dept_id") String departmentId,
+	                                               @QueryParam("fields") String fields) {
+		return RequestExecutor.submit(() -> {
+			EntitySerializer<Department> serializer = DepartmentSerializer.FIELDS.select(fields, DepartmentSerializer.INSTANCE);
+
+			if (serializer == null) {
+				return Response.ok(Constants.FIELDS_ERROR_JSON).status(400).build();
+			}
+
+			Result<Department> result = deptBL.getDepartment(company, Integer.parseInt(departmentId));
 
-		// Check value returned from BL
-		if (d != null) {
-			String json = String.format(deptBL.getJSONTemplate(), d.getId(), d.getCompany(), d.getDeptName(), d.getDeptNo(), d.getLocation());
+			// Check value returned from BL
+			if (result.isOk()) {
+				Department d = result.getValue();
+				String json = serializer.toJson(d);
 
-			return Response.ok(json).build();
-		}
+				return Response.ok(json).build();
+			}
 
-		return Response.ok(deptBL.getErrorJson()).status(400).build();
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
 	}
 
 	/**
-	 * Returns the requested list of Departments.
+	 * Returns the requested list of Departments, or one page of it when a cursor or limit is given.
 	 *
 	 * @param company rit username
+	 * @param cursor  X-Next-Cursor of the previous page, omit for the first page
+	 * @param limit   maximum number of departments per page
+	 * @param fields  comma separated fields to return, all fields if omitted
 	 * @return json list of Departments
 	 */
 	@Path("departments")
 	@GET
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response getDepartments(@QueryParam("company") String company) {
-		List<Department> departments = deptBL.getDepartments(company);
+	public CompletionStage<Response> getDepartments(@QueryParam("company") String company,
+	                                                @QueryParam("cursor") String cursor,
+	                                                @QueryParam("limit") String limit,
+	                                                @QueryParam("fields") String fields) {
+		return RequestExecutor.submit(() -> {
+			EntitySerializer<Department> serializer = DepartmentSerializer.FIELDS.select(fields, DepartmentSerializer.INSTANCE);
+
+			if (serializer == null) {
+				return Response.ok(Constants.FIELDS_ERROR_JSON).status(400).build();
+			}
+
+			if (cursor != null || limit != null) {
+				Result<Page<Department>> page = deptBL.getDepartments(company, cursor, limit);
+
+				if (page.isOk()) {
+					return PageResponse.of(page.getValue(), serializer);
+				}
+
+				return Response.ok(page.getErrorJson()).status(400).build();
+			}
 
-		// Check length of list
-		if (departments.size() > 0) {
-			StringBuilder json = new StringBuilder();
-			json.append("[");
+			Result<List<Department>> result = deptBL.getDepartments(company);
 
-			departments.forEach(d -> {
-				json.append(String.format(deptBL.getJSONTemplate(), d.getId(), d.getCompany(), d.getDeptName(),
-						d.getDeptNo(), d.getLocation()));
-				json.append(",");
-			});
+			// Check length of list
+			if (result.isOk()) {
+				List<Department> departments = result.getValue();
 
-			json.setLength(json.length() - 1); // Remove trailing comma
-			json.append("]");
+				// Stream the rows to the response
+				JsonArrayOutput<Department> json = new JsonArrayOutput<>(departments, serializer);
 
-			return Response.ok(json.toString()).build();
-		}
+				return Response.ok(json).build();
+			}
 
-		return Response.ok(deptBL.getErrorJson()).status(400).build();
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
 	}
 
 	/**
@@ -86,26 +124,30 @@ public class DepartmentServices {
 	@PUT
 	@Consumes(MediaType.APPLICATION_JSON)
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response updateDepartment(String inputJson) {
-		// Parse the JSON using jackson
-		ObjectMapper om = new ObjectMapper();
+	public CompletionStage<Response> updateDepartment(String inputJson) {
+		return RequestExecutor.submit(() -> {
+			// Parse the JSON using jackson
+			JsonNode node;
+
+			try {
+				node = om.readTree(inputJson);
+			} catch (JsonProcessingException e) {
+				LOG.log(Level.FINE, "Could not parse the department JSON", e);
+				return Response.ok(Constants.JSON_PARSE_ERROR).status(400).build();
+			}
 
-		try {
 			// Pass the JsonNode to BL to validate and process
-			JsonNode node = om.readTree(inputJson);
-			Department d = deptBL.updateDepartment(node);
+			Result<Department> result = deptBL.updateDepartment(node);
 
-			if (d != null) {
-				String json = "{\"success\": " + String.format(deptBL.getJSONTemplate(), d.getId(), d.getCompany(), d.getDeptName(), d.getDeptNo(), d.getLocation()) + "}";
+			if (result.isOk()) {
+				Department d = result.getValue();
+				String json = DepartmentSerializer.INSTANCE.toJson("{\"success\": ", d, "}");
 
 				return Response.ok(json).build();
 			}
-		} catch (JsonProcessingException e) {
-			e.printStackTrace();
-			return Response.ok(Constants.JSON_PARSE_ERROR).status(400).build();
-		}
 
-		return Response.ok(deptBL.getErrorJson()).status(400).build();
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
 	}
 
 	/**
@@ -120,19 +162,22 @@ public class DepartmentServices {
 	@Path("department")
 	@POST
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response createDepartment(@FormParam("company") String company,
-	                                 @FormParam("dept_name") String departmentName,
-	                                 @FormParam("dept_no") String departmentNo,
-	                                 @FormParam("location") String location) {
-		Department d = deptBL.createDepartment(company, departmentName, departmentNo, location);
+	public CompletionStage<Response> createDepartment(@FormParam("company") String company,
+	                                                  @FormParam("dept_name") String departmentName,
+	                                                  @FormParam("dept_no") String departmentNo,
+	                                                  @FormParam("location") String location) {
+		return RequestExecutor.submit(() -> {
+			Result<Department> result = deptBL.createDepartment(company, departmentName, departmentNo, location);
 
-		if (d != null) {
-			String json = "{\"success\": " + String.format(deptBL.getJSONTemplate(), d.getId(), d.getCompany(), d.getDeptName(), d.getDeptNo(), d.getLocation()) + "}";
+			if (result.isOk()) {
+				Department d = result.getValue();
+				String json = DepartmentSerializer.INSTANCE.toJson("{\"success\": ", d, "}");
 
-			return Response.ok(json).build();
-		}
+				return Response.ok(json).build();
+			}
 
-		return Response.ok(deptBL.getErrorJson()).status(400).build();
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
 	}
 
 	/**
@@ -145,16 +190,18 @@ public class DepartmentServices {
 	@Path("department")
 	@DELETE
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response deleteDepartment(@QueryParam("company") String company,
-	                                 @QueryParam("dept_id") String departmentId) {
-		int affected = deptBL.deleteDepartment(company, Integer.parseInt(departmentId));
+	public CompletionStage<Response> deleteDepartment(@QueryParam("company") String company,
+	                                                  @QueryParam("dept_id") String departmentId) {
+		return RequestExecutor.submit(() -> {
+			Result<Integer> result = deptBL.deleteDepartment(company, Integer.parseInt(departmentId));
 
-		if (affected == 1) {
-			String json = String.format("{\"success\": \"Department %s from %s deleted.\"}", departmentId, company);
+			if (result.isOk()) {
+				String json = String.format("{\"success\": \"Department %s from %s deleted.\"}", departmentId, company);
 
-			return Response.ok(json).build();
-		}
+				return Response.ok(json).build();
+			}
 
-		return Response.ok(deptBL.getErrorJson()).status(400).build();
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
 	}
 }
@@ -0,0 +1,52 @@
+package api.service;
+
+import api.business.EmployeeDetails;
+import api.json.DepartmentSerializer;
+import api.json.EmployeeSerializer;
+import api.json.JsonBuffer;
+import api.json.TimecardSerializer;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes an employee, their department and their timecards as one JSON object straight to the response stream:
+ * {"employee": {...}, "department": {...}, "timecards": [...]}
+ */
+public class EmployeeDetailsOutput implements StreamingOutput {
+	private static final int BUFFER_SIZE = 8192;
+
+	private final EmployeeDetails details;
+
+	public EmployeeDetailsOutput(EmployeeDetails details) {
+		this.details = details;
+	}
+
+	@Override
+	public void write(OutputStream output) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+		JsonBuffer buffer = new JsonBuffer(BUFFER_SIZE);
+
+		buffer.raw("{\"employee\": ");
+		EmployeeSerializer.INSTANCE.write(buffer, details.getEmployee());
+
+		buffer.raw(", \"department\": ");
+		if (details.getDepartment() == null) {
+			buffer.raw("null");
+		} else {
+			DepartmentSerializer.INSTANCE.write(buffer, details.getDepartment());
+		}
+
+		buffer.raw(", \"timecards\": ");
+		JsonArrayOutput.writeArray(buffer, writer, details.getTimecards(), TimecardSerializer.INSTANCE);
+
+		buffer.raw('}');
+		buffer.writeTo(writer);
+		writer.flush();
+	}
+}
@@ -0,0 +1,105 @@
+package api.service;
+
+import api.business.EmployeeImport;
+import api.business.Result;
+import api.data.PoolTimeoutException;
+import api.json.EmployeeSerializer;
+import api.json.JsonBuffer;
+import api.utils.Constants;
+import com.fasterxml.jackson.databind.JsonNode;
+import companydata.Employee;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * Runs an employee import while the response is written, reporting it as NDJSON: a line per row,
+ * {"row": 1, "success": {...}} or {"row": 2, "error": "..."}, a {"processed": 100, "created": 99, "failed": 1} line
+ * after every chunk and a last line with "done": true once the whole body was imported, or the error that stopped
+ * the import and "done": false.
+ *
+ * The request body is read as the rows are imported and progress lines are flushed to the client right away, so
+ * neither the upload nor the report is held in memory.
+ */
+public class EmployeeImportOutput implements StreamingOutput, EmployeeImport.Listener {
+	private static final int BUFFER_SIZE = 8192;
+
+	private final EmployeeImport employeeImport;
+	private final Iterator<JsonNode> rows;
+
+	private Writer writer;
+	private JsonBuffer buffer;
+
+	public EmployeeImportOutput(EmployeeImport employeeImport, Iterator<JsonNode> rows) {
+		this.employeeImport = employeeImport;
+		this.rows = rows;
+	}
+
+	@Override
+	public void write(OutputStream output) throws IOException {
+		writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+		buffer = new JsonBuffer(BUFFER_SIZE);
+		boolean done = false;
+
+		try {
+			employeeImport.run(rows, this);
+			done = true;
+		} catch (UncheckedIOException e) {
+			buffer.raw(Constants.JSON_PARSE_ERROR).raw('\n');
+		} catch (PoolTimeoutException e) {
+			buffer.raw(Constants.BUSY_JSON).raw('\n');
+		}
+
+		writeProgress(employeeImport.getProcessed(), employeeImport.getCreated(), employeeImport.getFailed());
+		buffer.raw(", \"done\": ").raw(done ? "true" : "false").raw("}\n");
+		buffer.writeTo(writer);
+		writer.flush();
+	}
+
+	@Override
+	public void row(int row, Result<Employee> result) throws IOException {
+		buffer.raw("{\"row\": ").number(row);
+
+		if (result.isOk()) {
+			buffer.raw(", \"success\": ");
+			EmployeeSerializer.INSTANCE.write(buffer, result.getValue());
+			buffer.raw('}');
+		} else {
+			// Splice the error object into the row object
+			buffer.raw(", ").raw(result.getErrorJson().substring(1));
+		}
+
+		buffer.raw('\n');
+
+		if (buffer.length() >= BUFFER_SIZE) {
+			buffer.writeTo(writer);
+			buffer.reset();
+		}
+	}
+
+	@Override
+	public void progress(int processed, int created, int failed) throws IOException {
+		writeProgress(processed, created, failed);
+		buffer.raw("}\n");
+
+		buffer.writeTo(writer);
+		buffer.reset();
+		writer.flush();
+	}
+
+	/**
+	 * Writes a progress object without its closing brace
+	 */
+	private void writeProgress(int processed, int created, int failed) {
+		buffer.raw("{\"processed\": ").number(processed)
+				.raw(", \"created\": ").number(created)
+				.raw(", \"failed\": ").number(failed);
+	}
+}
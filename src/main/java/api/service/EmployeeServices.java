@@ -1,6 +1,12 @@
 package api.service;
 
 import api.business.EmployeeBusiness;
+import api.business.EmployeeDetails;
+import api.business.EmployeeImport;
+import api.business.Result;
+import api.data.Page;
+import api.json.EntitySerializer;
+import api.json.EmployeeSerializer;
 import api.utils.Constants;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -10,16 +16,24 @@ import companydata.Employee;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @Path("CompanyServices")
 public class EmployeeServices {
-	private EmployeeBusiness emplBL;
+	private static final Logger LOG = Logger.getLogger(EmployeeServices.class.getName());
+	private final EmployeeBusiness emplBL;
+	private final ObjectMapper om;
 
 	public EmployeeServices() {
 		this.emplBL = new EmployeeBusiness();
+		this.om = new ObjectMapper();
 	}
 
 	/**
@@ -27,66 +41,118 @@ public class EmployeeServices {
 	 *
 	 * @param company    rit username
 	 * @param employeeId employee id
+	 * @param fields     comma separated fields to return, all fields if omitted
 	 * @return json of fetched Employee
 	 */
 	@Path("employee")
 	@GET
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response getEmployee(@QueryParam("company") String company,
-	                            @QueryParam("emp_id") String employeeId) {
-		Employee e = emplBL.getEmployee(company, Integer.parseInt(employeeId));
+	public CompletionStage<Response> getEmployee(@QueryParam("company") String company,
+	                                             @QueryParam("emp_id") String employeeId,
+	                                             @QueryParam("fields") String fields) {
+		return RequestExecutor.submit(() -> {
+			EntitySerializer<Employee> serializer = EmployeeSerializer.FIELDS.select(fields, EmployeeSerializer.INSTANCE);
+
+			if (serializer == null) {
+				return Response.ok(Constants.FIELDS_ERROR_JSON).status(400).build();
+			}
+
+			Result<Employee> result = emplBL.getEmployee(company, Integer.parseInt(employeeId));
 
-		if (e != null) {
-			StringBuilder json = new StringBuilder();
+			if (result.isOk()) {
+				Employee e = result.getValue();
+				String json = serializer.toJson(e);
 
-			// Convert date to string
-			DateFormat df = new SimpleDateFormat("yyyy-MM-dd");
-			String hireDate = df.format(e.getHireDate());
+				return Response.ok(json).build();
+			}
 
-			json.append(String.format(emplBL.getJSONTemplate(), e.getId(), e.getEmpName(), e.getEmpNo(), hireDate,
-					e.getJob(), e.getSalary(), e.getDeptId(), e.getMngId()));
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
+	}
+
+	/**
+	 * Returns the requested Employee with their Department and Timecards in one response.
+	 *
+	 * @param company    rit username
+	 * @param employeeId employee id
+	 * @return json of the Employee, their Department and their Timecards
+	 */
+	@Path("employee/details")
+	@GET
+	@Produces(MediaType.APPLICATION_JSON)
+	public CompletionStage<Response> getEmployeeDetails(@QueryParam("company") String company,
+	                                                    @QueryParam("emp_id") String employeeId) {
+		return RequestExecutor.submit(() -> {
+			Result<EmployeeDetails> result = emplBL.getEmployeeDetails(company, Integer.parseInt(employeeId));
 
-			return Response.ok(json.toString()).build();
-		}
+			if (result.isOk()) {
+				return Response.ok(new EmployeeDetailsOutput(result.getValue())).build();
+			}
 
-		return Response.ok(emplBL.getErrorJson()).status(400).build();
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
 	}
 
 	/**
-	 * Returns the requested list of Employees.
+	 * Returns the requested list of Employees, the Employees with the given ids when ids is given, or one page of
+	 * the list when a cursor or limit is given.
 	 *
 	 * @param company rit username
+	 * @param ids     comma separated employee ids to fetch instead of the whole list
+	 * @param cursor  X-Next-Cursor of the previous page, omit for the first page
+	 * @param limit   maximum number of employees per page
+	 * @param fields  comma separated fields to return, all fields if omitted
 	 * @return json list of employees
 	 */
 	@Path("employees")
 	@GET
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response getEmployees(@QueryParam("company") String company) {
-		List<Employee> employees = emplBL.getEmployees(company);
+	public CompletionStage<Response> getEmployees(@QueryParam("company") String company,
+	                                              @QueryParam("ids") String ids,
+	                                              @QueryParam("cursor") String cursor,
+	                                              @QueryParam("limit") String limit,
+	                                              @QueryParam("fields") String fields) {
+		return RequestExecutor.submit(() -> {
+			EntitySerializer<Employee> serializer = EmployeeSerializer.FIELDS.select(fields, EmployeeSerializer.INSTANCE);
+
+			if (serializer == null) {
+				return Response.ok(Constants.FIELDS_ERROR_JSON).status(400).build();
+			}
 
-		// Check length of list
-		if (employees.size() > 0) {
-			// Create json
-			StringBuilder json = new StringBuilder();
-			json.append("[");
+			if (ids != null) {
+				Result<List<Employee>> found = emplBL.getEmployeesById(company, ids);
 
-			employees.forEach(e -> {
-				// Convert date to string
-				DateFormat df = new SimpleDateFormat("yyyy-MM-dd");
-				String hireDate = df.format(e.getHireDate());
+				if (found.isOk()) {
+					return Response.ok(new JsonArrayOutput<>(found.getValue(), serializer)).build();
+				}
+
+				return Response.ok(found.getErrorJson()).status(400).build();
+			}
 
-				json.append(String.format(emplBL.getJSONTemplate(), e.getId(), e.getEmpName(), e.getEmpNo(), hireDate,
-						e.getJob(), e.getSalary(), e.getDeptId(), e.getMngId()));
-				json.append(",");
-			});
+			if (cursor != null || limit != null) {
+				Result<Page<Employee>> page = emplBL.getEmployees(company, cursor, limit);
+
+				if (page.isOk()) {
+					return PageResponse.of(page.getValue(), serializer);
+				}
+
+				return Response.ok(page.getErrorJson()).status(400).build();
+			}
 
-			json.setLength(json.length() - 1); // Remove trailing comma
-			json.append("]");
+			Result<List<Employee>> result = emplBL.getEmployees(company);
 
-			return Response.ok(json.toString()).build();
-		}
+			// Check length of list
+			if (result.isOk()) {
+				List<Employee> employees = result.getValue();
 
-		return Response.ok(emplBL.getErrorJson()).status(400).build();
+				// Stream the rows to the response
+				JsonArrayOutput<Employee> json = new JsonArrayOutput<>(employees, serializer);
+
+				return Response.ok(json).build();
+			}
+
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
 	}
 
 	/**
@@ -105,33 +171,83 @@ public class EmployeeServices {
 	@Path("employee")
 	@POST
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response createEmployee(@FormParam("company") String company,
-	                               @FormParam("emp_name") String employeeName,
-	                               @FormParam("emp_no") String employeeNo,
-	                               @FormParam("hire_date") String hireDate,
-	                               @FormParam("job") String job,
-	                               @FormParam("salary") String salary,
-	                               @FormParam("dept_id") String departmentId,
-	                               @FormParam("mng_id") String managementId) {
-		Employee e = emplBL.createEmployee(company, employeeName, employeeNo, hireDate, job, Double.parseDouble(salary), Integer.parseInt(departmentId), Integer.parseInt(managementId));
-
-		if (e != null) {
-			// Create json
-			StringBuilder json = new StringBuilder();
-
-			// Convert date to string
-			DateFormat df = new SimpleDateFormat("yyyy-MM-dd");
-			String hire = df.format(e.getHireDate());
-
-			json.append("{\"success\": ");
-			json.append(String.format(emplBL.getJSONTemplate(), e.getId(), e.getEmpName(), e.getEmpNo(), hire,
-					e.getJob(), e.getSalary(), e.getDeptId(), e.getMngId()));
-			json.append("}");
-
-			return Response.ok(json.toString()).build();
-		}
-
-		return Response.ok(emplBL.getErrorJson()).status(400).build();
+	public CompletionStage<Response> createEmployee(@FormParam("company") String company,
+	                                                @FormParam("emp_name") String employeeName,
+	                                                @FormParam("emp_no") String employeeNo,
+	                                                @FormParam("hire_date") String hireDate,
+	                                                @FormParam("job") String job,
+	                                                @FormParam("salary") String salary,
+	                                                @FormParam("dept_id") String departmentId,
+	                                                @FormParam("mng_id") String managementId) {
+		return RequestExecutor.submit(() -> {
+			Result<Employee> result = emplBL.createEmployee(company, employeeName, employeeNo, hireDate, job, Double.parseDouble(salary), Integer.parseInt(departmentId), Integer.parseInt(managementId));
+
+			if (result.isOk()) {
+				Employee e = result.getValue();
+				String json = EmployeeSerializer.INSTANCE.toJson("{\"success\": ", e, "}");
+
+				return Response.ok(json).build();
+			}
+
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
+	}
+
+	/**
+	 * Imports employees from NDJSON (or a JSON array) or CSV with a header line, reporting the outcome of every row
+	 * and the progress after every chunk as NDJSON while the body is read.
+	 *
+	 * @param company rit username
+	 * @param input   employees with emp_name, emp_no, hire_date, job, salary, dept_id and optionally emp_id, mng_id and
+	 *                mng_emp_id
+	 * @return NDJSON report of the import
+	 */
+	@Path("employees/import")
+	@POST
+	@Consumes({"application/x-ndjson", MediaType.APPLICATION_JSON, "text/csv"})
+	@Produces("application/x-ndjson")
+	public CompletionStage<Response> importEmployees(@QueryParam("company") String company, InputStream input) {
+		return RequestExecutor.submit(() -> {
+			Result<EmployeeImport> result = emplBL.importEmployees(company);
+
+			if (!result.isOk()) {
+				return Response.ok(result.getErrorJson()).status(400).build();
+			}
+
+			Iterator<JsonNode> rows;
+
+			try {
+				// JSON starts with an object or an array, anything else is taken for the CSV header
+				PushbackInputStream body = new PushbackInputStream(input, 1);
+				int first = skipWhitespace(body);
+
+				rows = first == '{' || first == '['
+						? JsonItems.iterate(om, body)
+						: CsvItems.iterate(body);
+			} catch (IOException e) {
+				return Response.ok(Constants.JSON_PARSE_ERROR).status(400).build();
+			}
+
+			return Response.ok(new EmployeeImportOutput(result.getValue(), rows)).build();
+		});
+	}
+
+	/**
+	 * Skips leading whitespace and leaves the first other byte to be read again
+	 *
+	 * @param input stream to skip in
+	 * @return first byte that is not whitespace, -1 at the end of the stream
+	 */
+	private static int skipWhitespace(PushbackInputStream input) throws IOException {
+		int b;
+
+		do {
+			b = input.read();
+		} while (b == ' ' || b == '\t' || b == '\r' || b == '\n');
+
+		if (b >= 0) input.unread(b);
+
+		return b;
 	}
 
 	/**
@@ -144,30 +260,31 @@ public class EmployeeServices {
 	@PUT
 	@Consumes(MediaType.APPLICATION_JSON)
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response updateEmployee(String inputJson) {
-		// Parse the JSON using jackson
-		ObjectMapper om = new ObjectMapper();
+	public CompletionStage<Response> updateEmployee(String inputJson) {
+		return RequestExecutor.submit(() -> {
+			// Parse the JSON using jackson
+			JsonNode node;
+
+			try {
+				node = om.readTree(inputJson);
+			} catch (JsonProcessingException e) {
+				LOG.log(Level.FINE, "Could not parse the employee JSON", e);
+				return Response.ok(Constants.JSON_PARSE_ERROR).status(400).build();
+			}
 
-		try {
 			// Pass the JsonNode to BL to validate and process
-			JsonNode node = om.readTree(inputJson);
-			Employee e = emplBL.updateEmployee(node);
+			Result<Employee> result = emplBL.updateEmployee(node);
 
-			if (e != null) {
-				// Convert date to string
-				DateFormat df = new SimpleDateFormat("yyyy-MM-dd");
-				String hire = df.format(e.getHireDate());
+			if (result.isOk()) {
+				Employee e = result.getValue();
 
-				String json = "{\"success\": " + String.format(emplBL.getJSONTemplate(), e.getId(), e.getEmpName(), e.getEmpNo(), hire, e.getJob(), e.getSalary(), e.getDeptId(), e.getMngId()) + "}";
+				String json = EmployeeSerializer.INSTANCE.toJson("{\"success\": ", e, "}");
 
 				return Response.ok(json).build();
 			}
-		} catch (JsonProcessingException e) {
-			e.printStackTrace();
-			return Response.ok(Constants.JSON_PARSE_ERROR).status(400).build();
-		}
 
-		return Response.ok(emplBL.getErrorJson()).status(400).build();
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
 	}
 
 	/**
@@ -180,16 +297,18 @@ public class EmployeeServices {
 	@Path("employee")
 	@DELETE
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response deleteEmployee(@QueryParam("company") String company,
-	                               @QueryParam("emp_id") String employeeId) {
-		int affected = emplBL.deleteEmployee(company, Integer.parseInt(employeeId));
+	public CompletionStage<Response> deleteEmployee(@QueryParam("company") String company,
+	                                                @QueryParam("emp_id") String employeeId) {
+		return RequestExecutor.submit(() -> {
+			Result<Integer> result = emplBL.deleteEmployee(company, Integer.parseInt(employeeId));
 
-		if (affected == 1) {
-			String json = String.format("{\"success\": \"Employee %s deleted.\"}", employeeId);
+			if (result.isOk()) {
+				String json = String.format("{\"success\": \"Employee %s deleted.\"}", employeeId);
 
-			return Response.ok(json).build();
-		}
+				return Response.ok(json).build();
+			}
 
-		return Response.ok(emplBL.getErrorJson()).status(400).build();
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
 	}
 }
@@ -0,0 +1,68 @@
+package api.service;
+
+import api.json.EntitySerializer;
+import api.json.JsonBuffer;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes a list of rows as a JSON array straight to the response stream, one row at a time, instead of building the
+ * whole body in memory first
+ *
+ * @param <T> type of the rows
+ */
+public class JsonArrayOutput<T> implements StreamingOutput {
+	private static final int BUFFER_SIZE = 8192;
+
+	private final List<T> rows;
+	private final EntitySerializer<T> serializer;
+
+	public JsonArrayOutput(List<T> rows, EntitySerializer<T> serializer) {
+		this.rows = rows;
+		this.serializer = serializer;
+	}
+
+	@Override
+	public void write(OutputStream output) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+		JsonBuffer buffer = new JsonBuffer(BUFFER_SIZE);
+
+		writeArray(buffer, writer, rows, serializer);
+
+		buffer.writeTo(writer);
+		writer.flush();
+	}
+
+	/**
+	 * Writes rows as a JSON array, handing the buffer to the writer whenever it is full
+	 *
+	 * @param buffer     buffer to write into, may hold earlier output and still holds the tail of the array afterwards
+	 * @param writer     writer the buffer is drained into
+	 * @param rows       rows to write
+	 * @param serializer serializer of a row
+	 */
+	static <T> void writeArray(JsonBuffer buffer, Writer writer, List<T> rows, EntitySerializer<T> serializer) throws IOException {
+		buffer.raw('[');
+
+		for (int i = 0; i < rows.size(); i++) {
+			if (i > 0) buffer.raw(',');
+
+			serializer.write(buffer, rows.get(i));
+
+			// Hand full chunks to the writer so the buffer stays the same size for any number of rows
+			if (buffer.length() >= BUFFER_SIZE) {
+				buffer.writeTo(writer);
+				buffer.reset();
+			}
+		}
+
+		buffer.raw(']');
+	}
+}
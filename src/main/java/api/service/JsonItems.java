@@ -0,0 +1,94 @@
+package api.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the items of a bulk request body, either a JSON array of objects or NDJSON (one object per line)
+ */
+final class JsonItems {
+	private JsonItems() {
+	}
+
+	/**
+	 * Reads the items one at a time off the stream, so the body is never held as a whole
+	 *
+	 * @param om    mapper to read with
+	 * @param input request body
+	 * @param max   number of items after which reading stops, the result then holds max + 1 items
+	 * @return items of the body
+	 * @throws IOException if the body is not a JSON array or a sequence of JSON values
+	 */
+	static List<JsonNode> read(ObjectMapper om, InputStream input, int max) throws IOException {
+		List<JsonNode> items = new ArrayList<>();
+		Iterator<JsonNode> iterator = iterate(om, input);
+
+		try {
+			while (iterator.hasNext() && items.size() <= max) {
+				items.add(iterator.next());
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		return items;
+	}
+
+	/**
+	 * @param om    mapper to read with
+	 * @param input request body
+	 * @return items of the body, parsed as they are iterated. A body that turns out not to be valid JSON throws an
+	 * UncheckedIOException from hasNext() or next().
+	 * @throws IOException if the body does not start with a JSON value
+	 */
+	static Iterator<JsonNode> iterate(ObjectMapper om, InputStream input) throws IOException {
+		return new ItemIterator(om.getFactory().createParser(input));
+	}
+
+	private static final class ItemIterator implements Iterator<JsonNode> {
+		private final JsonParser parser;
+		private final boolean array;
+		private JsonToken token;
+
+		private ItemIterator(JsonParser parser) throws IOException {
+			this.parser = parser;
+			this.token = parser.nextToken();
+
+			// A JSON array holds the items, otherwise every root value is one
+			this.array = token == JsonToken.START_ARRAY;
+			if (array) token = parser.nextToken();
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (array && token == null) {
+				throw new UncheckedIOException(new IOException("Unterminated JSON array"));
+			}
+
+			return token != null && token != JsonToken.END_ARRAY;
+		}
+
+		@Override
+		public JsonNode next() {
+			if (!hasNext()) throw new NoSuchElementException();
+
+			try {
+				JsonNode item = parser.readValueAsTree();
+				token = parser.nextToken();
+				return item;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+}
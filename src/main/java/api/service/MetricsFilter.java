@@ -0,0 +1,85 @@
+package api.service;
+
+import api.metrics.Metrics;
+import api.metrics.Timer;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.IOException;
+
+/**
+ * Times every request per resource method.
+ *
+ * The clock starts before the request is matched, so requests that match no resource method, e.g. a 404, are timed
+ * too and recorded as "unmatched". The resource method is looked up once the response is ready. A request with a
+ * body is recorded once the body is written, so the streamed list responses are timed in full.
+ */
+@Provider
+@PreMatching
+public class MetricsFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+	private static final String START = MetricsFilter.class.getName() + ".start";
+	private static final String TIMER = MetricsFilter.class.getName() + ".timer";
+	private static final String ERROR = MetricsFilter.class.getName() + ".error";
+
+	@Context
+	private ResourceInfo resourceInfo;
+
+	@Override
+	public void filter(ContainerRequestContext request) {
+		request.setProperty(START, System.nanoTime());
+	}
+
+	@Override
+	public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+		Object start = request.getProperty(START);
+		if (start == null) return;
+
+		Timer timer = timer();
+		boolean error = response.getStatus() >= 400;
+
+		if (response.hasEntity()) {
+			// Recorded by aroundWriteTo() once the body is written
+			request.setProperty(TIMER, timer);
+			request.setProperty(ERROR, error);
+		} else {
+			timer.record(System.nanoTime() - (Long) start, error);
+		}
+	}
+
+	@Override
+	public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+		Object start = context.getProperty(START);
+		Object timer = context.getProperty(TIMER);
+		boolean failed = true;
+
+		try {
+			context.proceed();
+			failed = false;
+		} finally {
+			if (start != null && timer != null) {
+				((Timer) timer).record(System.nanoTime() - (Long) start, failed || (Boolean) context.getProperty(ERROR));
+			}
+		}
+	}
+
+	/**
+	 * @return timer of the matched resource method, the "unmatched" timer if no resource method matched
+	 */
+	private Timer timer() {
+		Class<?> resource = resourceInfo == null ? null : resourceInfo.getResourceClass();
+
+		if (resource == null || resourceInfo.getResourceMethod() == null) {
+			return Metrics.REQUESTS.get("unmatched", "unmatched");
+		}
+
+		return Metrics.REQUESTS.get(resource.getSimpleName(), resourceInfo.getResourceMethod().getName());
+	}
+}
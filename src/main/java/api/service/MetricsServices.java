@@ -0,0 +1,22 @@
+package api.service;
+
+import api.metrics.Metrics;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
+
+@Path("metrics")
+public class MetricsServices {
+	/**
+	 * Returns request and DataAccess metrics in the Prometheus text format
+	 *
+	 * @return metrics as text
+	 */
+	@GET
+	@Produces("text/plain; version=0.0.4")
+	public Response getMetrics() {
+		return Response.ok(Metrics.scrape()).build();
+	}
+}
@@ -0,0 +1,33 @@
+package api.service;
+
+import api.business.Cursor;
+import api.data.Page;
+import api.json.EntitySerializer;
+
+import javax.ws.rs.core.Response;
+
+/**
+ * Response of a paged list endpoint: the rows as a JSON array, with the cursor of the next page in the X-Next-Cursor
+ * header when more rows follow
+ */
+final class PageResponse {
+	static final String NEXT_CURSOR = "X-Next-Cursor";
+
+	private PageResponse() {
+	}
+
+	/**
+	 * @param page       page of rows
+	 * @param serializer serializer of a row
+	 * @return 200 response streaming the page
+	 */
+	static <T> Response of(Page<T> page, EntitySerializer<T> serializer) {
+		Response.ResponseBuilder response = Response.ok(new JsonArrayOutput<>(page.getRows(), serializer));
+
+		if (page.hasMore()) {
+			response.header(NEXT_CURSOR, Cursor.encode(page.getLastId()));
+		}
+
+		return response.build();
+	}
+}
@@ -0,0 +1,23 @@
+package api.service;
+
+import api.data.PoolTimeoutException;
+import api.utils.Constants;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Maps an exhausted DataLayer pool to a 503 so clients know to back off and retry
+ */
+@Provider
+public class PoolTimeoutExceptionMapper implements ExceptionMapper<PoolTimeoutException> {
+	@Override
+	public Response toResponse(PoolTimeoutException e) {
+		return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+				.type(MediaType.APPLICATION_JSON)
+				.entity(Constants.BUSY_JSON)
+				.build();
+	}
+}
@@ -0,0 +1,104 @@
+package api.service;
+
+import api.metrics.CallTrace;
+import api.metrics.Metrics;
+import api.utils.Constants;
+import api.utils.VirtualThreadExecutor;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Bounded pool the resource methods run their business calls on, so a slow DataLayer round trip holds one of these
+ * threads instead of a container request thread.
+ *
+ * When every thread is busy and the queue is full a request is answered with 503 right away instead of waiting. The
+ * CallTrace of the request moves with it to the thread it runs on.
+ *
+ * With companyservices.request.virtualThreads on a Java 21 JVM every request gets a virtual thread of its own
+ * instead, up to companyservices.request.maxInFlight at once. Blocked on a DataLayer round trip or on a free handle
+ * of the DataLayerPool, a virtual thread gives its carrier thread back, so requests that are answered from the caches
+ * are not stuck behind the ones waiting for the database. The pool still caps the number of connections.
+ */
+final class RequestExecutor {
+	private static final Logger LOG = Logger.getLogger(RequestExecutor.class.getName());
+	private static final Executor EXECUTOR = Constants.REQUEST_VIRTUAL_THREADS
+			? createVirtualExecutor(Constants.REQUEST_MAX_IN_FLIGHT)
+			: createExecutor(Constants.REQUEST_THREADS, Constants.REQUEST_QUEUE_SIZE);
+
+	private RequestExecutor() {
+	}
+
+	private static ThreadPoolExecutor createExecutor(int threads, int queueSize) {
+		AtomicInteger count = new AtomicInteger();
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueSize),
+				r -> {
+					Thread thread = new Thread(r, "request-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		Metrics.REQUEST_EXECUTOR.bind(executor);
+
+		return executor;
+	}
+
+	private static Executor createVirtualExecutor(int maxInFlight) {
+		if (!VirtualThreadExecutor.isSupported()) {
+			LOG.warning("companyservices.request.virtualThreads needs Java 21 or later, using platform threads");
+			return createExecutor(Constants.REQUEST_THREADS, Constants.REQUEST_QUEUE_SIZE);
+		}
+
+		VirtualThreadExecutor executor = new VirtualThreadExecutor("request-", maxInFlight);
+		Metrics.REQUEST_EXECUTOR.bind(executor::getRunning, executor::getCompleted);
+
+		return executor;
+	}
+
+	/**
+	 * Runs the body of a resource method on the pool
+	 *
+	 * @param call body of the resource method
+	 * @return response of the call, or a 503 if the pool is full. Exceptions the call throws complete it as they
+	 * are, so the ExceptionMappers still apply.
+	 */
+	static CompletionStage<Response> submit(Supplier<Response> call) {
+		CallTrace trace = CallTrace.end();
+		CompletableFuture<Response> response = new CompletableFuture<>();
+
+		try {
+			EXECUTOR.execute(() -> {
+				CallTrace previous = CallTrace.attach(trace);
+
+				try {
+					response.complete(call.get());
+				} catch (Throwable e) {
+					response.completeExceptionally(e);
+				} finally {
+					CallTrace.detach(previous);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			Metrics.REQUEST_EXECUTOR.rejected();
+			response.complete(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+					.type(MediaType.APPLICATION_JSON)
+					.entity(Constants.BUSY_JSON)
+					.build());
+		}
+
+		return response;
+	}
+}
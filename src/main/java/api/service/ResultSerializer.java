@@ -0,0 +1,30 @@
+package api.service;
+
+import api.business.Result;
+import api.json.EntitySerializer;
+import api.json.JsonBuffer;
+
+/**
+ * Writes the outcome of one item of a bulk request the way the single item endpoint would respond, either
+ * {"success": {...}} or the error json
+ *
+ * @param <T> type of the created entity
+ */
+class ResultSerializer<T> implements EntitySerializer<Result<T>> {
+	private final EntitySerializer<T> serializer;
+
+	ResultSerializer(EntitySerializer<T> serializer) {
+		this.serializer = serializer;
+	}
+
+	@Override
+	public void write(JsonBuffer out, Result<T> result) {
+		if (result.isOk()) {
+			out.raw("{\"success\": ");
+			serializer.write(out, result.getValue());
+			out.raw('}');
+		} else {
+			out.raw(result.getErrorJson());
+		}
+	}
+}
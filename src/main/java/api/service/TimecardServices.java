@@ -1,6 +1,10 @@
 package api.service;
 
+import api.business.Result;
+import api.data.Page;
 import api.business.TimecardBusiness;
+import api.json.EntitySerializer;
+import api.json.TimecardSerializer;
 import api.utils.Constants;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -10,16 +14,24 @@ import companydata.Timecard;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @Path("CompanyServices")
 public class TimecardServices {
-	private TimecardBusiness timecardBL;
+	private static final Logger LOG = Logger.getLogger(TimecardServices.class.getName());
+	private static final ResultSerializer<Timecard> RESULT_SERIALIZER = new ResultSerializer<>(TimecardSerializer.INSTANCE);
+
+	private final TimecardBusiness timecardBL;
+	private final ObjectMapper om;
 
 	public TimecardServices() {
 		this.timecardBL = new TimecardBusiness();
+		this.om = new ObjectMapper();
 	}
 
 	/**
@@ -27,68 +39,97 @@ public class TimecardServices {
 	 *
 	 * @param company    rit username
 	 * @param timecardId timecard id
+	 * @param fields     comma separated fields to return, all fields if omitted
 	 * @return json of fetched timecard
 	 */
 	@Path("timecard")
 	@GET
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response getTimecard(@QueryParam("company") String company,
-	                            @QueryParam("timecard_id") String timecardId) {
-		Timecard t = timecardBL.getTimecard(company, Integer.parseInt(timecardId));
-
-		if (t != null) {
-			StringBuilder json = new StringBuilder();
+	public CompletionStage<Response> getTimecard(@QueryParam("company") String company,
+	                                             @QueryParam("timecard_id") String timecardId,
+	                                             @QueryParam("fields") String fields) {
+		return RequestExecutor.submit(() -> {
+			EntitySerializer<Timecard> serializer = TimecardSerializer.FIELDS.select(fields, TimecardSerializer.INSTANCE);
+
+			if (serializer == null) {
+				return Response.ok(Constants.FIELDS_ERROR_JSON).status(400).build();
+			}
 
-			// Convert timestamps to String
-			DateFormat df = new SimpleDateFormat(Constants.TIMESTAMP_FORMAT);
-			String start = df.format(t.getStartTime());
-			String end = df.format(t.getEndTime());
+			Result<Timecard> result = timecardBL.getTimecard(company, Integer.parseInt(timecardId));
 
-			json.append(String.format(timecardBL.getJSONTemplate(), t.getId(), start, end, t.getEmpId()));
+			if (result.isOk()) {
+				Timecard t = result.getValue();
+				String json = serializer.toJson(t);
 
-			return Response.ok(json.toString()).build();
-		}
+				return Response.ok(json).build();
+			}
 
-		return Response.ok(timecardBL.getErrorJson()).status(400).build();
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
 	}
 
 	/**
-	 * Returns the requested list of Timecards.
+	 * Returns the requested list of Timecards, the Timecards with the given ids when ids is given, or one page of
+	 * the list when a cursor or limit is given.
 	 *
 	 * @param company    rit username
-	 * @param employeeId id of employee to query timecards for
+	 * @param employeeId id of employee to query timecards for, not needed with ids
+	 * @param ids        comma separated timecard ids to fetch instead of the list of an employee
+	 * @param cursor     X-Next-Cursor of the previous page, omit for the first page
+	 * @param limit      maximum number of timecards per page
+	 * @param fields     comma separated fields to return, all fields if omitted
 	 * @return json list of timecards
 	 */
 	@Path("timecards")
 	@GET
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response getTimecards(@QueryParam("company") String company,
-	                             @QueryParam("emp_id") String employeeId) {
-		List<Timecard> timecards = timecardBL.getTimecards(company, Integer.parseInt(employeeId));
+	public CompletionStage<Response> getTimecards(@QueryParam("company") String company,
+	                                              @QueryParam("emp_id") String employeeId,
+	                                              @QueryParam("ids") String ids,
+	                                              @QueryParam("cursor") String cursor,
+	                                              @QueryParam("limit") String limit,
+	                                              @QueryParam("fields") String fields) {
+		return RequestExecutor.submit(() -> {
+			EntitySerializer<Timecard> serializer = TimecardSerializer.FIELDS.select(fields, TimecardSerializer.INSTANCE);
+
+			if (serializer == null) {
+				return Response.ok(Constants.FIELDS_ERROR_JSON).status(400).build();
+			}
+
+			if (ids != null) {
+				Result<List<Timecard>> found = timecardBL.getTimecardsById(company, ids);
 
-		// Check length of list
-		if (timecards.size() > 0) {
-			// Create json
-			StringBuilder json = new StringBuilder();
-			json.append("[");
+				if (found.isOk()) {
+					return Response.ok(new JsonArrayOutput<>(found.getValue(), serializer)).build();
+				}
 
-			timecards.forEach(t -> {
-				// Convert timestamps to String
-				DateFormat df = new SimpleDateFormat(Constants.TIMESTAMP_FORMAT);
-				String start = df.format(t.getStartTime());
-				String end = df.format(t.getEndTime());
+				return Response.ok(found.getErrorJson()).status(400).build();
+			}
 
-				json.append(String.format(timecardBL.getJSONTemplate(), t.getId(), start, end, t.getEmpId()));
-				json.append(",");
-			});
+			if (cursor != null || limit != null) {
+				Result<Page<Timecard>> page = timecardBL.getTimecards(company, Integer.parseInt(employeeId), cursor, limit);
 
-			json.setLength(json.length() - 1); // Remove trailing comma
-			json.append("]");
+				if (page.isOk()) {
+					return PageResponse.of(page.getValue(), serializer);
+				}
 
-			return Response.ok(json.toString()).build();
-		}
+				return Response.ok(page.getErrorJson()).status(400).build();
+			}
+
+			Result<List<Timecard>> result = timecardBL.getTimecards(company, Integer.parseInt(employeeId));
+
+			// Check length of list
+			if (result.isOk()) {
+				List<Timecard> timecards = result.getValue();
+
+				// Stream the rows to the response
+				JsonArrayOutput<Timecard> json = new JsonArrayOutput<>(timecards, serializer);
+
+				return Response.ok(json).build();
+			}
 
-		return Response.ok(timecardBL.getErrorJson()).status(400).build();
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
 	}
 
 	/**
@@ -106,29 +147,53 @@ public class TimecardServices {
 	@POST
 	@Consumes(MediaType.APPLICATION_FORM_URLENCODED)
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response createTimecard(@FormParam("company") String company,
-	                               @FormParam("emp_id") String employeeId,
-	                               @FormParam("start_time") String startTime,
-	                               @FormParam("end_time") String endTime) {
-		Timecard t = timecardBL.createTimecard(company, Integer.parseInt(employeeId), startTime, endTime);
+	public CompletionStage<Response> createTimecard(@FormParam("company") String company,
+	                                                @FormParam("emp_id") String employeeId,
+	                                                @FormParam("start_time") String startTime,
+	                                                @FormParam("end_time") String endTime) {
+		return RequestExecutor.submit(() -> {
+			Result<Timecard> result = timecardBL.createTimecard(company, Integer.parseInt(employeeId), startTime, endTime);
+
+			if (result.isOk()) {
+				Timecard t = result.getValue();
+				String json = TimecardSerializer.INSTANCE.toJson("{ \"success\": ", t, "}");
+
+				return Response.ok(json).build();
+			}
 
-		if (t != null) {
-			// Create json
-			StringBuilder json = new StringBuilder();
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
+	}
 
-			// Convert timestamps to String
-			DateFormat df = new SimpleDateFormat(Constants.TIMESTAMP_FORMAT);
-			String start = df.format(t.getStartTime());
-			String end = df.format(t.getEndTime());
+	/**
+	 * Creates a batch of Timecards and returns the outcome of each.
+	 *
+	 * @param company rit username
+	 * @param input   JSON array or NDJSON of timecards with emp_id, start_time and end_time
+	 * @return json list with {"success": timecard} or {"error": ...} per timecard, in the order they were sent
+	 */
+	@Path("timecards")
+	@POST
+	@Consumes({MediaType.APPLICATION_JSON, "application/x-ndjson"})
+	@Produces(MediaType.APPLICATION_JSON)
+	public CompletionStage<Response> createTimecards(@QueryParam("company") String company, InputStream input) {
+		return RequestExecutor.submit(() -> {
+			List<JsonNode> items;
+
+			try {
+				items = JsonItems.read(om, input, Constants.BULK_MAX_ITEMS);
+			} catch (IOException e) {
+				return Response.ok(Constants.JSON_PARSE_ERROR).status(400).build();
+			}
 
-			json.append("{ " + "\"success\": ");
-			json.append(String.format(timecardBL.getJSONTemplate(), t.getId(), start, end, t.getEmpId()));
-			json.append("}");
+			Result<List<Result<Timecard>>> result = timecardBL.createTimecards(company, items);
 
-			return Response.ok(json.toString()).build();
-		}
+			if (result.isOk()) {
+				return Response.ok(new JsonArrayOutput<>(result.getValue(), RESULT_SERIALIZER)).build();
+			}
 
-		return Response.ok(timecardBL.getErrorJson()).status(400).build();
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
 	}
 
 	/**
@@ -141,36 +206,31 @@ public class TimecardServices {
 	@PUT
 	@Consumes(MediaType.APPLICATION_JSON)
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response updateTimecard(String inputJson) {
-		// Parse the JSON using jackson
-		ObjectMapper om = new ObjectMapper();
+	public CompletionStage<Response> updateTimecard(String inputJson) {
+		return RequestExecutor.submit(() -> {
+			// Parse the JSON using jackson
+			JsonNode node;
+
+			try {
+				node = om.readTree(inputJson);
+			} catch (JsonProcessingException e) {
+				LOG.log(Level.FINE, "Could not parse the timecard JSON", e);
+				return Response.ok(Constants.JSON_PARSE_ERROR).status(400).build();
+			}
 
-		try {
 			// Pass the JsonNode to BL to validate and process
-			JsonNode node = om.readTree(inputJson);
-			Timecard t = timecardBL.updateTimecard(node);
-
-			if (t != null) {
-				// Create json
-				StringBuilder json = new StringBuilder();
+			Result<Timecard> result = timecardBL.updateTimecard(node);
 
-				// Convert timestamps to String
-				DateFormat df = new SimpleDateFormat(Constants.TIMESTAMP_FORMAT);
-				String start = df.format(t.getStartTime());
-				String end = df.format(t.getEndTime());
+			if (result.isOk()) {
+				Timecard t = result.getValue();
 
-				json.append("{ " + "\"success\": ");
-				json.append(String.format(timecardBL.getJSONTemplate(), t.getId(), start, end, t.getEmpId()));
-				json.append("}");
+				String json = TimecardSerializer.INSTANCE.toJson("{ \"success\": ", t, "}");
 
-				return Response.ok(json.toString()).build();
+				return Response.ok(json).build();
 			}
-		} catch (JsonProcessingException e) {
-			e.printStackTrace();
-			return Response.ok(Constants.JSON_PARSE_ERROR).status(400).build();
-		}
 
-		return Response.ok(timecardBL.getErrorJson()).status(400).build();
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
 	}
 
 	/**
@@ -183,16 +243,18 @@ public class TimecardServices {
 	@Path("timecard")
 	@DELETE
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response deleteTimecard(@QueryParam("company") String company,
-	                               @QueryParam("timecard_id") String timecardId) {
-		int affected = timecardBL.deleteTimecard(company, Integer.parseInt(timecardId));
+	public CompletionStage<Response> deleteTimecard(@QueryParam("company") String company,
+	                                                @QueryParam("timecard_id") String timecardId) {
+		return RequestExecutor.submit(() -> {
+			Result<Integer> result = timecardBL.deleteTimecard(company, Integer.parseInt(timecardId));
 
-		if (affected == 1) {
-			String json = String.format("{\"success\": \"Timecard %s deleted.\"}", timecardId);
+			if (result.isOk()) {
+				String json = String.format("{\"success\": \"Timecard %s deleted.\"}", timecardId);
 
-			return Response.ok(json).build();
-		}
+				return Response.ok(json).build();
+			}
 
-		return Response.ok(timecardBL.getErrorJson()).status(400).build();
+			return Response.ok(result.getErrorJson()).status(400).build();
+		});
 	}
 }
@@ -8,6 +8,12 @@ public class Constants {
 	public static final String JSON_PARSE_ERROR = "{" +
 			"\"error\": \"Could not parse JSON!\"" +
 			"}";
+	public static final String BUSY_JSON = "{" +
+			"\"error\": \"The service is busy, please try again later!\"" +
+			"}";
+	public static final String FIELDS_ERROR_JSON = "{" +
+			"\"error\": \"Unknown field requested!\"" +
+			"}";
 	public static final String TIMESTAMP_FORMAT = "yyyy-MM-dd HH:mm:ss";
 	public static final String HIREDATE_FORMAT = "yyyy-MM-dd";
 	public static final String DEPARTMENT_TEMPLATE = "{" +
@@ -33,4 +39,25 @@ public class Constants {
 			"\"end_time\": \"%s\", " +
 			"\"emp_id\": %d" +
 			"}";
+
+	public static final String DATA_ACCESS = System.getProperty("companyservices.dataAccess", "mysql");
+	public static final boolean TRACE_DEBUG = Boolean.getBoolean("companyservices.trace.debug");
+	public static final int TRACE_CALL_BUDGET = Integer.getInteger("companyservices.trace.callBudget", 10);
+	public static final int PAGE_DEFAULT_LIMIT = Integer.getInteger("companyservices.page.defaultLimit", 100);
+	public static final int PAGE_MAX_LIMIT = Integer.getInteger("companyservices.page.maxLimit", 1000);
+	public static final int MULTI_GET_MAX_IDS = Integer.getInteger("companyservices.multiGet.maxIds", 1000);
+	public static final int BULK_MAX_ITEMS = Integer.getInteger("companyservices.bulk.maxItems", 10000);
+	public static final int BULK_BATCH_SIZE = Integer.getInteger("companyservices.bulk.batchSize", 100);
+	public static final int DELETE_CHUNK_SIZE = Integer.getInteger("companyservices.delete.chunkSize", 500);
+	public static final int REQUEST_THREADS = Integer.getInteger("companyservices.request.threads", 32);
+	public static final int REQUEST_QUEUE_SIZE = Integer.getInteger("companyservices.request.queueSize", 256);
+	public static final boolean REQUEST_VIRTUAL_THREADS = Boolean.getBoolean("companyservices.request.virtualThreads");
+	public static final int REQUEST_MAX_IN_FLIGHT = Integer.getInteger("companyservices.request.maxInFlight", 10000);
+	public static final int LOOKUP_THREADS = Integer.getInteger("companyservices.lookup.threads", 20);
+	public static final long LOOKUP_TIMEOUT_MS = Long.getLong("companyservices.lookup.timeoutMs", 5000);
+	public static final int POOL_MAX_SIZE = Integer.getInteger("companyservices.pool.maxSize", 20);
+	public static final long POOL_BORROW_TIMEOUT_MS = Long.getLong("companyservices.pool.borrowTimeoutMs", 5000);
+	public static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("companyservices.pool.idleTimeoutMs", 60000);
+	public static final int EMPLOYEE_CACHE_CAPACITY = Integer.getInteger("companyservices.employeeCache.capacity", 10000);
+	public static final long EMPLOYEE_CACHE_TTL_MS = Long.getLong("companyservices.employeeCache.ttlMs", 300000);
 }
@@ -1,38 +1,120 @@
 package api.utils;
 
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
 import java.util.Date;
 
 /**
- * Validates a String to see if the date is a valid date
+ * Validates a String to see if the date is a valid date.
+ *
+ * Instances are immutable apart from the cached current day and can be shared between threads. Invalid input is
+ * reported through the return values, nothing is thrown or printed.
+ *
+ * Dates are read the way a non-lenient SimpleDateFormat reads them: numeric fields may have any number of digits
+ * ("2026-10-9" is a yyyy-MM-dd date), text after the last field is ignored and out of range values are invalid.
  */
 public class DateValidator {
-	private DateFormat df;
+	public static final DateValidator HIRE_DATE = new DateValidator(Constants.HIREDATE_FORMAT);
+	public static final DateValidator TIMESTAMP = new DateValidator(Constants.TIMESTAMP_FORMAT);
+
+	private static final long ONE_WEEK_MILLIS = 604800000;
+	private static final long ONE_HOUR_MILLIS = 3600000;
+
+	/**
+	 * Pattern letters in the order of the parsed fields: year, month, day, hour, minute and second
+	 */
+	private static final String FIELDS = "yMdHms";
+	private static final int MAX_DIGITS = 10;
+
+	private final String pattern;
+	private final Clock clock;
+	private final ZoneId zone;
+	private volatile Today today;
 
 	public DateValidator(String dateFormat) {
-		this.df = new SimpleDateFormat(dateFormat);
+		this(dateFormat, Clock.systemDefaultZone());
+	}
+
+	public DateValidator(String dateFormat, Clock clock) {
+		for (char c : dateFormat.toCharArray()) {
+			if (Character.isLetter(c) && FIELDS.indexOf(c) < 0) {
+				throw new IllegalArgumentException("Unsupported pattern letter " + c);
+			}
+		}
+
+		this.pattern = dateFormat;
+		this.clock = clock;
+		this.zone = clock.getZone();
 	}
 
 	/**
-	 * Validates a date
+	 * Parses a date, fields missing from the format (e.g. the time of a hire date) are zero
 	 *
 	 * @param date date in string
-	 * @return boolean
+	 * @return parsed date or null if the string does not start with a valid date in the format
 	 */
-	private boolean isValid(String date) {
-		df.setLenient(false);
-
-		try {
-			df.parse(date);
-		} catch (ParseException e) {
-			e.printStackTrace();
-			return false;
+	public LocalDateTime parse(String date) {
+		if (date == null) return null;
+
+		long[] fields = {-1, -1, -1, 0, 0, 0};
+		int position = 0;
+		int i = 0;
+
+		while (i < pattern.length()) {
+			char c = pattern.charAt(i);
+			int end = i;
+
+			while (end < pattern.length() && pattern.charAt(end) == c) end++;
+
+			if (Character.isLetter(c)) {
+				// Like SimpleDateFormat, whitespace before a number is skipped and the number has any width
+				while (position < date.length() && Character.isWhitespace(date.charAt(position))) position++;
+
+				int digits = position;
+				long value = 0;
+
+				while (position < date.length() && position - digits < MAX_DIGITS &&
+						Character.isDigit(date.charAt(position))) {
+					value = value * 10 + Character.digit(date.charAt(position), 10);
+					position++;
+				}
+
+				if (position == digits) return null;
+
+				fields[FIELDS.indexOf(c)] = value;
+			} else {
+				if (!date.startsWith(pattern.substring(i, end), position)) return null;
+
+				position += end - i;
+			}
+
+			i = end;
 		}
 
-		return true;
+		// Text after the date is ignored, as SimpleDateFormat.parse does
+		long year = fields[0];
+		long month = fields[1];
+		long day = fields[2];
+		long hour = fields[3];
+		long minute = fields[4];
+		long second = fields[5];
+
+		// Range check everything up front so building the date cannot throw
+		if (year < 1 || year > Year.MAX_VALUE ||
+				month < 1 || month > 12 ||
+				day < 1 || day > Month.of((int) month).length(Year.isLeap(year)) ||
+				hour < 0 || hour > 23 ||
+				minute < 0 || minute > 59 ||
+				second < 0 || second > 59) {
+			return null;
+		}
+
+		return LocalDateTime.of((int) year, (int) month, (int) day, (int) hour, (int) minute, (int) second);
 	}
 
 	/**
@@ -43,30 +125,15 @@ public class DateValidator {
 	 * @return boolean
 	 */
 	public boolean checkHireDate(String hireDate) {
-		// Get current
-		Date date = new Date();
+		LocalDateTime hire = parse(hireDate);
 
-		try {
-			Date current = df.parse(df.format(date));
-			Date hire = df.parse(hireDate);
+		if (hire == null) return false;
 
-			// Convert to time in milliseconds
-			long currTime = current.getTime();
-			long hireTime = hire.getTime();
-
-			// Calendar.DAY_OF_WEEK returns 2 - 6 for M - F
-			int hireDay = dateToCal(hire).get(Calendar.DAY_OF_WEEK);
-
-			if ((hireDay >= 2 && hireDay <= 6) &&
-					hireTime <= currTime) {
-				return true;
-			}
-		} catch (ParseException e) {
-			e.printStackTrace();
-			return false;
-		}
+		DayOfWeek hireDay = hire.getDayOfWeek();
 
-		return false;
+		return hireDay != DayOfWeek.SATURDAY &&
+				hireDay != DayOfWeek.SUNDAY &&
+				!hire.toLocalDate().isAfter(today());
 	}
 
 	/**
@@ -79,74 +146,66 @@ public class DateValidator {
 	 * @return boolean
 	 */
 	public boolean validateTimestamps(String start, String end) {
-		// Check if timestamps for valid
-		if (isValid(start) && isValid(end)) {
-			Date date = new Date();
-
-			// Check if start time is equal to current date or up to 1 week ago
-			try {
-				// Get current date
-				Date current = df.parse(df.format(date));
-
-				// Get start and end date
-				Date startDate = df.parse(start);
-				Date endDate = df.parse(end);
-
-				// Convert to time (milliseconds)
-				long currTime = current.getTime();
-				long currMinusOneWeek = currTime - 604800000;
-				long startTime = startDate.getTime();
-				long endTime = endDate.getTime();
-				long startTimePlusOneHour = startTime + 3600000;
-
-				if (startTime >= currMinusOneWeek && startTime <= currTime) {
-
-					// Convert the dates to calendar
-					int startDay = dateToCal(startDate).get(Calendar.DATE);
-					int endDay = dateToCal(endDate).get(Calendar.DATE);
-
-					int startMonth = dateToCal(startDate).get(Calendar.MONTH);
-					int endMonth = dateToCal(endDate).get(Calendar.MONTH);
-
-					// Check if end time is equal to at least 1 hour greater than start time and be
-					// on the same month + day as the start time
-					if (endTime >= startTimePlusOneHour && startDay == endDay && startMonth == endMonth) {
-						return true;
-					}
-				}
-			} catch (ParseException e) {
-				e.printStackTrace();
-				return false;
-			}
-		}
+		LocalDateTime startDate = parse(start);
+		LocalDateTime endDate = parse(end);
+
+		if (startDate == null || endDate == null) return false;
+
+		// Current time to the second, as precise as the format
+		long now = clock.millis();
+		long currTime = now - Math.floorMod(now, 1000);
+		long currMinusOneWeek = currTime - ONE_WEEK_MILLIS;
 
-		return false;
+		long startTime = startDate.atZone(zone).toInstant().toEpochMilli();
+		long endTime = endDate.atZone(zone).toInstant().toEpochMilli();
+
+		// Check if start time is equal to current date or up to 1 week ago, if end time is at least 1 hour greater
+		// than start time and on the same month + day as the start time
+		return startTime >= currMinusOneWeek && startTime <= currTime &&
+				endTime >= startTime + ONE_HOUR_MILLIS &&
+				startDate.getDayOfMonth() == endDate.getDayOfMonth() &&
+				startDate.getMonthValue() == endDate.getMonthValue();
 	}
 
 	/**
 	 * Converts date in string to Date object
 	 *
 	 * @param date string
-	 * @return string in Date
+	 * @return string in Date or null if the string is not a valid date
 	 */
 	public Date stringToDate(String date) {
-		try {
-			return df.parse(date);
-		} catch (ParseException e) {
-			e.printStackTrace();
-			return null;
-		}
+		LocalDateTime parsed = parse(date);
+
+		return parsed == null ? null : Date.from(parsed.atZone(zone).toInstant());
 	}
 
 	/**
-	 * Converts a Date object to a Calendar object
-	 *
-	 * @param date date
-	 * @return calendar of date
+	 * @return current date, recomputed only once the cached day is over
 	 */
-	private Calendar dateToCal(Date date) {
-		Calendar cal = Calendar.getInstance();
-		cal.setTime(date);
-		return cal;
+	private LocalDate today() {
+		long now = clock.millis();
+		Today cached = today;
+
+		if (cached == null || now < cached.startMillis || now >= cached.endMillis) {
+			LocalDate date = LocalDate.now(clock);
+			cached = new Today(date,
+					date.atStartOfDay(zone).toInstant().toEpochMilli(),
+					date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+			today = cached;
+		}
+
+		return cached.date;
+	}
+
+	private static final class Today {
+		private final LocalDate date;
+		private final long startMillis;
+		private final long endMillis;
+
+		private Today(LocalDate date, long startMillis, long endMillis) {
+			this.date = date;
+			this.startMillis = startMillis;
+			this.endMillis = endMillis;
+		}
 	}
 }
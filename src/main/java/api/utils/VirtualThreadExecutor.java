@@ -0,0 +1,104 @@
+package api.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs every task on a new virtual thread, with at most maxInFlight tasks running at once.
+ *
+ * Virtual threads need Java 21, the build targets 1.8, so the thread factory is looked up through reflection and
+ * isSupported() tells whether the running JVM has them. A task submitted while maxInFlight tasks are running is
+ * rejected rather than queued, there is no pool of threads to wait for.
+ */
+public final class VirtualThreadExecutor implements Executor {
+	private final ThreadFactory factory;
+	private final Semaphore permits;
+	private final AtomicLong completed = new AtomicLong();
+	private final int maxInFlight;
+
+	/**
+	 * @param name        prefix of the thread names, e.g. "request-" for request-1, request-2 and so on
+	 * @param maxInFlight most tasks running at once
+	 * @throws UnsupportedOperationException if the JVM has no virtual threads
+	 */
+	public VirtualThreadExecutor(String name, int maxInFlight) {
+		if (maxInFlight <= 0) throw new IllegalArgumentException("maxInFlight must be positive");
+
+		this.factory = factory(name);
+		this.permits = new Semaphore(maxInFlight);
+		this.maxInFlight = maxInFlight;
+	}
+
+	/**
+	 * @return true if the running JVM has virtual threads, which Java 19 and 20 only have as a preview feature
+	 */
+	public static boolean isSupported() {
+		try {
+			factory("probe-");
+			return true;
+		} catch (UnsupportedOperationException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return Thread.ofVirtual().name(name, 1).factory()
+	 */
+	private static ThreadFactory factory(String name) {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+			Method naming = builderType.getMethod("name", String.class, long.class);
+
+			builder = naming.invoke(builder, name, 1L);
+			return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException e) {
+			throw new UnsupportedOperationException("Could not create virtual threads", e);
+		}
+	}
+
+	/**
+	 * Starts the task on a new virtual thread
+	 *
+	 * @param task task to run
+	 * @throws RejectedExecutionException if maxInFlight tasks are running
+	 */
+	@Override
+	public void execute(Runnable task) {
+		if (!permits.tryAcquire()) {
+			throw new RejectedExecutionException(maxInFlight + " tasks are running already");
+		}
+
+		try {
+			factory.newThread(() -> {
+				try {
+					task.run();
+				} finally {
+					completed.incrementAndGet();
+					permits.release();
+				}
+			}).start();
+		} catch (RuntimeException | Error e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return number of tasks running
+	 */
+	public int getRunning() {
+		return maxInFlight - permits.availablePermits();
+	}
+
+	/**
+	 * @return number of tasks that have finished
+	 */
+	public long getCompleted() {
+		return completed.get();
+	}
+}
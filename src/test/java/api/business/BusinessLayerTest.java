@@ -0,0 +1,107 @@
+package api.business;
+
+import api.cache.CompanyCaches;
+import api.data.InMemoryDataAccess;
+import api.utils.Constants;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import companydata.Department;
+import companydata.Employee;
+import companydata.Timecard;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that employees of another company are rejected by the multi-id lookups whether they are cached or not
+ */
+public class BusinessLayerTest {
+	private static final String OTHER_COMPANY = "other";
+
+	private InMemoryDataAccess dl;
+	private Employee own;
+	private Employee foreign;
+
+	@Before
+	public void setUp() {
+		CompanyCaches.invalidate(Constants.USERNAME);
+		CompanyCaches.invalidate(OTHER_COMPANY);
+
+		dl = new InMemoryDataAccess();
+		int ownDepartment = dl.insertDepartment(new Department(Constants.USERNAME, "Test", "test-d1", "Rochester"))
+				.getId();
+		int foreignDepartment = dl.insertDepartment(new Department(OTHER_COMPANY, "Other", "other-d1", "Buffalo"))
+				.getId();
+
+		own = dl.insertEmployee(new Employee("Own", "test-e1", Date.valueOf("2020-01-06"), "Programmer", 5000.0,
+				ownDepartment, 0));
+		foreign = dl.insertEmployee(new Employee("Foreign", "other-e1", Date.valueOf("2020-01-06"), "Programmer",
+				5000.0, foreignDepartment, 0));
+	}
+
+	@After
+	public void tearDown() {
+		CompanyCaches.invalidate(Constants.USERNAME);
+		CompanyCaches.invalidate(OTHER_COMPANY);
+	}
+
+	@Test
+	public void getEmployeesByIdSkipsForeignEmployees() {
+		EmployeeBusiness business = new EmployeeBusiness(dl);
+		String ids = own.getId() + "," + foreign.getId();
+
+		assertEquals(1, business.getEmployeesById(Constants.USERNAME, ids).getValue().size());
+
+		// Now both are cached
+		CompanyCaches.EMPLOYEES.put(foreign);
+		List<Employee> found = business.getEmployeesById(Constants.USERNAME, ids).getValue();
+
+		assertEquals(1, found.size());
+		assertEquals(own.getId(), found.get(0).getId());
+	}
+
+	@Test
+	public void createTimecardsRejectsForeignEmployees() {
+		assertForeignRejected(new TimecardBusiness(dl).createTimecards(Constants.USERNAME, items()));
+	}
+
+	@Test
+	public void createTimecardsRejectsCachedForeignEmployees() {
+		CompanyCaches.EMPLOYEES.put(own);
+		CompanyCaches.EMPLOYEES.put(foreign);
+
+		assertForeignRejected(new TimecardBusiness(dl).createTimecards(Constants.USERNAME, items()));
+	}
+
+	private static void assertForeignRejected(Result<List<Result<Timecard>>> result) {
+		assertTrue(result.isOk());
+		assertTrue(result.getValue().get(0).isOk());
+		assertEquals("{\"error\": \"Employee does not exist!\"}", result.getValue().get(1).getErrorJson());
+	}
+
+	private List<JsonNode> items() {
+		List<JsonNode> items = new ArrayList<>();
+		items.add(timecard(own.getId()));
+		items.add(timecard(foreign.getId()));
+		return items;
+	}
+
+	private static ObjectNode timecard(int employeeId) {
+		String day = LocalDate.now().minusDays(1).toString();
+
+		ObjectNode node = new ObjectMapper().createObjectNode();
+		node.put("emp_id", employeeId);
+		node.put("start_time", day + " 08:00:00");
+		node.put("end_time", day + " 17:00:00");
+		return node;
+	}
+}
@@ -0,0 +1,77 @@
+package api.business;
+
+import api.cache.CompanyCaches;
+import api.data.InMemoryDataAccess;
+import api.data.TimedDataAccess;
+import api.metrics.CallTrace;
+import api.utils.Constants;
+import companydata.Department;
+import companydata.Employee;
+import companydata.Timecard;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that every lookup of the employee details is recorded in the CallTrace of the request
+ */
+public class EmployeeDetailsTest {
+	private EmployeeBusiness business;
+	private int employeeId;
+
+	@Before
+	public void setUp() {
+		CompanyCaches.invalidate(Constants.USERNAME);
+
+		InMemoryDataAccess dl = new InMemoryDataAccess();
+		int departmentId = dl.insertDepartment(new Department(Constants.USERNAME, "Test", "test-d1", "Rochester"))
+				.getId();
+		employeeId = dl.insertEmployee(new Employee("Test", "test-e1", Date.valueOf("2020-01-06"), "Programmer",
+				5000.0, departmentId, 0)).getId();
+		dl.insertTimecard(new Timecard(Timestamp.valueOf("2020-01-06 08:00:00"),
+				Timestamp.valueOf("2020-01-06 17:00:00"), employeeId));
+
+		business = new EmployeeBusiness(new TimedDataAccess(dl));
+	}
+
+	@After
+	public void tearDown() {
+		CompanyCaches.invalidate(Constants.USERNAME);
+		CallTrace.end();
+	}
+
+	@Test
+	public void tracesEmployeeDepartmentAndTimecards() {
+		// The department lookup depends on the employee, repeat so it runs both before and after the employee's
+		// future completes
+		for (int i = 0; i < 200; i++) {
+			CompanyCaches.invalidate(Constants.USERNAME);
+			CallTrace trace = CallTrace.begin();
+
+			Result<EmployeeDetails> result = business.getEmployeeDetails(Constants.USERNAME, employeeId);
+
+			CallTrace.end();
+			assertTrue(result.isOk());
+			assertEquals(1, result.getValue().getTimecards().size());
+			assertEquals("run " + i + ": " + trace.timeline(), 3, trace.getCalls());
+		}
+	}
+
+	@Test
+	public void tracesTimecardsOnlyWithWarmCaches() {
+		business.getEmployeeDetails(Constants.USERNAME, employeeId);
+		CallTrace trace = CallTrace.begin();
+
+		Result<EmployeeDetails> result = business.getEmployeeDetails(Constants.USERNAME, employeeId);
+
+		CallTrace.end();
+		assertTrue(result.isOk());
+		assertEquals(1, trace.getCalls());
+	}
+}
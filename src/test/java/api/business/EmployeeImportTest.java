@@ -0,0 +1,151 @@
+package api.business;
+
+import api.cache.CompanyCaches;
+import api.data.InMemoryDataAccess;
+import api.utils.Constants;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import companydata.Department;
+import companydata.Employee;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that mng_id and mng_emp_id of an import never refer to each other's employees
+ */
+public class EmployeeImportTest {
+	private static final String MANAGER_MISSING = "{\"error\": \"Manager does not exist!\"}";
+
+	private final ObjectMapper om = new ObjectMapper();
+
+	private InMemoryDataAccess dl;
+	private int departmentId;
+	private Employee existing;
+	private Map<Integer, Result<Employee>> results;
+
+	@Before
+	public void setUp() {
+		CompanyCaches.invalidate(Constants.USERNAME);
+
+		dl = new InMemoryDataAccess();
+		departmentId = dl.insertDepartment(new Department(Constants.USERNAME, "Test", "test-d1", "Rochester")).getId();
+		existing = dl.insertEmployee(new Employee("Existing", "test-e0", Date.valueOf("2020-01-06"), "CEO", 9000.0,
+				departmentId, 0));
+		results = new HashMap<>();
+	}
+
+	@After
+	public void tearDown() {
+		CompanyCaches.invalidate(Constants.USERNAME);
+	}
+
+	@Test
+	public void sourceManagerInLaterChunkIsNotAnExistingEmployee() throws IOException {
+		List<JsonNode> rows = new ArrayList<>();
+		// Names the source id that happens to be the id of the existing employee, imported a chunk later
+		rows.add(row("acq-0", 0, 0, existing.getId()));
+
+		for (int i = 1; i <= Constants.BULK_BATCH_SIZE; i++) {
+			rows.add(row("acq-" + i, 0, 0, 0));
+		}
+
+		rows.add(row("acq-source", existing.getId(), 0, 0));
+		run(rows);
+
+		assertEquals(MANAGER_MISSING, results.get(1).getErrorJson());
+		assertTrue(results.get(rows.size()).isOk());
+	}
+
+	@Test
+	public void managerIdIsAnExistingEmployee() throws IOException {
+		List<JsonNode> rows = new ArrayList<>();
+		rows.add(row("acq-1", existing.getId(), 0, 0));
+		rows.add(row("acq-2", 0, existing.getId(), 0));
+		run(rows);
+
+		assertEquals(existing.getId(), results.get(2).getValue().getMngId());
+	}
+
+	@Test
+	public void sourceManagerLaterInTheChunk() throws IOException {
+		List<JsonNode> rows = new ArrayList<>();
+		rows.add(row("acq-1", 18, 0, 17));
+		rows.add(row("acq-2", 17, 0, 0));
+		run(rows);
+
+		assertEquals(results.get(2).getValue().getId(), results.get(1).getValue().getMngId());
+	}
+
+	@Test
+	public void sourceManagerOfAnotherImportedRow() throws IOException {
+		List<JsonNode> rows = new ArrayList<>();
+		rows.add(row("acq-1", 17, 0, 0));
+		rows.add(row("acq-2", 0, 17, 0));
+		rows.add(row("acq-3", 0, 0, 17));
+		run(rows);
+
+		// mng_id 17 is not an employee of the company even though a row had emp_id 17
+		assertEquals(MANAGER_MISSING, results.get(2).getErrorJson());
+		assertEquals(results.get(1).getValue().getId(), results.get(3).getValue().getMngId());
+	}
+
+	@Test
+	public void rejectsDuplicateSourceIds() throws IOException {
+		List<JsonNode> rows = new ArrayList<>();
+		rows.add(row("acq-1", 17, 0, 0));
+		rows.add(row("acq-2", 17, 0, 0));
+		run(rows);
+
+		assertTrue(results.get(1).isOk());
+		assertEquals("{\"error\": \"Employee id already imported!\"}", results.get(2).getErrorJson());
+	}
+
+	@Test
+	public void rejectsBothManagerFields() throws IOException {
+		List<JsonNode> rows = new ArrayList<>();
+		rows.add(row("acq-1", 17, 0, 0));
+		rows.add(row("acq-2", 0, existing.getId(), 17));
+		run(rows);
+
+		assertEquals("{\"error\": \"Invalid employee!\"}", results.get(2).getErrorJson());
+	}
+
+	private void run(List<JsonNode> rows) throws IOException {
+		new EmployeeImport(dl, Constants.USERNAME).run(rows.iterator(), new EmployeeImport.Listener() {
+			@Override
+			public void row(int row, Result<Employee> result) {
+				results.put(row, result);
+			}
+
+			@Override
+			public void progress(int processed, int created, int failed) {
+			}
+		});
+	}
+
+	private ObjectNode row(String employeeNo, int sourceId, int managementId, int sourceManagementId) {
+		ObjectNode node = om.createObjectNode();
+		node.put("emp_name", "Test " + employeeNo);
+		node.put("emp_no", employeeNo);
+		node.put("hire_date", "2020-01-06");
+		node.put("job", "Programmer");
+		node.put("salary", 5000);
+		node.put("dept_id", departmentId);
+		node.put("emp_id", sourceId);
+		node.put("mng_id", managementId);
+		node.put("mng_emp_id", sourceManagementId);
+		return node;
+	}
+}
@@ -0,0 +1,154 @@
+package api.business;
+
+import api.cache.CompanyCaches;
+import api.data.InMemoryDataAccess;
+import api.utils.Constants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import companydata.Department;
+import companydata.Employee;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Counts the DataLayer calls a create and an update issue through EmployeeLookup, with cold and warm caches
+ */
+public class EmployeeLookupTest {
+	private static final String HIRE_DATE = "2020-01-06";
+
+	private CountingDataAccess dl;
+	private EmployeeBusiness business;
+	private int departmentId;
+
+	@Before
+	public void setUp() {
+		CompanyCaches.invalidate(Constants.USERNAME);
+
+		dl = new CountingDataAccess();
+		business = new EmployeeBusiness(dl);
+		departmentId = dl.insertDepartment(new Department(Constants.USERNAME, "Test", "test-d1", "Rochester")).getId();
+	}
+
+	@After
+	public void tearDown() {
+		CompanyCaches.invalidate(Constants.USERNAME);
+	}
+
+	@Test
+	public void createWithColdCaches() {
+		EmployeeLookup lookup = new EmployeeLookup(dl, Constants.USERNAME);
+		Result<Employee> result = create(lookup, "test-e1", 0);
+
+		assertTrue(result.isOk());
+		// The department and the employee list of the emp_no index
+		assertEquals(2, lookup.getRoundTrips());
+		assertEquals(2, dl.reads.get());
+	}
+
+	@Test
+	public void createWithWarmCaches() {
+		Employee manager = create(new EmployeeLookup(dl, Constants.USERNAME), "test-e1", 0).getValue();
+		dl.reads.set(0);
+
+		EmployeeLookup lookup = new EmployeeLookup(dl, Constants.USERNAME);
+		Result<Employee> result = create(lookup, "test-e2", manager.getId());
+
+		assertTrue(result.isOk());
+		assertEquals(0, lookup.getRoundTrips());
+		assertEquals(0, dl.reads.get());
+	}
+
+	@Test
+	public void createWithDuplicateEmployeeNo() {
+		create(new EmployeeLookup(dl, Constants.USERNAME), "test-e1", 0);
+		CompanyCaches.invalidate(Constants.USERNAME);
+		dl.reads.set(0);
+
+		EmployeeLookup lookup = new EmployeeLookup(dl, Constants.USERNAME);
+		Result<Employee> result = create(lookup, "test-e1", 0);
+
+		assertEquals("{\"error\": \"Employee No already exists!\"}", result.getErrorJson());
+		assertEquals(2, lookup.getRoundTrips());
+		assertEquals(2, dl.reads.get());
+	}
+
+	@Test
+	public void updateWithColdCaches() {
+		Employee created = create(new EmployeeLookup(dl, Constants.USERNAME), "test-e1", 0).getValue();
+		CompanyCaches.invalidate(Constants.USERNAME);
+		dl.reads.set(0);
+
+		EmployeeLookup lookup = new EmployeeLookup(dl, Constants.USERNAME);
+		Result<Employee> result = business.updateEmployee(lookup, update(created.getId(), "test-e1-renamed"));
+
+		assertTrue(result.isOk());
+		// The employee, the department and the employee list of the emp_no index
+		assertEquals(3, lookup.getRoundTrips());
+		assertEquals(3, dl.reads.get());
+	}
+
+	@Test
+	public void updateWithWarmCaches() {
+		Employee created = create(new EmployeeLookup(dl, Constants.USERNAME), "test-e1", 0).getValue();
+		dl.reads.set(0);
+
+		EmployeeLookup lookup = new EmployeeLookup(dl, Constants.USERNAME);
+		Result<Employee> result = business.updateEmployee(lookup, update(created.getId(), "test-e1-renamed"));
+
+		assertTrue(result.isOk());
+		assertEquals(0, lookup.getRoundTrips());
+		assertEquals(0, dl.reads.get());
+	}
+
+	private Result<Employee> create(EmployeeLookup lookup, String employeeNo, int managementId) {
+		return business.createEmployee(lookup, Constants.USERNAME, "Test " + employeeNo, employeeNo, HIRE_DATE,
+				"Programmer", 5000, departmentId, managementId);
+	}
+
+	private ObjectNode update(int employeeId, String employeeNo) {
+		ObjectNode node = new ObjectMapper().createObjectNode();
+		node.put("company", Constants.USERNAME);
+		node.put("emp_id", employeeId);
+		node.put("emp_name", "Test " + employeeNo);
+		node.put("emp_no", employeeNo);
+		node.put("hire_date", HIRE_DATE);
+		node.put("job", "Programmer");
+		node.put("salary", 6000.0);
+		node.put("dept_id", departmentId);
+		node.put("mng_id", 0);
+		return node;
+	}
+
+	/**
+	 * InMemoryDataAccess that counts the reads EmployeeLookup can issue
+	 */
+	private static class CountingDataAccess extends InMemoryDataAccess {
+		// prefetch() reads from the LookupExecutor threads
+		private final AtomicInteger reads = new AtomicInteger();
+
+		@Override
+		public Department getDepartment(String company, int departmentId) {
+			reads.incrementAndGet();
+			return super.getDepartment(company, departmentId);
+		}
+
+		@Override
+		public Employee getEmployee(int employeeId) {
+			reads.incrementAndGet();
+			return super.getEmployee(employeeId);
+		}
+
+		@Override
+		public List<Employee> getAllEmployee(String company) {
+			reads.incrementAndGet();
+			return super.getAllEmployee(company);
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package api.data;
+
+import companydata.Department;
+import companydata.Employee;
+import companydata.Timecard;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks the reference checks and company listings of InMemoryDataAccess as rows are inserted, moved and deleted
+ */
+public class InMemoryDataAccessTest {
+	private InMemoryDataAccess dl;
+	private int first;
+	private int second;
+
+	@Before
+	public void setUp() {
+		dl = new InMemoryDataAccess();
+		first = dl.insertDepartment(new Department("a", "First", "d1", "Rochester")).getId();
+		second = dl.insertDepartment(new Department("a", "Second", "d2", "Rochester")).getId();
+	}
+
+	@Test
+	public void departmentWithEmployeesIsNotDeleted() {
+		Employee e = employee("e1", first, 0);
+
+		assertEquals(0, dl.deleteDepartment("a", first));
+
+		e.setDeptId(second);
+		dl.updateEmployee(e);
+
+		assertEquals(1, dl.deleteDepartment("a", first));
+		assertEquals(0, dl.deleteDepartment("a", second));
+
+		dl.deleteEmployee(e.getId());
+		assertEquals(1, dl.deleteDepartment("a", second));
+	}
+
+	@Test
+	public void managerWithReportsIsNotDeleted() {
+		Employee manager = employee("e1", first, 0);
+		Employee report = employee("e2", first, manager.getId());
+		Employee other = employee("e3", first, 0);
+
+		assertEquals(0, dl.deleteEmployee(manager.getId()));
+
+		report.setMngId(other.getId());
+		dl.updateEmployee(report);
+
+		assertEquals(1, dl.deleteEmployee(manager.getId()));
+		assertEquals(0, dl.deleteEmployee(other.getId()));
+		assertEquals(2, dl.deleteEmployees(new int[]{report.getId(), other.getId()}));
+	}
+
+	@Test
+	public void ownManagerIsDeleted() {
+		Employee e = employee("e1", first, 0);
+		e.setMngId(e.getId());
+		dl.updateEmployee(e);
+
+		assertEquals(1, dl.deleteEmployee(e.getId()));
+	}
+
+	@Test
+	public void employeeWithTimecardsIsNotDeleted() {
+		Employee e = employee("e1", first, 0);
+		Timecard t = dl.insertTimecard(new Timecard(Timestamp.valueOf("2020-01-06 08:00:00"),
+				Timestamp.valueOf("2020-01-06 17:00:00"), e.getId()));
+
+		assertEquals(0, dl.deleteEmployee(e.getId()));
+
+		dl.deleteTimecard(t.getId());
+		assertEquals(1, dl.deleteEmployee(e.getId()));
+	}
+
+	@Test
+	public void departmentsAreListedPerCompany() {
+		int other = dl.insertDepartment(new Department("b", "Other", "d1", "Buffalo")).getId();
+		int third = dl.insertDepartment(new Department("a", "Third", "d3", "Rochester")).getId();
+		dl.deleteDepartment("a", second);
+
+		assertIds(dl.getAllDepartment("a"), first, third);
+		assertIds(dl.getAllDepartment("b"), other);
+	}
+
+	@Test
+	public void deletedCompanyLeavesNoReferences() {
+		int other = dl.insertDepartment(new Department("b", "Other", "d1", "Buffalo")).getId();
+		Employee manager = employee("e1", other, 0);
+		Employee report = employee("e2", first, manager.getId());
+
+		assertEquals(0, dl.deleteEmployee(manager.getId()));
+		assertEquals(3, dl.deleteCompany("a"));
+
+		// The report in company a was the only reference to the manager and to the department of company b
+		assertEquals(0, dl.getAllDepartment("a").size());
+		assertNull(dl.getEmployee(report.getId()));
+		assertEquals(1, dl.deleteEmployee(manager.getId()));
+		assertEquals(1, dl.deleteDepartment("b", other));
+	}
+
+	private Employee employee(String employeeNo, int departmentId, int managementId) {
+		return dl.insertEmployee(new Employee("Test " + employeeNo, employeeNo, Date.valueOf("2020-01-06"),
+				"Programmer", 5000.0, departmentId, managementId));
+	}
+
+	private static void assertIds(List<Department> departments, int... ids) {
+		assertEquals(ids.length, departments.size());
+
+		for (int i = 0; i < ids.length; i++) {
+			assertEquals(ids[i], departments.get(i).getId());
+		}
+	}
+}
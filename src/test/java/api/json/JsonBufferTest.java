@@ -0,0 +1,91 @@
+package api.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class JsonBufferTest {
+	@Test
+	public void fixed2RoundsHalfUp() {
+		assertEquals("0.13", fixed2(0.125));
+		assertEquals("1.01", fixed2(1.005));
+		assertEquals("2.68", fixed2(2.675));
+		assertEquals("100.00", fixed2(99.995));
+		assertEquals("1000.00", fixed2(999.999));
+		assertEquals("1.00", fixed2(1));
+		assertEquals("1.50", fixed2(1.5));
+		assertEquals("0.00", fixed2(0.004));
+	}
+
+	@Test
+	public void fixed2Negative() {
+		assertEquals("-0.13", fixed2(-0.125));
+		assertEquals("-1.01", fixed2(-1.005));
+		assertEquals("-100.00", fixed2(-99.995));
+		assertEquals("-0.00", fixed2(-0.001));
+		assertEquals("-0.00", fixed2(-0.0));
+		assertEquals("-5000.00", fixed2(-5000));
+	}
+
+	@Test
+	public void fixed2SpecialValues() {
+		assertEquals("null", new JsonBuffer(16).fixed2(null).toString());
+		assertEquals("NaN", fixed2(Double.NaN));
+		assertEquals("-Infinity", fixed2(Double.NEGATIVE_INFINITY));
+		assertEquals("100000000000000000000.00", fixed2(1e20));
+		assertEquals("0.00", fixed2(1e-7));
+		assertEquals("-0.00", fixed2(-1e-7));
+	}
+
+	@Test
+	public void fixed2MatchesFormat() {
+		Random random = new Random(42);
+
+		for (int i = -100000; i <= 100000; i++) {
+			check(i / 1000.0);
+		}
+
+		for (int i = 0; i < 100000; i++) {
+			check((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12)));
+		}
+	}
+
+	@Test
+	public void escapesStrings() throws IOException {
+		String s = "quote \" backslash \\ slash / newline \n return \r tab \t backspace \b feed \f nul \u0000 " +
+				"unit \u001f delete \u007f euro \u20ac";
+		String json = new JsonBuffer(16).string(s).toString();
+
+		assertEquals("\"quote \\\" backslash \\\\ slash / newline \\n return \\r tab \\t backspace \\b feed \\f " +
+				"nul \\u0000 unit \\u001f delete \u007f euro \u20ac\"", json);
+		assertEquals(s, new ObjectMapper().readValue(json, String.class));
+	}
+
+	@Test
+	public void nullStringAndDates() {
+		assertEquals("\"null\"", new JsonBuffer(16).string(null).toString());
+		assertEquals("null", new JsonBuffer(16).date(null).toString());
+		assertEquals("null", new JsonBuffer(16).timestamp(null).toString());
+	}
+
+	@Test
+	public void numbers() {
+		JsonBuffer out = new JsonBuffer(1);
+		out.number(0).raw(',').number(-7).raw(',').number(Integer.MAX_VALUE).raw(',').number(Integer.MIN_VALUE);
+
+		assertEquals("0,-7,2147483647,-2147483648", out.toString());
+	}
+
+	private static void check(double value) {
+		assertEquals(String.valueOf(value), String.format(Locale.ROOT, "%.2f", value), fixed2(value));
+	}
+
+	private static String fixed2(double value) {
+		return new JsonBuffer(1).fixed2(value).toString();
+	}
+}
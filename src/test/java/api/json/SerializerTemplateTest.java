@@ -0,0 +1,94 @@
+package api.json;
+
+import api.utils.Constants;
+import companydata.Department;
+import companydata.Employee;
+import companydata.Timecard;
+import org.junit.Test;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the serializers with String.format over the Constants templates they replaced
+ */
+public class SerializerTemplateTest {
+	@Test
+	public void department() {
+		Department d = new Department(42, Constants.USERNAME, "Information Technology", "IT-042", "Rochester");
+
+		assertEquals(String.format(Locale.ROOT, Constants.DEPARTMENT_TEMPLATE, d.getId(), d.getCompany(),
+				d.getDeptName(), d.getDeptNo(), d.getLocation()), DepartmentSerializer.INSTANCE.toJson(d));
+	}
+
+	@Test
+	public void departmentWithNullFields() {
+		Department d = new Department(7, Constants.USERNAME, null, null, null);
+
+		assertEquals(String.format(Locale.ROOT, Constants.DEPARTMENT_TEMPLATE, d.getId(), d.getCompany(),
+				d.getDeptName(), d.getDeptNo(), d.getLocation()), DepartmentSerializer.INSTANCE.toJson(d));
+	}
+
+	@Test
+	public void employee() {
+		double[] salaries = {0, 1, 5000, 1234.5, 1234.567, 0.005, 0.015, 1.005, 99.995, -1.005, -0.001, 123456789.125};
+
+		for (double salary : salaries) {
+			Employee e = new Employee(1337, "Jane Doe", "xl4998-e1337", Date.valueOf("2019-10-14"), "Programmer",
+					salary, 42, 7);
+
+			assertEquals(templateOf(e), EmployeeSerializer.INSTANCE.toJson(e));
+		}
+	}
+
+	@Test
+	public void employeeWithNullFields() {
+		Employee e = new Employee(1, null, null, null, null, null, 42, 0);
+
+		// The template wrote null strings as "null" but cut a null salary to nu, the serializer writes null
+		String template = String.format(Locale.ROOT, Constants.EMPLOYEE_TEMPLATE, e.getId(), null, null, null, null,
+				null, e.getDeptId(), e.getMngId());
+
+		assertEquals(template.replace("\"salary\": nu,", "\"salary\": null,"), EmployeeSerializer.INSTANCE.toJson(e));
+	}
+
+	@Test
+	public void timecard() {
+		Timecard t = new Timecard(9, Timestamp.valueOf("2026-10-16 07:05:09"), Timestamp.valueOf("2026-10-16 17:30:00"),
+				1337);
+		SimpleDateFormat df = new SimpleDateFormat(Constants.TIMESTAMP_FORMAT);
+
+		assertEquals(String.format(Locale.ROOT, Constants.TIMECARD_TEMPLATE, t.getId(), df.format(t.getStartTime()),
+				df.format(t.getEndTime()), t.getEmpId()), TimecardSerializer.INSTANCE.toJson(t));
+	}
+
+	@Test
+	public void timecardWithNullTimes() {
+		Timecard t = new Timecard(9, null, null, 1337);
+
+		assertEquals(String.format(Locale.ROOT, Constants.TIMECARD_TEMPLATE, t.getId(), null, null, t.getEmpId()),
+				TimecardSerializer.INSTANCE.toJson(t));
+	}
+
+	@Test
+	public void escapedStrings() {
+		Department d = new Department(1, Constants.USERNAME, "R&D \"Labs\"", "C:\\d1", "Line 1\nLine 2\t\u0001");
+
+		// The template wrote these as they were, which is not valid JSON
+
+		assertEquals("{\"dept_id\": 1, \"company\": \"xl4998\", \"dept_name\": \"R&D \\\"Labs\\\"\", " +
+						"\"dept_no\": \"C:\\\\d1\", \"location\": \"Line 1\\nLine 2\\t\\u0001\"}",
+				DepartmentSerializer.INSTANCE.toJson(d));
+	}
+
+	private static String templateOf(Employee e) {
+		SimpleDateFormat df = new SimpleDateFormat(Constants.HIREDATE_FORMAT);
+
+		return String.format(Locale.ROOT, Constants.EMPLOYEE_TEMPLATE, e.getId(), e.getEmpName(), e.getEmpNo(),
+				df.format(e.getHireDate()), e.getJob(), e.getSalary(), e.getDeptId(), e.getMngId());
+	}
+}
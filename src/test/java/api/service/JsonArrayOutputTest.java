@@ -0,0 +1,112 @@
+package api.service;
+
+import api.json.DepartmentSerializer;
+import api.json.JsonBuffer;
+import api.utils.Constants;
+import companydata.Department;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class JsonArrayOutputTest {
+	@Test
+	public void emptyArray() throws IOException {
+		assertEquals("[]", write(Collections.<Department>emptyList()));
+	}
+
+	@Test
+	public void singleRow() throws IOException {
+		List<Department> rows = departments(1, 0);
+
+		assertEquals(expected(rows), write(rows));
+	}
+
+	@Test
+	public void rowsAcrossChunkBoundaries() throws IOException {
+		// Row lengths that are not a divisor of the buffer size, so chunks end at every offset of a row
+		for (int padding = 0; padding < 40; padding += 7) {
+			List<Department> rows = departments(2000, padding);
+
+			assertEquals("padding " + padding, expected(rows), write(rows));
+		}
+	}
+
+	@Test
+	public void rowLargerThanBuffer() throws IOException {
+		List<Department> rows = new ArrayList<>(departments(3, 0));
+		rows.add(1, new Department(99, Constants.USERNAME, repeat('x', 20000), "d99", "Rochester"));
+
+		assertEquals(expected(rows), write(rows));
+	}
+
+	@Test
+	public void keepsEarlierOutputOfTheBuffer() throws IOException {
+		List<Department> rows = departments(500, 3);
+		JsonBuffer buffer = new JsonBuffer(64);
+		StringWriter writer = new StringWriter();
+
+		buffer.raw("{\"rows\": ");
+		JsonArrayOutput.writeArray(buffer, writer, rows, DepartmentSerializer.INSTANCE);
+		buffer.raw('}');
+		buffer.writeTo(writer);
+
+		assertEquals("{\"rows\": " + expected(rows) + "}", writer.toString());
+	}
+
+	@Test
+	public void writesUtf8() throws IOException {
+		List<Department> rows = new ArrayList<>();
+
+		for (int i = 0; i < 1000; i++) {
+			rows.add(new Department(i, Constants.USERNAME, "Caf\u00e9 \u20ac " + i, "d" + i, "M\u00fcnchen"));
+		}
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new JsonArrayOutput<>(rows, DepartmentSerializer.INSTANCE).write(output);
+
+		assertEquals(expected(rows), new String(output.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	private static String write(List<Department> rows) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new JsonArrayOutput<>(rows, DepartmentSerializer.INSTANCE).write(output);
+		return new String(output.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static String expected(List<Department> rows) {
+		StringBuilder json = new StringBuilder("[");
+
+		for (int i = 0; i < rows.size(); i++) {
+			if (i > 0) json.append(',');
+			json.append(DepartmentSerializer.INSTANCE.toJson(rows.get(i)));
+		}
+
+		return json.append(']').toString();
+	}
+
+	private static List<Department> departments(int count, int padding) {
+		List<Department> rows = new ArrayList<>();
+
+		for (int i = 1; i <= count; i++) {
+			rows.add(new Department(i, Constants.USERNAME, "Department " + i + repeat('p', padding), "d" + i,
+					"Rochester"));
+		}
+
+		return rows;
+	}
+
+	private static String repeat(char c, int count) {
+		char[] chars = new char[count];
+		Arrays.fill(chars, c);
+		return new String(chars);
+	}
+}
@@ -0,0 +1,116 @@
+package api.service;
+
+import api.metrics.Metrics;
+import api.metrics.Timer;
+import org.junit.Test;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs MetricsFilter against stand-ins for the request, response and writer contexts
+ */
+public class MetricsFilterTest {
+	@Test
+	public void startsBeforeMatching() {
+		assertTrue(MetricsFilter.class.isAnnotationPresent(PreMatching.class));
+	}
+
+	@Test
+	public void recordsUnmatchedRequests() throws Exception {
+		Timer timer = Metrics.REQUESTS.get("unmatched", "unmatched");
+		long count = timer.getCount();
+		long errors = timer.getErrors();
+
+		MetricsFilter filter = filter(null);
+		Map<String, Object> properties = new HashMap<>();
+		filter.filter(request(properties));
+		filter.filter(request(properties), response(404, false));
+
+		assertEquals(count + 1, timer.getCount());
+		assertEquals(errors + 1, timer.getErrors());
+	}
+
+	@Test
+	public void recordsResourceMethodOnceTheBodyIsWritten() throws Exception {
+		Timer timer = Metrics.REQUESTS.get("Resource", "get");
+		long count = timer.getCount();
+
+		MetricsFilter filter = filter(Resource.class.getMethod("get"));
+		Map<String, Object> properties = new HashMap<>();
+		filter.filter(request(properties));
+		filter.filter(request(properties), response(200, true));
+
+		assertEquals(count, timer.getCount());
+
+		filter.aroundWriteTo(writer(properties));
+
+		assertEquals(count + 1, timer.getCount());
+		assertEquals(0, timer.getErrors());
+	}
+
+	public static class Resource {
+		public void get() {
+		}
+	}
+
+	private static MetricsFilter filter(Method method) throws ReflectiveOperationException {
+		ResourceInfo info = fake(ResourceInfo.class, (name, args) -> {
+			if (name.equals("getResourceMethod")) return method;
+			if (name.equals("getResourceClass")) return method == null ? null : method.getDeclaringClass();
+			throw new UnsupportedOperationException(name);
+		});
+
+		MetricsFilter filter = new MetricsFilter();
+		Field field = MetricsFilter.class.getDeclaredField("resourceInfo");
+		field.setAccessible(true);
+		field.set(filter, info);
+		return filter;
+	}
+
+	private static ContainerRequestContext request(Map<String, Object> properties) {
+		return fake(ContainerRequestContext.class, (name, args) -> property(properties, name, args));
+	}
+
+	private static ContainerResponseContext response(int status, boolean entity) {
+		return fake(ContainerResponseContext.class, (name, args) -> {
+			if (name.equals("getStatus")) return status;
+			if (name.equals("hasEntity")) return entity;
+			throw new UnsupportedOperationException(name);
+		});
+	}
+
+	private static WriterInterceptorContext writer(Map<String, Object> properties) {
+		return fake(WriterInterceptorContext.class, (name, args) -> {
+			if (name.equals("proceed")) return null;
+			return property(properties, name, args);
+		});
+	}
+
+	private static Object property(Map<String, Object> properties, String name, Object[] args) {
+		if (name.equals("getProperty")) return properties.get((String) args[0]);
+		if (name.equals("setProperty")) return properties.put((String) args[0], args[1]);
+		throw new UnsupportedOperationException(name);
+	}
+
+	private interface Handler {
+		Object invoke(String name, Object[] args) throws IOException;
+	}
+
+	private static <T> T fake(Class<T> type, Handler handler) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+				(proxy, method, args) -> handler.invoke(method.getName(), args)));
+	}
+}